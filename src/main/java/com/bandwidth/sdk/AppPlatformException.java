@@ -6,6 +6,8 @@ public class AppPlatformException extends Exception {
 
 	private int status;
 
+	private String retryAfter;
+
     public AppPlatformException() {
 	}
 
@@ -26,7 +28,30 @@ public class AppPlatformException extends Exception {
 		this.status = status;
 	}
 
+	/**
+	 * Constructor for an error response that asked the client to wait before trying again.
+	 *
+	 * @param message the response text.
+	 * @param status the response status.
+	 * @param retryAfter the Retry-After header of the response, may be null.
+	 */
+	public AppPlatformException(final String message, final int status, final String retryAfter) {
+		super(message);
+		this.status = status;
+		this.retryAfter = retryAfter;
+	}
+
 	public int getStatus() {
 		return status;
 	}
+
+	/**
+	 * Returns the Retry-After header of the error response, in seconds or an HTTP date, see
+	 * RetryPolicy.parseRetryAfter().
+	 *
+	 * @return the header, or null if the response had none.
+	 */
+	public String getRetryAfter() {
+		return retryAfter;
+	}
 }
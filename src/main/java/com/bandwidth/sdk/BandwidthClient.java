@@ -1,12 +1,18 @@
 package com.bandwidth.sdk;
 
+import com.bandwidth.sdk.exception.CircuitOpenException;
+import com.bandwidth.sdk.exception.ConcurrencyLimitException;
 import com.bandwidth.sdk.exception.InvalidCredentialsException;
 import com.bandwidth.sdk.exception.MissingCredentialsException;
 import com.bandwidth.sdk.model.Account;
+import com.bandwidth.sdk.model.CallStateCache;
+import com.bandwidth.sdk.transport.ApacheHttpTransport;
+import com.bandwidth.sdk.transport.Transport;
+import com.bandwidth.sdk.transport.UrlConnectionTransport;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.http.HeaderElement;
-import org.apache.http.HeaderElementIterator;
+import org.apache.http.Consts;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
@@ -17,21 +23,23 @@ import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.utils.URLEncodedUtils;
-import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.FileEntity;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.AIMDBackoffManager;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
 import org.apache.http.message.BasicHeader;
-import org.apache.http.message.BasicHeaderElementIterator;
 import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.protocol.HTTP;
-import org.apache.http.protocol.HttpContext;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.apache.http.util.EntityUtils;
 import org.json.simple.JSONObject;
 import org.slf4j.Logger;
@@ -41,6 +49,7 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.Closeable;
 import java.net.URI;
@@ -49,13 +58,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Future;
 
 /**
- * Helper class to abstract the HTTP interface. This class wraps the HttpClient and the HTTP methods POST, GET, PUT
- * and DELETE.
+ * Helper class to abstract the HTTP interface. This class wraps the HTTP methods POST, GET, PUT and DELETE around a
+ * pluggable Transport, Apache HttpClient by default.
  *
  * This class also holds the credentials to the back end and includes several convenience methods for building the
  * appropriate resource URIs.
@@ -68,7 +75,16 @@ import java.util.concurrent.TimeUnit;
 public class BandwidthClient implements Client, Closeable {
 
     private final static Logger LOG = LoggerFactory.getLogger(BandwidthClient.class);
-    public static final int MONITOR_TIMER = 5000;
+
+    /**
+     * @deprecated the idle connection monitor moved to ApacheHttpTransport, use ApacheHttpTransport.MONITOR_TIMER.
+     */
+    @Deprecated
+    public static final int MONITOR_TIMER = ApacheHttpTransport.MONITOR_TIMER;
+
+    // Headers are immutable, so the constant ones are shared by every request
+    private static final Header ACCEPT_HEADER = new BasicHeader("Accept", "application/json");
+    private static final Header ACCEPT_CHARSET_HEADER = new BasicHeader("Accept-Charset", "utf-8");
 
     protected String token;
     protected String secret;
@@ -78,13 +94,32 @@ public class BandwidthClient implements Client, Closeable {
     protected Integer maxTotal;
     protected Integer defaultMaxPerRoute;
 
+    protected Transport transport;
+
+    /**
+     * The Apache client of the default transport, null with another transport. A subclass that sets it to a client
+     * of its own has the blocking requests sent through that client instead of the transport.
+     *
+     * @deprecated pass a Transport to the constructor instead.
+     */
+    @Deprecated
     protected HttpClient httpClient;
 
-    protected static BandwidthClient INSTANCE;
+    private volatile Header authorizationHeader;
 
-    private ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private volatile boolean refreshAfterUpdate = true;
 
-    private IdleConnectionMonitorRunnable idleConnectionMonitorRunnable;
+    private volatile CallStateCache callStateCache;
+
+    private volatile RetryPolicy retryPolicy;
+
+    private volatile ConcurrencyLimiter concurrencyLimiter;
+
+    private volatile CircuitBreaker circuitBreaker;
+
+    protected CloseableHttpAsyncClient asyncHttpClient;
+
+    protected static BandwidthClient INSTANCE;
 
     /**
      * getInstance() method returns a singleton instance of the BandwidthClient. Looks for user-id, api-token and
@@ -136,7 +171,13 @@ public class BandwidthClient implements Client, Closeable {
                 }
             }
 
-            INSTANCE = new BandwidthClient(userId, apiToken, apiSecret, apiEndpoint, apiVersion, maxTotalNum, defaultMaxPerRouteNum);
+            String transportName = System.getProperty(BandwidthConstants.BANDWIDTH_SYSPROP_HTTP_TRANSPORT);
+            if (transportName == null) {
+                transportName = System.getenv().get(BandwidthConstants.BANDWIDTH_HTTP_TRANSPORT);
+            }
+
+            INSTANCE = new BandwidthClient(userId, apiToken, apiSecret, apiEndpoint, apiVersion, maxTotalNum,
+                    defaultMaxPerRouteNum, createTransport(transportName, maxTotalNum, defaultMaxPerRouteNum));
 
             if (userId != null || apiToken != null || apiSecret != null) {
                 validateCredentials();
@@ -169,9 +210,32 @@ public class BandwidthClient implements Client, Closeable {
                               final String apiVersion,
                               final Integer maxTotal,
                               final Integer defaultMaxPerRoute) {
+        this(userId, apiToken, apiSecret, apiEndpoint, apiVersion, maxTotal, defaultMaxPerRoute, null);
+    }
+
+    /**
+     * Constructor with an explicit transport.
+     * @param userId the user id.
+     * @param apiToken the user API token.
+     * @param apiSecret the user API secret.
+     * @param apiEndpoint the API Endpoint.
+     * @param apiVersion the API version.
+     * @param maxTotal the API Endpoint.
+     * @param defaultMaxPerRoute the API version.
+     * @param transport the HTTP transport, or null for the default Apache HttpClient transport.
+     */
+    protected BandwidthClient(final String userId,
+                              final String apiToken,
+                              final String apiSecret,
+                              final String apiEndpoint,
+                              final String apiVersion,
+                              final Integer maxTotal,
+                              final Integer defaultMaxPerRoute,
+                              final Transport transport) {
         this.usersUri = String.format(BandwidthConstants.USERS_URI_PATH, userId);
         this.token = apiToken;
         this.secret = apiSecret;
+        this.authorizationHeader = createAuthorizationHeader(apiToken, apiSecret);
 
         this.apiEndpoint = apiEndpoint;
         this.apiVersion = apiVersion;
@@ -193,7 +257,135 @@ public class BandwidthClient implements Client, Closeable {
             this.defaultMaxPerRoute = BandwidthConstants.HTTP_MAX_DEFAULT_CONNECTIONS_PER_ROUTE;
         }
 
-        this.httpClient = createHttpClient();
+        this.transport = transport != null ? transport : new ApacheHttpTransport(this.maxTotal, this.defaultMaxPerRoute);
+        this.httpClient = this.transport instanceof ApacheHttpTransport
+                ? ((ApacheHttpTransport) this.transport).getHttpClient() : null;
+    }
+
+    /**
+     * Creates the transport registered under the given name: "apache" (the default) for Apache HttpClient or
+     * "urlconnection" for the JDK's HttpURLConnection.
+     *
+     * @param name the transport name, may be null.
+     * @param maxTotal the maximum number of pooled connections, may be null.
+     * @param defaultMaxPerRoute the maximum number of pooled connections per route, may be null.
+     * @return the transport.
+     */
+    public static Transport createTransport(final String name, final Integer maxTotal, final Integer defaultMaxPerRoute) {
+        if (name == null || BandwidthConstants.HTTP_TRANSPORT_APACHE.equalsIgnoreCase(name)) {
+            return new ApacheHttpTransport(
+                    maxTotal == null ? BandwidthConstants.HTTP_MAX_TOTAL_CONNECTIONS : maxTotal,
+                    defaultMaxPerRoute == null ? BandwidthConstants.HTTP_MAX_DEFAULT_CONNECTIONS_PER_ROUTE : defaultMaxPerRoute);
+        } else if (BandwidthConstants.HTTP_TRANSPORT_URL_CONNECTION.equalsIgnoreCase(name)) {
+            return new UrlConnectionTransport();
+        } else {
+            throw new RuntimeException(String.format("Invalid parameter for HTTP_TRANSPORT %s", name));
+        }
+    }
+
+    /**
+     * Returns the transport executing this client's requests.
+     *
+     * @return the transport.
+     */
+    public Transport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Returns whether model objects reload themselves from the API after an update such as Call.hangUp().
+     *
+     * @return true if updates are followed by a GET, the default.
+     */
+    public boolean isRefreshAfterUpdate() {
+        return refreshAfterUpdate;
+    }
+
+    /**
+     * Sets whether model objects reload themselves from the API after an update. When off, the change is applied
+     * to the local properties instead and the follow-up GET is skipped; ResourceBase.refresh() reloads on demand.
+     *
+     * @param refreshAfterUpdate false to apply updates optimistically.
+     */
+    public void setRefreshAfterUpdate(final boolean refreshAfterUpdate) {
+        this.refreshAfterUpdate = refreshAfterUpdate;
+    }
+
+    /**
+     * Returns the cache Call.get() and Conference.getConference() consult before requesting the API.
+     *
+     * @return the cache, or null if not set.
+     */
+    public CallStateCache getCallStateCache() {
+        return callStateCache;
+    }
+
+    /**
+     * Sets a cache of call and conference state kept current by callback events, see CallStateCache.
+     *
+     * @param callStateCache the cache, or null to always request the API.
+     */
+    public void setCallStateCache(final CallStateCache callStateCache) {
+        this.callStateCache = callStateCache;
+    }
+
+    /**
+     * Returns the policy the blocking requests are retried with.
+     *
+     * @return the policy, or null if failures are thrown right away.
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets the policy the blocking requests are retried with, see RetryPolicy. Asynchronous requests are not
+     * retried.
+     *
+     * @param retryPolicy the policy, or null to throw failures right away, the default.
+     */
+    public void setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    /**
+     * Returns the limiter pacing the requests of each resource family.
+     *
+     * @return the limiter, or null if requests are not limited.
+     */
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Sets an adaptive limit on the requests in flight for each resource family, see ConcurrencyLimiter, blocking
+     * and asynchronous alike. Each attempt of a retried request takes its own slot. An asynchronous request waits
+     * for its slot on the calling thread, so it should not be started from the callback of another one.
+     *
+     * @param concurrencyLimiter the limiter, or null not to limit requests, the default.
+     */
+    public void setConcurrencyLimiter(final ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    /**
+     * Returns the circuit breaker of the requests of each resource family.
+     *
+     * @return the breaker, or null if requests are always sent.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Sets a circuit breaker on the requests of each resource family, see CircuitBreaker, blocking and asynchronous
+     * alike. While a circuit is open its requests fail with a CircuitOpenException right away, without waiting for a
+     * ConcurrencyLimiter slot, and are not retried; asynchronous ones get a future failed with it.
+     *
+     * @param circuitBreaker the breaker, or null to always send requests, the default.
+     */
+    public void setCircuitBreaker(final CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
     }
 
     /**
@@ -209,6 +401,7 @@ public class BandwidthClient implements Client, Closeable {
             this.usersUri = String.format(BandwidthConstants.USERS_URI_PATH, userId.replaceAll(" ", ""));
             this.token = apiToken.replaceAll(" ", "");
             this.secret = apiSecret.replaceAll(" ", "");
+            this.authorizationHeader = createAuthorizationHeader(this.token, this.secret);
 
             validateCredentials();
         } else {
@@ -399,6 +592,93 @@ public class BandwidthClient implements Client, Closeable {
         return request(getPath(uri), HttpDelete.METHOD_NAME);
     }
 
+    /**
+     * This method implements an asynchronous HTTP POST. The request is handed to the non-blocking I/O reactor and the
+     * calling thread returns immediately.
+     *
+     * @param uri the URI.
+     * @param params the parameters.
+     * @param callback the callback notified on completion, may be null.
+     * @return the future post response.
+     */
+    public Future<RestResponse> postAsync(final String uri, final Map<String, Object> params,
+                                          final FutureCallback<RestResponse> callback) {
+        return requestAsync(getPath(uri), HttpPost.METHOD_NAME, params, callback);
+    }
+
+    /**
+     * This method implements an asynchronous HTTP POST with a JSON body, such as the array form of the messages
+     * endpoint.
+     *
+     * @param uri the URI.
+     * @param json the json body.
+     * @param callback the callback notified on completion, may be null.
+     * @return the future post response.
+     */
+    public Future<RestResponse> postJsonAsync(final String uri, final String json,
+                                              final FutureCallback<RestResponse> callback) {
+        return performRequestAsync(setupRequestJson(getPath(uri), HttpPost.METHOD_NAME, json), callback);
+    }
+
+    /**
+     * This method implements an asynchronous HTTP GET. As with get(), a response flagged as an error fails the
+     * future with an IOException.
+     *
+     * @param uri the URI.
+     * @param params the parameters.
+     * @param callback the callback notified on completion, may be null.
+     * @return the future get response.
+     */
+    public Future<RestResponse> getAsync(final String uri, final Map<String, Object> params,
+                                         final FutureCallback<RestResponse> callback) {
+        final BasicFuture<RestResponse> future = new BasicFuture<RestResponse>(callback);
+        requestAsync(getPath(uri), HttpGet.METHOD_NAME, params, new FutureCallback<RestResponse>() {
+            @Override
+            public void completed(final RestResponse response) {
+                if (response.isError()) {
+                    future.failed(new IOException(response.getResponseText()));
+                } else {
+                    future.completed(response);
+                }
+            }
+
+            @Override
+            public void failed(final Exception ex) {
+                future.failed(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * This method implements an asynchronous HTTP PUT.
+     *
+     * @param uri the URI.
+     * @param params the parameters.
+     * @param callback the callback notified on completion, may be null.
+     * @return the future put response.
+     */
+    public Future<RestResponse> putAsync(final String uri, final Map<String, Object> params,
+                                         final FutureCallback<RestResponse> callback) {
+        return requestAsync(getPath(uri), HttpPut.METHOD_NAME, params, callback);
+    }
+
+    /**
+     * This method implements an asynchronous HTTP DELETE.
+     *
+     * @param uri the URI.
+     * @param callback the callback notified on completion, may be null.
+     * @return the future delete response.
+     */
+    public Future<RestResponse> deleteAsync(final String uri, final FutureCallback<RestResponse> callback) {
+        return requestAsync(getPath(uri), HttpDelete.METHOD_NAME, null, callback);
+    }
+
     /**
      * Convenience method to upload files to the server. User to upload media.
      *
@@ -429,7 +709,7 @@ public class BandwidthClient implements Client, Closeable {
         HttpResponse response;
         OutputStream outputStream = null;
         try {
-            response = httpClient.execute(request);
+            response = send(request);
             final HttpEntity entity = response.getEntity();
 
             final StatusLine status = response.getStatusLine();
@@ -519,13 +799,216 @@ public class BandwidthClient implements Client, Closeable {
             throw new MissingCredentialsException();
         }
 
-        RestResponse restResponse = RestResponse.createRestResponse(httpClient.execute(request));
+        final RetryPolicy policy = retryPolicy;
+        if (policy != null) {
+            policy.onRequest();
+        }
+        long delay = 0;
+        for (int attempt = 1; ; attempt++) {
+            final RestResponse restResponse;
+            try {
+                restResponse = execute(request);
+            } catch (final IOException e) {
+                // failed fast or timed out locally, sending again would only add to the load
+                if (policy == null || e instanceof CircuitOpenException || e instanceof ConcurrencyLimitException
+                        || (delay = policy.nextDelay(request.getMethod(), attempt, RetryPolicy.IO_FAILURE, null,
+                        delay)) < 0) {
+                    throw e;
+                }
+                awaitRetry(request, delay);
+                continue;
+            }
+
+            if (restResponse.getStatus() >= 400) {
+                if (policy == null
+                        || (delay = policy.nextDelay(request.getMethod(), attempt, restResponse.getStatus(),
+                        restResponse.getRetryAfter(), delay)) < 0) {
+                    throw new AppPlatformException(restResponse.getResponseText(), restResponse.getStatus(),
+                            restResponse.getRetryAfter());
+                }
+                awaitRetry(request, delay);
+                continue;
+            }
+
+            return restResponse;
+        }
+    }
+
+    /**
+     * Sends a request once, through the circuit breaker and within the limit of its resource family if they are set.
+     *
+     * @param request the request.
+     * @return the response.
+     * @throws IOException on a transport failure, a CircuitOpenException if the circuit is open or a
+     * ConcurrencyLimitException if no slot freed up in time.
+     */
+    private RestResponse execute(final HttpUriRequest request) throws IOException {
+        final String path = request.getURI().getPath();
+        final CircuitBreaker breaker = circuitBreaker;
+        final CircuitBreaker.Permit circuitPermit = breaker == null ? null : breaker.acquire(path);
+        final ConcurrencyLimiter limiter = concurrencyLimiter;
+        final ConcurrencyLimiter.Permit permit;
+        try {
+            permit = limiter == null ? null : limiter.acquire(path);
+        } catch (final IOException e) {
+            if (circuitPermit != null) {
+                circuitPermit.cancel();
+            }
+            throw e;
+        }
+        int status = RetryPolicy.IO_FAILURE;
+        try {
+            final RestResponse restResponse = RestResponse.createRestResponse(send(request));
+            status = restResponse.getStatus();
+            return restResponse;
+        } finally {
+            release(permit, circuitPermit, status);
+        }
+    }
+
+    private static void release(final ConcurrencyLimiter.Permit permit, final CircuitBreaker.Permit circuitPermit,
+                                final int status) {
+        if (permit != null) {
+            permit.release(status);
+        }
+        if (circuitPermit != null) {
+            circuitPermit.release(status);
+        }
+    }
+
+    /**
+     * Sends a request through the transport, or through the httpClient a subclass set in place of the transport's.
+     *
+     * @param request the request.
+     * @return the response.
+     * @throws IOException on a transport failure.
+     */
+    private HttpResponse send(final HttpUriRequest request) throws IOException {
+        final HttpClient client = httpClient;
+        if (client != null && !(transport instanceof ApacheHttpTransport
+                && ((ApacheHttpTransport) transport).getHttpClient() == client)) {
+            return client.execute(request);
+        }
+        return transport.execute(request);
+    }
 
-        if (restResponse.getStatus() >= 400) {
-            throw new AppPlatformException(restResponse.getResponseText(), restResponse.getStatus());
+    /**
+     * Waits before a retry and readies the request to be sent again.
+     *
+     * @param request the request.
+     * @param delayMillis the delay.
+     * @throws InterruptedIOException if interrupted while waiting.
+     */
+    private static void awaitRetry(final HttpUriRequest request, final long delayMillis)
+            throws InterruptedIOException {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry " + request.getURI());
         }
+        if (request instanceof HttpRequestBase) {
+            ((HttpRequestBase) request).reset();
+        }
+    }
 
-        return restResponse;
+    /**
+     * Helper method to build an asynchronous request to the server.
+     *
+     * @param path the path
+     * @param method the method
+     * @param paramList the parameter list.
+     * @param callback the callback notified on completion, may be null.
+     * @return the future response.
+     */
+    protected Future<RestResponse> requestAsync(final String path, final String method, Map<String, Object> paramList,
+                                                final FutureCallback<RestResponse> callback) {
+        if (paramList == null) {
+            paramList = Collections.emptyMap();
+        }
+
+        final HttpUriRequest request = setupRequest(path, method, paramList);
+        return performRequestAsync(request, callback);
+    }
+
+    /**
+     * Helper method that executes the request on the non-blocking client. The callback is invoked on one of the
+     * I/O dispatch threads, so it should hand off any blocking work.
+     *
+     * @param request the request.
+     * @param callback the callback notified on completion, may be null.
+     * @return the future response, failed with an AppPlatformException on a status of 400 or above, with a
+     * CircuitOpenException if the circuit is open, or with a ConcurrencyLimitException if no ConcurrencyLimiter slot
+     * freed up in time.
+     */
+    protected Future<RestResponse> performRequestAsync(final HttpUriRequest request,
+                                                       final FutureCallback<RestResponse> callback) {
+
+        if (this.usersUri == null || this.usersUri.isEmpty()
+                || this.token == null || this.token.isEmpty()
+                || this.secret == null || this.secret.isEmpty()) {
+
+            throw new MissingCredentialsException();
+        }
+
+        final BasicFuture<RestResponse> future = new BasicFuture<RestResponse>(callback);
+        final String path = request.getURI().getPath();
+        final CircuitBreaker breaker = circuitBreaker;
+        final CircuitBreaker.Permit circuitPermit;
+        final ConcurrencyLimiter limiter = concurrencyLimiter;
+        final ConcurrencyLimiter.Permit permit;
+        try {
+            circuitPermit = breaker == null ? null : breaker.acquire(path);
+        } catch (final CircuitOpenException e) {
+            future.failed(e);
+            return future;
+        }
+        try {
+            permit = limiter == null ? null : limiter.acquire(path);
+        } catch (final IOException e) {
+            if (circuitPermit != null) {
+                circuitPermit.cancel();
+            }
+            future.failed(e);
+            return future;
+        }
+        try {
+            getAsyncHttpClient().execute(request, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(final HttpResponse httpResponse) {
+                    final RestResponse restResponse = RestResponse.createRestResponse(httpResponse);
+                    release(permit, circuitPermit, restResponse.getStatus());
+                    if (restResponse.getStatus() >= 400) {
+                        future.failed(new AppPlatformException(restResponse.getResponseText(),
+                                restResponse.getStatus(), restResponse.getRetryAfter()));
+                    } else {
+                        future.completed(restResponse);
+                    }
+                }
+
+                @Override
+                public void failed(final Exception ex) {
+                    release(permit, circuitPermit, RetryPolicy.IO_FAILURE);
+                    future.failed(ex);
+                }
+
+                @Override
+                public void cancelled() {
+                    release(permit, null, RetryPolicy.IO_FAILURE);
+                    if (circuitPermit != null) {
+                        circuitPermit.cancel();
+                    }
+                    future.cancel();
+                }
+            });
+        } catch (final RuntimeException e) {
+            release(permit, null, RetryPolicy.IO_FAILURE);
+            if (circuitPermit != null) {
+                circuitPermit.cancel();
+            }
+            throw e;
+        }
+        return future;
     }
 
     /**
@@ -538,9 +1021,7 @@ public class BandwidthClient implements Client, Closeable {
      */
     protected HttpUriRequest setupRequest(final String path, final String method, final Map<String, Object> params) {
         final HttpUriRequest request = buildMethod(method, path, params);
-        request.addHeader(new BasicHeader("Accept", "application/json"));
-        request.addHeader(new BasicHeader("Accept-Charset", "utf-8"));
-        request.setHeader(new BasicHeader("Authorization", "Basic " + new String(Base64.encodeBase64((this.token + ":" + this.secret).getBytes()))));
+        addHeaders(request);
         return request;
     }
 
@@ -554,12 +1035,34 @@ public class BandwidthClient implements Client, Closeable {
      */
     protected HttpUriRequest setupRequestJson(final String path, final String method, final String params) {
         final HttpUriRequest request = buildMethod(method, path, params);
-        request.addHeader(new BasicHeader("Accept", "application/json"));
-        request.addHeader(new BasicHeader("Accept-Charset", "utf-8"));
-        request.setHeader(new BasicHeader("Authorization", "Basic " + new String(Base64.encodeBase64((this.token + ":" + this.secret).getBytes()))));
+        addHeaders(request);
         return request;
     }
 
+    /**
+     * Helper method that adds the Accept and Authorization headers to a request. The headers are built once per
+     * credentials change rather than for every request.
+     *
+     * @param request the request.
+     */
+    protected void addHeaders(final HttpUriRequest request) {
+        request.addHeader(ACCEPT_HEADER);
+        request.addHeader(ACCEPT_CHARSET_HEADER);
+        request.setHeader(authorizationHeader);
+    }
+
+    /**
+     * Helper method that builds the Basic Authorization header for the given credentials.
+     *
+     * @param apiToken the API token.
+     * @param apiSecret the API secret.
+     * @return the header.
+     */
+    protected static Header createAuthorizationHeader(final String apiToken, final String apiSecret) {
+        final byte[] credentials = (apiToken + ":" + apiSecret).getBytes(Consts.UTF_8);
+        return new BasicHeader("Authorization", "Basic " + Base64.encodeBase64String(credentials));
+    }
+
     /**
      * Helper method that builds the request to the server.
      *
@@ -699,77 +1202,45 @@ public class BandwidthClient implements Client, Closeable {
         }
     }
 
-    private HttpClient createHttpClient() {
-        // Following recommendations from
-        // https://hc.apache.org/httpcomponents-client-ga/tutorial/html/connmgmt.html
-        PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+    /**
+     * Returns the non-blocking client, creating and starting its I/O reactor on first use so that purely
+     * synchronous users never pay for the extra threads.
+     *
+     * @return the started async client.
+     */
+    protected synchronized CloseableHttpAsyncClient getAsyncHttpClient() {
+        if (asyncHttpClient == null) {
+            asyncHttpClient = createAsyncHttpClient();
+            asyncHttpClient.start();
+        }
+        return asyncHttpClient;
+    }
+
+    private CloseableHttpAsyncClient createAsyncHttpClient() {
+        final PoolingNHttpClientConnectionManager cm;
+        try {
+            cm = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT));
+        } catch (final IOReactorException e) {
+            throw new IllegalStateException("Unable to start the I/O reactor", e);
+        }
 
         cm.setMaxTotal(this.maxTotal);
         cm.setDefaultMaxPerRoute(this.defaultMaxPerRoute);
 
-        HttpClient httpClient = HttpClients.custom()
+        return HttpAsyncClients.custom()
                 .setConnectionManager(cm)
-                .setKeepAliveStrategy(getStrategy())
-                .setBackoffManager(new AIMDBackoffManager(cm))
+                .setKeepAliveStrategy(ApacheHttpTransport.getStrategy())
                 .build();
-        this.idleConnectionMonitorRunnable = new IdleConnectionMonitorRunnable(cm);
-        this.executorService.execute(this.idleConnectionMonitorRunnable);
-
-        return httpClient;
-    }
-
-    private ConnectionKeepAliveStrategy getStrategy() {
-        return new ConnectionKeepAliveStrategy() {
-            @Override
-            public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
-                HeaderElementIterator it = new BasicHeaderElementIterator
-                        (response.headerIterator(HTTP.CONN_KEEP_ALIVE));
-                while (it.hasNext()) {
-                    HeaderElement he = it.nextElement();
-                    String param = he.getName();
-                    String value = he.getValue();
-                    if (value != null && param.equalsIgnoreCase
-                            ("timeout")) {
-                        return Long.parseLong(value) * 1000;
-                    }
-                }
-                return 5 * 1000;
-            }
-        };
     }
 
-    public static class IdleConnectionMonitorRunnable implements Runnable {
-        private final HttpClientConnectionManager connMgr;
-        private volatile boolean shutdown;
-
-        public IdleConnectionMonitorRunnable(HttpClientConnectionManager connMgr) {
-            super();
-            this.connMgr = connMgr;
-        }
-
-        @Override
-        public void run() {
-            try {
-                while (!shutdown) {
-                    synchronized (this) {
-                        wait(MONITOR_TIMER);
-                        // Close expired connections
-                        connMgr.closeExpiredConnections();
-                        // Optionally, close connections
-                        // that have been idle longer than 30 sec
-                        connMgr.closeIdleConnections(30, TimeUnit.SECONDS);
-                    }
-                }
-            } catch (InterruptedException ex) {
-                LOG.error("IdleConnectionMonitorRunnable failed.", ex);
-            }
-        }
+    /**
+     * @deprecated moved to ApacheHttpTransport, which runs it for its connection pool.
+     */
+    @Deprecated
+    public static class IdleConnectionMonitorRunnable extends ApacheHttpTransport.IdleConnectionMonitorRunnable {
 
-        public void shutdown() {
-            shutdown = true;
-            synchronized (this) {
-                notifyAll();
-            }
+        public IdleConnectionMonitorRunnable(final HttpClientConnectionManager connMgr) {
+            super(connMgr);
         }
     }
 
@@ -785,11 +1256,16 @@ public class BandwidthClient implements Client, Closeable {
 
     @Override
     public void close() {
-        if (!this.idleConnectionMonitorRunnable.shutdown) {
-            this.idleConnectionMonitorRunnable.shutdown();
-        }
-        if (!this.executorService.isShutdown()) {
-            this.executorService.shutdown();
+        this.transport.close();
+        synchronized (this) {
+            if (this.asyncHttpClient != null) {
+                try {
+                    this.asyncHttpClient.close();
+                } catch (final IOException e) {
+                    LOG.error("Failed to close the async http client.", e);
+                }
+                this.asyncHttpClient = null;
+            }
         }
     }
 
@@ -57,4 +57,11 @@ public interface BandwidthConstants {
     String BANDWIDTH_SYSPROP_HTTP_MAX_TOTAL_CONNECTIONS = "com.bandwidth.http.maxtotalconnections";
     String BANDWIDTH_SYSPROP_HTTP_MAX_DEFAULT_CONNECTIONS_PER_ROUTE = "com.bandwidth.http.maxdefaultconnectionsperroute";
 
+    // Http transport selection
+    String HTTP_TRANSPORT_APACHE = "apache";
+    String HTTP_TRANSPORT_URL_CONNECTION = "urlconnection";
+
+    String BANDWIDTH_HTTP_TRANSPORT = "BANDWIDTH_HTTP_TRANSPORT";
+    String BANDWIDTH_SYSPROP_HTTP_TRANSPORT = "com.bandwidth.http.transport";
+
 }
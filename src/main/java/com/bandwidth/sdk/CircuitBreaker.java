@@ -0,0 +1,386 @@
+package com.bandwidth.sdk;
+
+import com.bandwidth.sdk.exception.CircuitOpenException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for the requests of each resource family of the API, keyed like the ConcurrencyLimiter. Set it
+ * with BandwidthClient.setCircuitBreaker().
+ *
+ * While a family is CLOSED its requests go through and their outcomes are kept in a window of the last requests.
+ * When at least the minimum number of requests are in the window and the share of failures, I/O errors and 5xx
+ * responses, reaches the threshold, the circuit OPENs: requests fail right away with a CircuitOpenException instead
+ * of tying up threads and connections on an API that is down. After the open duration the circuit goes HALF_OPEN
+ * and lets a few probe requests through; if they all succeed it closes, if one fails it opens again.
+ *
+ * Listeners are told of every state change, on the thread whose request caused it.
+ */
+public class CircuitBreaker {
+
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+
+    public static final int DEFAULT_MINIMUM_REQUESTS = 10;
+
+    public static final long DEFAULT_OPEN_DURATION_MILLIS = 30000;
+
+    public static final int DEFAULT_HALF_OPEN_PROBES = 3;
+
+    private final static Logger LOG = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Notified of the state changes of the circuits.
+     */
+    public interface Listener {
+        void onStateChange(String family, State from, State to);
+    }
+
+    private final double failureRateThreshold;
+    private final int windowSize;
+    private final int minimumRequests;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+
+    private final ConcurrentHashMap<String, Circuit> circuits = new ConcurrentHashMap<String, Circuit>();
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+    /**
+     * Creates a breaker with the default threshold, window, open duration and probes.
+     */
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_RATE_THRESHOLD, DEFAULT_WINDOW_SIZE, DEFAULT_MINIMUM_REQUESTS,
+                DEFAULT_OPEN_DURATION_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_HALF_OPEN_PROBES);
+    }
+
+    /**
+     * Creates a breaker.
+     *
+     * @param failureRateThreshold the share of failed requests in the window that opens the circuit, e.g. 0.5.
+     * @param windowSize the number of recent requests the failure rate is computed over.
+     * @param minimumRequests the number of requests the window must hold before the circuit can open.
+     * @param openDuration how long the circuit fails fast before probing.
+     * @param unit the unit of the open duration.
+     * @param halfOpenProbes the number of probe requests that must succeed to close the circuit.
+     */
+    public CircuitBreaker(final double failureRateThreshold, final int windowSize, final int minimumRequests,
+                          final long openDuration, final TimeUnit unit, final int halfOpenProbes) {
+        if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)) {
+            throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]");
+        }
+        if (windowSize < 1 || minimumRequests < 1 || minimumRequests > windowSize) {
+            throw new IllegalArgumentException("sizes must satisfy 1 <= minimumRequests <= windowSize");
+        }
+        if (halfOpenProbes < 1) {
+            throw new IllegalArgumentException("halfOpenProbes must be at least 1");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.windowSize = windowSize;
+        this.minimumRequests = minimumRequests;
+        this.openDurationNanos = unit.toNanos(openDuration);
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    public void addListener(final Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(final Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Lets a request through, or fails it fast if its circuit is open.
+     *
+     * @param path the path of the request, e.g. /v1/users/u-123/calls.
+     * @return the permit, to release with the outcome of the request.
+     * @throws CircuitOpenException if the circuit is open, or half open with all its probes out.
+     */
+    public Permit acquire(final String path) throws CircuitOpenException {
+        final Circuit circuit = getCircuit(ConcurrencyLimiter.familyOf(path));
+        final Permit permit;
+        State from = null;
+        synchronized (circuit) {
+            if (circuit.state == State.OPEN && System.nanoTime() - circuit.openedAt >= openDurationNanos) {
+                from = circuit.transition(State.HALF_OPEN);
+            }
+            if (circuit.state == State.OPEN
+                    || (circuit.state == State.HALF_OPEN && circuit.probesOut >= halfOpenProbes)) {
+                circuit.rejected++;
+                permit = null;
+            } else {
+                if (circuit.state == State.HALF_OPEN) {
+                    circuit.probesOut++;
+                }
+                permit = new Permit(circuit, circuit.generation);
+            }
+        }
+        if (from != null) {
+            fire(circuit.name, from, State.HALF_OPEN);
+        }
+        if (permit == null) {
+            throw new CircuitOpenException(circuit.name);
+        }
+        return permit;
+    }
+
+    /**
+     * Returns the state of a family's circuit.
+     *
+     * @param family the family, e.g. "calls".
+     * @return the state, CLOSED for a family without requests.
+     */
+    public State getState(final String family) {
+        final Circuit circuit = circuits.get(family);
+        if (circuit == null) {
+            return State.CLOSED;
+        }
+        synchronized (circuit) {
+            return circuit.state;
+        }
+    }
+
+    /**
+     * Returns the share of failures in the window of a family's circuit.
+     *
+     * @param family the family.
+     * @return the failure rate between 0 and 1, 0 if the window is empty.
+     */
+    public double getFailureRate(final String family) {
+        final Circuit circuit = circuits.get(family);
+        if (circuit == null) {
+            return 0;
+        }
+        synchronized (circuit) {
+            return circuit.count == 0 ? 0 : (double) circuit.failures / circuit.count;
+        }
+    }
+
+    /**
+     * Returns the number of requests of a family failed fast.
+     *
+     * @param family the family.
+     * @return the rejected count.
+     */
+    public long getRejectedCount(final String family) {
+        final Circuit circuit = circuits.get(family);
+        if (circuit == null) {
+            return 0;
+        }
+        synchronized (circuit) {
+            return circuit.rejected;
+        }
+    }
+
+    /**
+     * Returns the number of times a family's circuit opened.
+     *
+     * @param family the family.
+     * @return the open count.
+     */
+    public long getOpenCount(final String family) {
+        final Circuit circuit = circuits.get(family);
+        if (circuit == null) {
+            return 0;
+        }
+        synchronized (circuit) {
+            return circuit.opened;
+        }
+    }
+
+    /**
+     * Returns the families that had requests.
+     *
+     * @return the family names, sorted.
+     */
+    public Set<String> getFamilies() {
+        return new TreeSet<String>(circuits.keySet());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CircuitBreaker{");
+        String separator = "";
+        for (final String family : getFamilies()) {
+            sb.append(separator).append(family).append("=").append(getState(family));
+            separator = ", ";
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Returns whether the outcome of a request counts as a failure of the API. Override to count other statuses.
+     *
+     * @param status the response status, or RetryPolicy.IO_FAILURE if none was received.
+     * @return true for I/O failures and 5xx responses.
+     */
+    protected boolean isFailure(final int status) {
+        return status == RetryPolicy.IO_FAILURE || status >= 500;
+    }
+
+    private Circuit getCircuit(final String name) {
+        Circuit circuit = circuits.get(name);
+        if (circuit == null) {
+            final Circuit created = new Circuit(name, windowSize);
+            circuit = circuits.putIfAbsent(name, created);
+            if (circuit == null) {
+                circuit = created;
+            }
+        }
+        return circuit;
+    }
+
+    private void fire(final String family, final State from, final State to) {
+        for (final Listener listener : listeners) {
+            try {
+                listener.onStateChange(family, from, to);
+            } catch (final RuntimeException e) {
+                LOG.error("Circuit breaker listener failed on " + family + " " + from + "->" + to + ".", e);
+            }
+        }
+    }
+
+    /**
+     * A request let through, released with its outcome.
+     */
+    public final class Permit {
+        private final Circuit circuit;
+        private final long generation;
+        private boolean released;
+
+        Permit(final Circuit circuit, final long generation) {
+            this.circuit = circuit;
+            this.generation = generation;
+        }
+
+        /**
+         * Records the outcome of the request. Outcomes of requests let through before the last state change are
+         * ignored.
+         *
+         * @param status the response status, or RetryPolicy.IO_FAILURE if none was received.
+         */
+        public void release(final int status) {
+            final boolean failure = isFailure(status);
+            State from = null;
+            State to = null;
+            synchronized (circuit) {
+                if (released) {
+                    return;
+                }
+                released = true;
+                if (generation != circuit.generation) {
+                    return;
+                }
+                if (circuit.state == State.HALF_OPEN) {
+                    if (failure) {
+                        to = State.OPEN;
+                    } else if (++circuit.probeSuccesses >= halfOpenProbes) {
+                        to = State.CLOSED;
+                    }
+                } else if (circuit.state == State.CLOSED) {
+                    circuit.record(failure);
+                    if (circuit.count >= minimumRequests && circuit.failures >= failureRateThreshold * circuit.count) {
+                        to = State.OPEN;
+                    }
+                }
+                if (to != null) {
+                    from = circuit.transition(to);
+                }
+            }
+            if (to != null) {
+                fire(circuit.name, from, to);
+            }
+        }
+
+        /**
+         * Gives the permit back without an outcome, for a request that was not sent after all.
+         */
+        public void cancel() {
+            synchronized (circuit) {
+                if (released) {
+                    return;
+                }
+                released = true;
+                if (generation == circuit.generation && circuit.state == State.HALF_OPEN) {
+                    circuit.probesOut--;
+                }
+            }
+        }
+
+        public String getFamily() {
+            return circuit.name;
+        }
+    }
+
+    private static final class Circuit {
+        final String name;
+        final boolean[] window;
+        int next;
+        int count;
+        int failures;
+
+        State state = State.CLOSED;
+        long generation;
+        long openedAt;
+        int probesOut;
+        int probeSuccesses;
+
+        long rejected;
+        long opened;
+
+        Circuit(final String name, final int windowSize) {
+            this.name = name;
+            this.window = new boolean[windowSize];
+        }
+
+        /**
+         * Adds an outcome to the window, replacing the oldest one once full.
+         */
+        void record(final boolean failure) {
+            if (count == window.length) {
+                if (window[next]) {
+                    failures--;
+                }
+            } else {
+                count++;
+            }
+            window[next] = failure;
+            if (failure) {
+                failures++;
+            }
+            next = (next + 1) % window.length;
+        }
+
+        /**
+         * Moves to a new state, starting a new generation so the permits of the previous one are ignored.
+         *
+         * @return the previous state.
+         */
+        State transition(final State to) {
+            final State from = state;
+            state = to;
+            generation++;
+            next = 0;
+            count = 0;
+            failures = 0;
+            probesOut = 0;
+            probeSuccesses = 0;
+            if (to == State.OPEN) {
+                openedAt = System.nanoTime();
+                opened++;
+            }
+            return from;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.bandwidth.sdk;
+
+import com.bandwidth.sdk.callback.LatencyHistogram;
+import com.bandwidth.sdk.exception.ConcurrencyLimitException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive limit on the number of requests in flight, kept separately for each resource family of the API: calls,
+ * messages, availableNumbers, media... the first path segment after the user, as in the BandwidthConstants paths.
+ * Set it with BandwidthClient.setConcurrencyLimiter().
+ *
+ * Each family's limit follows AIMD, like TCP congestion control: it grows by one for every limit's worth of
+ * successful requests while the family is busy, and is cut by the backoff ratio when the API answers 429 or 503.
+ * The requests that were already in flight when the limit was cut don't cut it again, so one burst of 429s counts
+ * as a single signal. With the latency roughly constant, the request rate follows the limit, so each family settles
+ * just below the rate the API accepts instead of alternating between bursts and 429s.
+ *
+ * Requests over the limit wait for a slot, up to the maximum wait, then fail with a ConcurrencyLimitException
+ * that BandwidthClient doesn't retry, as waiting longer would only add to the congestion.
+ */
+public class ConcurrencyLimiter {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+
+    public static final int DEFAULT_MIN_LIMIT = 1;
+
+    public static final int DEFAULT_MAX_LIMIT = 200;
+
+    public static final double DEFAULT_BACKOFF_RATIO = 0.5;
+
+    public static final long DEFAULT_MAX_WAIT_MILLIS = 30000;
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long maxWaitNanos;
+
+    private final ConcurrentHashMap<String, Family> families = new ConcurrentHashMap<String, Family>();
+
+    /**
+     * Creates a limiter with the default limits, backoff ratio and maximum wait.
+     */
+    public ConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_BACKOFF_RATIO,
+                DEFAULT_MAX_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a limiter.
+     *
+     * @param initialLimit the limit of each family until the API pushes back.
+     * @param minLimit the lowest a limit is cut to.
+     * @param maxLimit the highest a limit grows to.
+     * @param backoffRatio the factor a limit is multiplied by on a 429 or 503, between 0 and 1.
+     * @param maxWait how long a request waits for a slot before failing.
+     * @param unit the unit of the maximum wait.
+     */
+    public ConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit,
+                              final double backoffRatio, final long maxWait, final TimeUnit unit) {
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (!(backoffRatio > 0 && backoffRatio < 1)) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+    }
+
+    /**
+     * Waits for a slot in the family of a request path.
+     *
+     * @param path the path of the request, e.g. /v1/users/u-123/messages.
+     * @return the permit, to release once the response arrived.
+     * @throws ConcurrencyLimitException if no slot freed up within the maximum wait.
+     * @throws InterruptedIOException if interrupted while waiting.
+     */
+    public Permit acquire(final String path) throws IOException {
+        final Family family = getFamily(familyOf(path));
+        final long start = System.nanoTime();
+        synchronized (family) {
+            while (family.inFlight >= (int) family.limit) {
+                final long remaining = maxWaitNanos - (System.nanoTime() - start);
+                if (remaining <= 0) {
+                    family.timeouts++;
+                    throw new ConcurrencyLimitException(family.name);
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(family, remaining);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for a request slot for "
+                            + family.name);
+                }
+            }
+            family.inFlight++;
+        }
+        family.waitTime.recordSince(start);
+        return new Permit(family, System.nanoTime());
+    }
+
+    /**
+     * Returns the current limit of a family.
+     *
+     * @param family the family, e.g. "messages".
+     * @return the limit.
+     */
+    public int getLimit(final String family) {
+        final Family f = families.get(family);
+        if (f == null) {
+            return initialLimit;
+        }
+        synchronized (f) {
+            return (int) f.limit;
+        }
+    }
+
+    /**
+     * Returns the number of requests of a family in flight.
+     *
+     * @param family the family.
+     * @return the requests in flight.
+     */
+    public int getInFlight(final String family) {
+        final Family f = families.get(family);
+        if (f == null) {
+            return 0;
+        }
+        synchronized (f) {
+            return f.inFlight;
+        }
+    }
+
+    /**
+     * Returns the number of 429 and 503 responses of a family.
+     *
+     * @param family the family.
+     * @return the throttled count.
+     */
+    public long getThrottledCount(final String family) {
+        final Family f = families.get(family);
+        if (f == null) {
+            return 0;
+        }
+        synchronized (f) {
+            return f.throttled;
+        }
+    }
+
+    /**
+     * Returns the number of requests of a family that failed waiting for a slot.
+     *
+     * @param family the family.
+     * @return the timeout count.
+     */
+    public long getTimeoutCount(final String family) {
+        final Family f = families.get(family);
+        if (f == null) {
+            return 0;
+        }
+        synchronized (f) {
+            return f.timeouts;
+        }
+    }
+
+    /**
+     * Returns the histogram of the time the requests of a family waited for a slot.
+     *
+     * @param family the family.
+     * @return the wait time, or null if the family had no requests.
+     */
+    public LatencyHistogram getWaitTime(final String family) {
+        final Family f = families.get(family);
+        return f == null ? null : f.waitTime;
+    }
+
+    /**
+     * Returns the families that had requests.
+     *
+     * @return the family names, sorted.
+     */
+    public Set<String> getFamilies() {
+        return new TreeSet<String>(families.keySet());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConcurrencyLimiter{");
+        String separator = "";
+        for (final String family : getFamilies()) {
+            sb.append(separator).append(family).append("=").append(getLimit(family));
+            separator = ", ";
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Returns whether a status is the API pushing back. Override to react to other statuses.
+     *
+     * @param status the response status.
+     * @return true for 429 and 503.
+     */
+    protected boolean isOverload(final int status) {
+        return status == 429 || status == 503;
+    }
+
+    /**
+     * Returns the resource family of a request path: the segment after the user id for user resources, the segment
+     * after the API version otherwise.
+     *
+     * @param path the path, e.g. /v1/users/u-123/calls/c-456.
+     * @return the family, e.g. "calls".
+     */
+    static String familyOf(final String path) {
+        final String[] segments = path.replaceAll("^/+", "").split("/");
+        for (int i = 0; i < segments.length; i++) {
+            if ("users".equals(segments[i])) {
+                return i + 2 < segments.length ? segments[i + 2] : "users";
+            }
+        }
+        return segments.length > 1 ? segments[1] : segments[0];
+    }
+
+    private Family getFamily(final String name) {
+        Family family = families.get(name);
+        if (family == null) {
+            final Family created = new Family(name, initialLimit);
+            family = families.putIfAbsent(name, created);
+            if (family == null) {
+                family = created;
+            }
+        }
+        return family;
+    }
+
+    /**
+     * A slot taken by a request, released with the outcome of the request.
+     */
+    public final class Permit {
+        private final Family family;
+        private final long startedAt;
+        private boolean released;
+
+        Permit(final Family family, final long startedAt) {
+            this.family = family;
+            this.startedAt = startedAt;
+        }
+
+        /**
+         * Frees the slot and adapts the limit: a 429 or 503 cuts it, unless it was already cut since this request
+         * started; any other status below 500 grows it, if the family is busy enough to need more.
+         *
+         * @param status the response status, or RetryPolicy.IO_FAILURE if none was received.
+         */
+        public void release(final int status) {
+            synchronized (family) {
+                if (released) {
+                    return;
+                }
+                released = true;
+                final int inFlight = family.inFlight--;
+                if (isOverload(status)) {
+                    family.throttled++;
+                    if (startedAt - family.lastDecrease > 0) {
+                        family.limit = Math.max(minLimit, family.limit * backoffRatio);
+                        family.lastDecrease = System.nanoTime();
+                    }
+                } else if (status > 0 && status < 500 && inFlight * 2 >= family.limit) {
+                    family.limit = Math.min(maxLimit, family.limit + 1 / family.limit);
+                }
+                family.notifyAll();
+            }
+        }
+
+        public String getFamily() {
+            return family.name;
+        }
+    }
+
+    private static final class Family {
+        final String name;
+        final LatencyHistogram waitTime = new LatencyHistogram();
+        double limit;
+        int inFlight;
+        long lastDecrease;
+        long throttled;
+        long timeouts;
+
+        Family(final String name, final int limit) {
+            this.name = name;
+            this.limit = limit;
+            this.lastDecrease = System.nanoTime() - 1;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.bandwidth.sdk;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Builds the json-simple objects consumed by the models in a single streaming pass with the Jackson parser, so a
+ * response body never has to be held as a String before it is parsed.
+ *
+ * Integral numbers are read as Long and decimals as Double, the same types json-simple produces.
+ */
+public class JsonStreamParser {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final String ACCESS_DENIED = "access-denied";
+
+    private boolean accessDenied;
+
+    /**
+     * Parses a JSON document from a stream. An empty stream is read as an empty object.
+     *
+     * @param in the stream, left open.
+     * @return a JSONObject, a JSONArray or a scalar value.
+     * @throws IOException if the stream cannot be read or does not hold valid JSON.
+     */
+    public Object parse(final InputStream in) throws IOException {
+        final JsonParser parser = FACTORY.createParser(in);
+        try {
+            return parseDocument(parser);
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * Parses a JSON document from a string. An empty string is read as an empty object.
+     *
+     * @param text the text.
+     * @return a JSONObject, a JSONArray or a scalar value.
+     * @throws IOException if the text is not valid JSON.
+     */
+    public Object parse(final String text) throws IOException {
+        final JsonParser parser = FACTORY.createParser(text);
+        try {
+            return parseDocument(parser);
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * Returns whether an "access-denied" marker was seen in any field name or string value parsed so far.
+     *
+     * @return true if access was denied.
+     */
+    public boolean isAccessDenied() {
+        return accessDenied;
+    }
+
+    private Object parseDocument(final JsonParser parser) throws IOException {
+        final JsonToken token = parser.nextToken();
+        if (token == null) {
+            return new JSONObject();
+        }
+        final Object value = parseValue(parser, token);
+        if (parser.nextToken() != null) {
+            throw new JsonParseException(parser, "Unexpected content after the JSON document");
+        }
+        return value;
+    }
+
+    /**
+     * Parses the value starting at the current token, for callers streaming a document field by field.
+     *
+     * @param parser the parser, positioned on the first token of the value.
+     * @param token the current token.
+     * @return a JSONObject, a JSONArray or a scalar value.
+     * @throws IOException if the value is not valid JSON.
+     */
+    @SuppressWarnings("unchecked")
+    public Object parseValue(final JsonParser parser, final JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                final JSONObject object = new JSONObject();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String name = parser.getCurrentName();
+                    checkAccessDenied(name);
+                    object.put(name, parseValue(parser, parser.nextToken()));
+                }
+                return object;
+
+            case START_ARRAY:
+                final JSONArray array = new JSONArray();
+                JsonToken next;
+                while ((next = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    array.add(parseValue(parser, next));
+                }
+                return array;
+
+            case VALUE_STRING:
+                final String text = parser.getText();
+                checkAccessDenied(text);
+                return text;
+
+            case VALUE_NUMBER_INT:
+                if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    return parser.getBigIntegerValue();
+                }
+                return parser.getLongValue();
+
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+
+            case VALUE_NULL:
+                return null;
+
+            default:
+                throw new JsonParseException(parser, "Unexpected token " + token);
+        }
+    }
+
+    private void checkAccessDenied(final String text) {
+        if (!accessDenied && text.contains(ACCESS_DENIED)) {
+            accessDenied = true;
+        }
+    }
+}
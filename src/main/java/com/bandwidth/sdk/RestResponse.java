@@ -9,6 +9,7 @@ import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.util.EntityUtils;
+import org.json.simple.JSONValue;
 
 /**
  * @author smitchell
@@ -20,12 +21,15 @@ public class RestResponse {
 	protected boolean error;
 	protected String contentType;
 	protected String location;
+	protected String retryAfter;
 	protected int status;
 	
 	protected String firstLink;
 	protected String lastLink;
 	protected String nextLink;
 	protected String previousLink;
+
+	protected Object json;
 	
 	public RestResponse() {
 		
@@ -42,35 +46,54 @@ public class RestResponse {
 		final RestResponse restResponse = new RestResponse();
 		try {
 			restResponse.setStatus(httpResponse.getStatusLine().getStatusCode());
-	        final HttpEntity entity = httpResponse.getEntity();
-	        String responseText = "";
-	        if (entity != null) {
-	            responseText = EntityUtils.toString(entity);
-	        }
-	        if (responseText.length() == 0) {
-	            responseText = "{}";
-	        }
-	        
-	        // TODO There are several more error conditions that should be handled. 
-	        if (responseText.contains("access-denied")) {
-	            restResponse.setError(true);
-	        } else if (restResponse.getStatus() >= 400) {
-	            restResponse.setError(true);
-	        }
-	        
-	        restResponse.setResponseText(responseText);
 	        for  (final Header header : httpResponse.getHeaders("Content-Type")) {
 	        	restResponse.setContentType(header.getValue());
 	        }
 	        for (final Header header : httpResponse.getHeaders("Location")) {
 	            restResponse.setLocation(header.getValue());
 	        }
+	        final Header retryAfter = httpResponse.getFirstHeader("Retry-After");
+	        if (retryAfter != null) {
+	            restResponse.setRetryAfter(retryAfter.getValue());
+	        }
 	        for (final Header header : httpResponse.getHeaders("Link")) {	        	
 	        	restResponse.parseLinkHeader(header.getValue());
 	        }
+
+	        final HttpEntity entity = httpResponse.getEntity();
+	        if (entity != null && restResponse.getStatus() < 400 && restResponse.getContentType() != null
+	                && restResponse.isJson()) {
+	            // successful JSON bodies are parsed straight off the stream, the text is only rendered on demand
+	            final JsonStreamParser parser = new JsonStreamParser();
+	            try {
+	                restResponse.json = parser.parse(entity.getContent());
+	            } finally {
+	                EntityUtils.consume(entity);
+	            }
+	            restResponse.setError(parser.isAccessDenied());
+	        } else {
+	            String responseText = "";
+	            if (entity != null) {
+	                responseText = EntityUtils.toString(entity);
+	            }
+	            if (responseText.length() == 0) {
+	                responseText = "{}";
+	            }
+
+	            // TODO There are several more error conditions that should be handled.
+	            if (responseText.contains("access-denied")) {
+	                restResponse.setError(true);
+	            } else if (restResponse.getStatus() >= 400) {
+	                restResponse.setError(true);
+	            }
+
+	            restResponse.setResponseText(responseText);
+	        }
 		}	
         catch (final IOException e) {
         	e.printStackTrace();
+        	restResponse.setError(true);
+        	restResponse.setResponseText(e.getMessage());
         }
 		return restResponse;
 	}
@@ -126,9 +149,26 @@ public class RestResponse {
 	}
 
 	public String getResponseText() {
+		if (responseText == null && json != null) {
+			responseText = JSONValue.toJSONString(json);
+		}
 		return responseText;
 	}
 
+	/**
+	 * Returns the parsed JSON body, a JSONObject or a JSONArray. Bodies read from the wire are parsed once while
+	 * streaming; a response built from text is parsed on the first call.
+	 *
+	 * @return the parsed body.
+	 * @throws IOException if the body is not valid JSON.
+	 */
+	public Object getJson() throws IOException {
+		if (json == null && responseText != null) {
+			json = new JsonStreamParser().parse(responseText);
+		}
+		return json;
+	}
+
 	public boolean isError() {
 		return error;
 	}
@@ -148,6 +188,19 @@ public class RestResponse {
 	public void setLocation(final String location) {
 		this.location = location;
 	}
+
+	/**
+	 * Returns the Retry-After header of a 429 or 503 response, either a number of seconds or an HTTP date.
+	 *
+	 * @return the header value, or null if absent.
+	 */
+	public String getRetryAfter() {
+		return retryAfter;
+	}
+
+	public void setRetryAfter(final String retryAfter) {
+		this.retryAfter = retryAfter;
+	}
 	
 	public String getContentType() {
 		return contentType;
@@ -155,6 +208,7 @@ public class RestResponse {
 
 	public void setResponseText(final String responseText) {
 		this.responseText = responseText;
+		this.json = null;
 	}
 
 	public void setError(final boolean error) {
@@ -204,7 +258,7 @@ public class RestResponse {
 			.append("error:").append(error).append("\n")
 			.append("contentType:").append(contentType).append("\n")
 			.append("location:").append(location).append("\n")
-			.append("responseText:").append(responseText).append("\n")
+			.append("responseText:").append(getResponseText()).append("\n")
 			.append("firstLink:").append(firstLink).append("\n")
 			.append("lastLink:").append(lastLink).append("\n")
 			.append("nextLink:").append(nextLink).append("\n")
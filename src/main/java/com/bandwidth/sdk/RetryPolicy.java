@@ -0,0 +1,279 @@
+package com.bandwidth.sdk;
+
+import org.apache.http.client.utils.DateUtils;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Decides whether and when the BandwidthClient retries a failed request. Set it with
+ * BandwidthClient.setRetryPolicy(); without one, failures are thrown right away.
+ *
+ * Requests rejected with 429 or 503, which the API did not act on, are retried whatever their method. Server errors
+ * (500, 502, 504) and I/O failures are retried for the idempotent methods only, so a POST that may have gone through
+ * is never sent twice.
+ *
+ * The delay before each retry is drawn with decorrelated jitter, between the base delay and three times the
+ * previous delay, or the base delay for the first retry, capped at the maximum delay, so clients that failed
+ * together don't retry together. A Retry-After
+ * header is honored as a minimum; a request asked to wait longer than the maximum delay is not retried.
+ *
+ * A retry budget keeps retries from multiplying the load on an API that is already failing: each request earns a
+ * fraction of a retry, the budget ratio, and each retry spends a whole one. A reserve allows a few retries when
+ * traffic is low. Once the budget is spent, failures are thrown until requests earn it back.
+ *
+ * Policies are thread-safe once configured and may be shared by clients, which then share the budget.
+ */
+public class RetryPolicy {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    public static final long DEFAULT_BASE_DELAY_MILLIS = 100;
+
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10000;
+
+    public static final double DEFAULT_BUDGET_RATIO = 0.1;
+
+    public static final int DEFAULT_BUDGET_RESERVE = 10;
+
+    /** Status recorded for the retries of I/O failures. */
+    public static final int IO_FAILURE = 0;
+
+    private static final Set<String> IDEMPOTENT_METHODS = new HashSet<String>(
+            Arrays.asList("GET", "HEAD", "PUT", "DELETE", "OPTIONS"));
+
+    private static final int MILLI = 1000;
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long baseDelayMillis = DEFAULT_BASE_DELAY_MILLIS;
+    private long maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+    private long budgetDeposit = (long) (DEFAULT_BUDGET_RATIO * MILLI);
+    private long budgetCapacity = DEFAULT_BUDGET_RESERVE * MILLI;
+
+    private final Random random = new Random();
+
+    // in thousandths of a retry
+    private final AtomicLong budget = new AtomicLong(budgetCapacity);
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLongArray retriesByStatus = new AtomicLongArray(600);
+    private final AtomicLong budgetExhausted = new AtomicLong();
+    private final AtomicLong givenUp = new AtomicLong();
+
+    /**
+     * Sets the number of times a request is sent at most, the first attempt included.
+     *
+     * @param maxAttempts the maximum attempts, 1 for no retries.
+     * @return this policy.
+     */
+    public RetryPolicy setMaxAttempts(final int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Sets the range of the delays between attempts.
+     *
+     * @param baseDelay the smallest delay.
+     * @param maxDelay the largest delay, and the longest Retry-After honored.
+     * @param unit the unit of the delays.
+     * @return this policy.
+     */
+    public RetryPolicy setDelays(final long baseDelay, final long maxDelay, final TimeUnit unit) {
+        if (baseDelay < 0 || maxDelay < baseDelay) {
+            throw new IllegalArgumentException("delays must satisfy 0 <= baseDelay <= maxDelay");
+        }
+        this.baseDelayMillis = unit.toMillis(baseDelay);
+        this.maxDelayMillis = unit.toMillis(maxDelay);
+        return this;
+    }
+
+    /**
+     * Sets the retry budget.
+     *
+     * @param ratio the retries allowed per request, e.g. 0.1 for at most one retry per ten requests.
+     * @param reserve the retries allowed on top, and the most the budget can save up.
+     * @return this policy.
+     */
+    public RetryPolicy setBudget(final double ratio, final int reserve) {
+        if (ratio < 0 || reserve < 0) {
+            throw new IllegalArgumentException("ratio and reserve must not be negative");
+        }
+        this.budgetDeposit = (long) (ratio * MILLI);
+        this.budgetCapacity = (long) reserve * MILLI;
+        budget.set(budgetCapacity);
+        return this;
+    }
+
+    /**
+     * Counts a new request, earning its share of the retry budget. Called once per request, not per attempt.
+     */
+    public void onRequest() {
+        requests.incrementAndGet();
+        long current;
+        do {
+            current = budget.get();
+            if (current >= budgetCapacity) {
+                return;
+            }
+        } while (!budget.compareAndSet(current, Math.min(budgetCapacity, current + budgetDeposit)));
+    }
+
+    /**
+     * Decides whether to retry a failed attempt, spending a retry from the budget if so.
+     *
+     * @param method the HTTP method of the request.
+     * @param attempt the number of the failed attempt, starting at 1.
+     * @param status the status of the response, or IO_FAILURE if none was received.
+     * @param retryAfter the Retry-After header of the response, may be null.
+     * @param previousDelayMillis the delay before the failed attempt, 0 for the first one.
+     * @return the delay before the next attempt in milliseconds, or -1 not to retry.
+     */
+    public long nextDelay(final String method, final int attempt, final int status, final String retryAfter,
+                          final long previousDelayMillis) {
+        if (!isRetryable(method, status)) {
+            return -1;
+        }
+        if (attempt >= maxAttempts) {
+            givenUp.incrementAndGet();
+            return -1;
+        }
+        long delay = jitter(previousDelayMillis);
+        if (retryAfter != null) {
+            final long requested = parseRetryAfter(retryAfter, System.currentTimeMillis());
+            if (requested > maxDelayMillis) {
+                givenUp.incrementAndGet();
+                return -1;
+            }
+            delay = Math.max(delay, requested);
+        }
+        if (!spendRetry()) {
+            budgetExhausted.incrementAndGet();
+            return -1;
+        }
+        retries.incrementAndGet();
+        if (status >= 0 && status < retriesByStatus.length()) {
+            retriesByStatus.incrementAndGet(status);
+        }
+        return delay;
+    }
+
+    /**
+     * Returns whether a failure may be retried: 429 and 503 for any method, server errors and I/O failures for
+     * idempotent methods. Override to change which failures are retried.
+     *
+     * @param method the HTTP method of the request.
+     * @param status the status of the response, or IO_FAILURE if none was received.
+     * @return true if the request may be sent again.
+     */
+    protected boolean isRetryable(final String method, final int status) {
+        if (status == 429 || status == 503) {
+            return true;
+        }
+        if (!IDEMPOTENT_METHODS.contains(method)) {
+            return false;
+        }
+        return status == IO_FAILURE || status == 500 || status == 502 || status == 504;
+    }
+
+    /**
+     * Returns the number of requests counted by onRequest().
+     *
+     * @return the request count.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of retries made.
+     *
+     * @return the retry count.
+     */
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /**
+     * Returns the number of retries made after a given status.
+     *
+     * @param status the status, or IO_FAILURE for the retries of I/O failures.
+     * @return the retry count.
+     */
+    public long getRetryCount(final int status) {
+        return status >= 0 && status < retriesByStatus.length() ? retriesByStatus.get(status) : 0;
+    }
+
+    /**
+     * Returns the number of retryable failures thrown because the retry budget was spent.
+     *
+     * @return the count of failures not retried for lack of budget.
+     */
+    public long getBudgetExhaustedCount() {
+        return budgetExhausted.get();
+    }
+
+    /**
+     * Returns the number of retryable failures thrown because the attempts ran out or the API asked to wait longer
+     * than the maximum delay.
+     *
+     * @return the count of requests given up on.
+     */
+    public long getGivenUpCount() {
+        return givenUp.get();
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+                "requests=" + getRequestCount() +
+                ", retries=" + getRetryCount() +
+                ", budgetExhausted=" + getBudgetExhaustedCount() +
+                ", givenUp=" + getGivenUpCount() +
+                '}';
+    }
+
+    private long jitter(final long previousDelayMillis) {
+        final long upper = Math.max(baseDelayMillis, previousDelayMillis) * 3;
+        final long delay = baseDelayMillis + (long) (random.nextDouble() * (upper - baseDelayMillis));
+        return Math.min(maxDelayMillis, delay);
+    }
+
+    private boolean spendRetry() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < MILLI) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - MILLI));
+        return true;
+    }
+
+    /**
+     * Parses a Retry-After header, in seconds or an HTTP date.
+     *
+     * @param value the header value.
+     * @param now the current time in milliseconds since the epoch.
+     * @return the delay it asks for in milliseconds, or -1 if it can't be parsed.
+     */
+    public static long parseRetryAfter(final String value, final long now) {
+        final String trimmed = value.trim();
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(trimmed)));
+        } catch (final NumberFormatException e) {
+            final Date date = DateUtils.parseDate(trimmed);
+            return date == null ? -1 : Math.max(0, date.getTime() - now);
+        }
+    }
+}
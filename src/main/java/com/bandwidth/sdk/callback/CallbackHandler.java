@@ -0,0 +1,19 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.model.events.Event;
+import com.bandwidth.sdk.xml.Response;
+
+/**
+ * Handles the callback events received by a CallbackServer.
+ */
+public interface CallbackHandler {
+
+    /**
+     * Handles an event.
+     *
+     * @param event the event.
+     * @return the BXML to reply with, or null to reply with an empty body.
+     * @throws Exception if the event can't be handled, the server then replies with a 500.
+     */
+    Response handle(Event event) throws Exception;
+}
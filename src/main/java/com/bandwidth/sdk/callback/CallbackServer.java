@@ -0,0 +1,336 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.exception.XMLMarshallingException;
+import com.bandwidth.sdk.model.CallStateCache;
+import com.bandwidth.sdk.model.events.Event;
+import com.bandwidth.sdk.model.events.EventBase;
+import com.bandwidth.sdk.model.events.Visitor;
+import com.bandwidth.sdk.xml.Response;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lightweight embedded server for the callback events of the App Platform, built on the JDK HttpServer.
+ *
+ * Each callback is parsed with EventBase.createEventFromString() and passed to a CallbackHandler on the server's
+ * executor; the handler's Response is sent back as BXML. Events sent with a POST body or, for applications
+ * using GET callbacks, as query parameters are both accepted. The time spent on each callback, from receipt to the
+ * reply being written, is recorded in a LatencyHistogram. Call enableNoDelay() at startup to keep small replies from
+ * being held back by Nagle's algorithm.
+ *
+ * <pre>
+ * CallbackServer.enableNoDelay();
+ * CallbackServer server = new CallbackServer(new InetSocketAddress(8080), new CallbackHandler() {
+ *     public Response handle(Event event) throws Exception {
+ *         ...
+ *     }
+ * });
+ * server.start();
+ * </pre>
+ */
+public class CallbackServer {
+
+    private final static Logger LOG = LoggerFactory.getLogger(CallbackServer.class);
+
+    public static final String DEFAULT_PATH = "/";
+
+    private static final String BXML_CONTENT_TYPE = "application/xml; charset=utf-8";
+
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final InetSocketAddress address;
+    private final String path;
+    private final CallbackHandler handler;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong journalErrors = new AtomicLong();
+
+    private volatile EventJournal journal;
+
+    private HttpServer server;
+
+    /**
+     * Creates a server on the default path, handling callbacks on a fixed pool with two threads per processor.
+     *
+     * @param address the address to listen on, port 0 picks a free port.
+     * @param handler the event handler.
+     */
+    public CallbackServer(final InetSocketAddress address, final CallbackHandler handler) {
+        this(address, DEFAULT_PATH, handler, null);
+    }
+
+    /**
+     * Creates a server.
+     *
+     * @param address the address to listen on, port 0 picks a free port.
+     * @param path the path callbacks are posted to.
+     * @param handler the event handler.
+     * @param executor the executor the callbacks are handled on, or null for a fixed pool with two threads per
+     *                 processor. An executor passed in is not shut down by stop().
+     */
+    public CallbackServer(final InetSocketAddress address, final String path, final CallbackHandler handler,
+                          final ExecutorService executor) {
+        if (handler == null) {
+            throw new IllegalArgumentException("handler must not be null");
+        }
+        this.address = address;
+        this.path = path;
+        this.handler = handler;
+        this.ownsExecutor = executor == null;
+        this.executor = executor != null ? executor
+                : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2, new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(final Runnable r) {
+                        final Thread thread = new Thread(r, "bandwidth-callback-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
+    /**
+     * Turns off Nagle's algorithm in the JDK HttpServer, unless the application already set the
+     * sun.net.httpserver.nodelay property. With Nagle's algorithm on, the JDK default, a client that delays its acks
+     * stalls each small reply for ~40ms. The property applies to every HttpServer in the JVM and is read once, when
+     * the first one is created, so call this at startup, before any server is started.
+     *
+     * @return whether the property is now on.
+     */
+    public static boolean enableNoDelay() {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        return Boolean.parseBoolean(System.getProperty(NODELAY_PROPERTY));
+    }
+
+    /**
+     * Adapts a Visitor to a CallbackHandler. The visitor is called with each event and the server replies with an
+     * empty body. Extend VisitorAdapter to handle only some of the event types.
+     *
+     * @param visitor the visitor.
+     * @return the handler.
+     */
+    public static CallbackHandler visitorHandler(final Visitor visitor) {
+        return new CallbackHandler() {
+            @Override
+            public Response handle(final Event event) {
+                event.execute(visitor);
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Feeds each event to a CallStateCache before passing it to a handler, so the cache stays current with the
+     * calls and conferences the application receives callbacks for.
+     *
+     * @param cache the cache.
+     * @param handler the event handler.
+     * @return the handler.
+     */
+    public static CallbackHandler stateTrackingHandler(final CallStateCache cache, final CallbackHandler handler) {
+        return new CallbackHandler() {
+            @Override
+            public Response handle(final Event event) throws Exception {
+                cache.update(event);
+                return handler.handle(event);
+            }
+        };
+    }
+
+    /**
+     * Starts listening.
+     *
+     * @throws IOException if the address can't be bound.
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("server already started");
+        }
+        server = HttpServer.create(address, 0);
+        server.createContext(path, new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                handleExchange(exchange);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Stops the server, waiting up to the given delay for the callbacks being handled to complete.
+     *
+     * @param delaySeconds the maximum time to wait.
+     */
+    public synchronized void stop(final int delaySeconds) {
+        if (server != null) {
+            server.stop(delaySeconds);
+            server = null;
+        }
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Returns the address the server listens on, with the actual port once started.
+     *
+     * @return the address.
+     */
+    public synchronized InetSocketAddress getAddress() {
+        return server != null ? server.getAddress() : address;
+    }
+
+    /**
+     * Records the payload of every callback that parses as an event in a journal, before it is handled.
+     *
+     * @param journal the journal, or null to stop recording.
+     */
+    public void setJournal(final EventJournal journal) {
+        this.journal = journal;
+    }
+
+    public EventJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns the histogram of the time spent on each callback, from receipt to the reply being written.
+     *
+     * @return the latency histogram.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Returns the number of callbacks that could not be parsed or handled.
+     *
+     * @return the error count.
+     */
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    /**
+     * Returns the number of callbacks that could not be recorded in the journal, and were handled anyway.
+     *
+     * @return the journal error count.
+     */
+    public long getJournalErrorCount() {
+        return journalErrors.get();
+    }
+
+    private void handleExchange(final HttpExchange exchange) throws IOException {
+        final long start = System.nanoTime();
+        try {
+            final String payload;
+            final Event event;
+            try {
+                payload = readEvent(exchange);
+                event = EventBase.createEventFromString(payload);
+            } catch (final Exception e) {
+                // not an event: malformed json, or not a json object
+                errors.incrementAndGet();
+                reply(exchange, 400, null);
+                return;
+            }
+
+            final EventJournal recorder = journal;
+            if (recorder != null) {
+                try {
+                    recorder.append(payload, event.getEventType());
+                } catch (final Exception e) {
+                    // recording is best effort, the callback is still handled
+                    journalErrors.incrementAndGet();
+                    LOG.warn("Failed to record the callback in the journal.", e);
+                }
+            }
+
+            Response response;
+            try {
+                response = handler.handle(event);
+            } catch (final Exception e) {
+                LOG.error("Callback handler failed on " + event.getEventType() + " event.", e);
+                errors.incrementAndGet();
+                reply(exchange, 500, null);
+                return;
+            }
+            reply(exchange, 200, response);
+        } finally {
+            latency.recordSince(start);
+            exchange.close();
+        }
+    }
+
+    private static String readEvent(final HttpExchange exchange) throws IOException {
+        if ("GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+            return queryToJson(exchange.getRequestURI().getRawQuery());
+        }
+        return IOUtils.toString(exchange.getRequestBody(), "UTF-8");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String queryToJson(final String query) throws UnsupportedEncodingException {
+        final JSONObject json = new JSONObject();
+        if (query != null) {
+            for (final String pair : query.split("&")) {
+                final int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    json.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"),
+                            URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+                }
+            }
+        }
+        return json.toJSONString();
+    }
+
+    private void reply(final HttpExchange exchange, final int status, final Response response)
+            throws IOException {
+        if (response == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        // rendered up front so the reply goes out with a Content-Length in one write instead of chunked segments
+        final ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+        try {
+            response.writeXml(body);
+        } catch (final XMLMarshallingException e) {
+            LOG.error("Failed to render the callback response.", e);
+            errors.incrementAndGet();
+            exchange.sendResponseHeaders(500, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", BXML_CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.size());
+        final OutputStream out = exchange.getResponseBody();
+        try {
+            body.writeTo(out);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.model.events.Event;
+import com.bandwidth.sdk.xml.Response;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drops the callbacks the App Platform retries, so a handler sees each event once and doesn't repeat its API calls.
+ *
+ * Events are identified by their type, ids, state and time (see getKey()), and remembered for a limited time in a
+ * cache bounded to a fixed number of entries; the oldest entries are evicted first. A duplicate is answered with
+ * the Response the handler returned for the original event, or an empty reply while the original is still being
+ * handled. When the handler fails the event is forgotten, so the platform's retry is handled again.
+ *
+ * <pre>
+ * CallbackServer server = new CallbackServer(address, new EventDeduplicator(new OrderedEventDispatcher(router)));
+ * </pre>
+ */
+public class EventDeduplicator implements CallbackHandler {
+
+    public static final int DEFAULT_CAPACITY = 10000;
+
+    public static final long DEFAULT_TTL_SECONDS = 300;
+
+    private static final String[] KEY_PROPERTIES = {
+            "eventType", "id", "callId", "conferenceId", "memberId", "messageId", "state", "status", "time"
+    };
+
+    private final CallbackHandler handler;
+    private final int capacity;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<String, Entry> seen = new ConcurrentHashMap<String, Entry>();
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<Entry>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Creates a deduplicator remembering up to DEFAULT_CAPACITY events for DEFAULT_TTL_SECONDS.
+     *
+     * @param handler the handler the first occurrence of each event is passed to.
+     */
+    public EventDeduplicator(final CallbackHandler handler) {
+        this(handler, DEFAULT_CAPACITY, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a deduplicator.
+     *
+     * @param handler the handler the first occurrence of each event is passed to.
+     * @param capacity the maximum number of events remembered.
+     * @param ttl how long an event is remembered, longer than the platform's retry window.
+     * @param unit the unit of the ttl.
+     */
+    public EventDeduplicator(final CallbackHandler handler, final int capacity, final long ttl, final TimeUnit unit) {
+        if (handler == null) {
+            throw new IllegalArgumentException("handler must not be null");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.handler = handler;
+        this.capacity = capacity;
+        this.ttlNanos = unit.toNanos(ttl);
+    }
+
+    @Override
+    public Response handle(final Event event) throws Exception {
+        final long now = System.nanoTime();
+        expire(now);
+
+        final String key = getKey(event);
+        final Entry entry = new Entry(key, now + ttlNanos);
+        Entry previous;
+        while ((previous = seen.putIfAbsent(key, entry)) != null) {
+            if (previous.expiresAt - now > 0) {
+                hits.incrementAndGet();
+                return previous.response;
+            }
+            if (seen.replace(key, previous, entry)) {
+                break;
+            }
+        }
+        misses.incrementAndGet();
+        order.add(entry);
+        if (size.incrementAndGet() > capacity) {
+            evictOldest();
+        }
+
+        try {
+            final Response response = handler.handle(event);
+            entry.response = response;
+            return response;
+        } catch (final Exception e) {
+            seen.remove(key, entry);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the key identifying an event and its retries. Override to identify events differently.
+     *
+     * @param event the event.
+     * @return the key.
+     */
+    protected String getKey(final Event event) {
+        final StringBuilder sb = new StringBuilder(128);
+        for (final String property : KEY_PROPERTIES) {
+            final String value = event.getProperty(property);
+            if (value != null) {
+                sb.append(value);
+            }
+            sb.append('|');
+        }
+        return sb.toString();
+    }
+
+    private void expire(final long now) {
+        Entry oldest;
+        while ((oldest = order.peek()) != null && oldest.expiresAt - now <= 0) {
+            if (order.remove(oldest)) {
+                seen.remove(oldest.key, oldest);
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    private void evictOldest() {
+        final Entry oldest = order.poll();
+        if (oldest != null) {
+            if (seen.remove(oldest.key, oldest)) {
+                evictions.incrementAndGet();
+            }
+            size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of duplicates dropped.
+     *
+     * @return the hit count.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of events passed to the handler.
+     *
+     * @return the miss count.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of events forgotten before their ttl to stay within the capacity.
+     *
+     * @return the eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the number of events remembered.
+     *
+     * @return the size.
+     */
+    public int size() {
+        return seen.size();
+    }
+
+    @Override
+    public String toString() {
+        return "EventDeduplicator{" +
+                "hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", evictions=" + getEvictionCount() +
+                ", size=" + size() +
+                '}';
+    }
+
+    private static final class Entry {
+        final String key;
+        final long expiresAt;
+        volatile Response response;
+
+        Entry(final String key, final long expiresAt) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.model.events.EventType;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the raw callback payloads, for load tests and forensics. Set it on a CallbackServer with
+ * setJournal() to record every callback, and read it back with EventJournalReader or EventReplayer.
+ *
+ * The journal is a directory of fixed size segment files, each memory mapped, so appending a record is a copy into
+ * memory and never waits for the disk; the operating system writes the pages back. The next segment is created,
+ * mapped and paged in by a background thread while the current one fills, and full segments are forced to disk by
+ * the same thread. A segment starts with a magic number and a version,
+ * followed by the records:
+ *
+ * <pre>
+ * long   time the callback was received, in milliseconds since the epoch
+ * byte   EventType ordinal
+ * int    payload length in bytes
+ * int    CRC32 of the time, type, length and payload
+ * byte[] payload, UTF-8
+ * </pre>
+ *
+ * The unused end of a segment is zero-filled, which reads as the end of the segment. The time is written last, so
+ * that a record is only seen once it is whole, and a record whose CRC doesn't match, one still being written or torn
+ * by a crash, also ends the segment. Reopening a journal starts a new segment after the existing ones.
+ */
+public class EventJournal {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    static final int MAGIC = 0x424a4e4c;
+    static final int VERSION = 2;
+    static final int SEGMENT_HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 17;
+
+    private static final int PAGE_SIZE = 4096;
+
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File directory;
+    private final int segmentSize;
+    private final ExecutorService preparer;
+
+    private MappedByteBuffer current;
+    private Future<MappedByteBuffer> next;
+    private long nextSequence;
+    private volatile long records;
+    private boolean closed;
+
+    /**
+     * Opens a journal with DEFAULT_SEGMENT_SIZE segments.
+     *
+     * @param directory the directory of the segments, created if needed.
+     * @throws IOException if the first segment can't be created.
+     */
+    public EventJournal(final File directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens a journal.
+     *
+     * @param directory the directory of the segments, created if needed.
+     * @param segmentSize the size of each segment file, which bounds the size of a payload.
+     * @throws IOException if the first segment can't be created.
+     */
+    public EventJournal(final File directory, final int segmentSize) throws IOException {
+        if (segmentSize < SEGMENT_HEADER_SIZE + RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize is too small");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create journal directory " + directory);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        final File[] segments = listSegments(directory);
+        this.nextSequence = segments.length == 0 ? 0 : sequenceOf(segments[segments.length - 1]) + 1;
+        this.preparer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "bandwidth-journal-" + directory.getName());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.current = createSegment(nextSequence++);
+        prepareNext();
+    }
+
+    /**
+     * Appends a payload, stamped with the current time.
+     *
+     * @param payload the raw callback payload.
+     * @param eventType the type the payload was parsed as.
+     * @throws IOException if a new segment can't be created.
+     */
+    public void append(final String payload, final EventType eventType) throws IOException {
+        append(System.currentTimeMillis(), payload, eventType);
+    }
+
+    /**
+     * Appends a payload.
+     *
+     * @param timestamp the time the callback was received, in milliseconds since the epoch.
+     * @param payload the raw callback payload.
+     * @param eventType the type the payload was parsed as.
+     * @throws IOException if a new segment can't be created.
+     */
+    public void append(final long timestamp, final String payload, final EventType eventType) throws IOException {
+        final byte[] bytes = payload.getBytes(UTF_8);
+        final int length = RECORD_HEADER_SIZE + bytes.length;
+        if (SEGMENT_HEADER_SIZE + length > segmentSize) {
+            throw new IllegalArgumentException("payload of " + bytes.length + " bytes exceeds the segment size");
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("Journal is closed");
+            }
+            if (current.remaining() < length) {
+                roll();
+            }
+            final byte type = (byte) (eventType != null ? eventType : EventType.UNKNOWN).ordinal();
+            final int start = current.position();
+            current.position(start + 8);
+            current.put(type);
+            current.putInt(bytes.length);
+            current.putInt(checksum(timestamp, type, bytes));
+            current.put(bytes);
+            // the volatile write of the count comes after the body; the time then publishes the record. A reader
+            // checks the CRC as well, as mapped memory gives no ordering guarantee to another process.
+            records++;
+            current.putLong(start, timestamp);
+        }
+    }
+
+    /**
+     * Returns the number of records appended since the journal was opened.
+     *
+     * @return the record count.
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Forces the current segment to disk.
+     */
+    public synchronized void flush() {
+        if (!closed) {
+            current.force();
+        }
+    }
+
+    /**
+     * Flushes and closes the journal and deletes the segment prepared ahead, if unused.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        current.force();
+        preparer.shutdown();
+        try {
+            next.get();
+        } catch (final Exception e) {
+            // nothing was created
+        }
+        final File unused = segmentFile(directory, nextSequence);
+        if (unused.exists() && !unused.delete()) {
+            unused.deleteOnExit();
+        }
+    }
+
+    private void roll() throws IOException {
+        final MappedByteBuffer full = current;
+        try {
+            current = next.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rolling the journal");
+        } catch (final ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+        nextSequence++;
+        prepareNext();
+        preparer.submit(new Runnable() {
+            @Override
+            public void run() {
+                full.force();
+            }
+        });
+    }
+
+    private void prepareNext() {
+        final long sequence = nextSequence;
+        next = preparer.submit(new Callable<MappedByteBuffer>() {
+            @Override
+            public MappedByteBuffer call() throws IOException {
+                return createSegment(sequence);
+            }
+        });
+    }
+
+    private MappedByteBuffer createSegment(final long sequence) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(segmentFile(directory, sequence), "rw");
+        try {
+            file.setLength(segmentSize);
+            final MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            // touch every page so appends don't take the page faults
+            for (int i = 0; i < segmentSize; i += PAGE_SIZE) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            return buffer;
+        } finally {
+            // the mapping stays valid once the file is closed
+            file.close();
+        }
+    }
+
+    /**
+     * Computes the CRC of a record.
+     */
+    static int checksum(final long timestamp, final byte type, final byte[] payload) {
+        final ByteBuffer header = ByteBuffer.allocate(13);
+        header.putLong(timestamp).put(type).putInt(payload.length);
+        final CRC32 crc = new CRC32();
+        crc.update(header.array());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    static File segmentFile(final File directory, final long sequence) {
+        return new File(directory, String.format("events-%020d%s", sequence, SEGMENT_SUFFIX));
+    }
+
+    static long sequenceOf(final File segment) {
+        final String name = segment.getName();
+        return Long.parseLong(name.substring("events-".length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Returns the segments of a journal in the order they were written.
+     */
+    static File[] listSegments(final File directory) {
+        final File[] segments = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(final File dir, final String name) {
+                return name.startsWith("events-") && name.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+        if (segments == null) {
+            return new File[0];
+        }
+        Arrays.sort(segments);
+        return segments;
+    }
+}
@@ -0,0 +1,135 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.model.events.EventType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads the records of an EventJournal in the order they were appended, segment after segment:
+ *
+ * <pre>
+ * EventJournalReader reader = new EventJournalReader(directory);
+ * while (reader.next()) {
+ *     ... reader.getTimestamp(), reader.getEventType(), reader.getPayload()
+ * }
+ * </pre>
+ *
+ * A journal can be read while it is written: at the end of the last segment next() returns false, and returns the
+ * records appended since when called again. A record whose CRC doesn't match ends its segment, so a record still being
+ * written is not read before it is whole, and one torn by a crash is skipped with the rest of its segment.
+ */
+public class EventJournalReader {
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    private final File[] segments;
+    private int segment = -1;
+    private MappedByteBuffer buffer;
+
+    private long timestamp;
+    private EventType eventType;
+    private String payload;
+
+    /**
+     * Opens the journal in a directory.
+     *
+     * @param directory the directory of the segments.
+     */
+    public EventJournalReader(final File directory) {
+        this.segments = EventJournal.listSegments(directory);
+    }
+
+    /**
+     * Moves to the next record.
+     *
+     * @return false at the end of the journal.
+     * @throws IOException if a segment can't be read or is not a journal segment.
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            if (buffer != null) {
+                if (readRecord()) {
+                    return true;
+                }
+                if (segment + 1 >= segments.length) {
+                    // the buffer is kept, a record may still be appended to the last segment
+                    return false;
+                }
+            } else if (segment + 1 >= segments.length) {
+                return false;
+            }
+            buffer = map(segments[++segment]);
+        }
+    }
+
+    /**
+     * Reads the record at the position of the buffer, or leaves the position unchanged if there is no whole record.
+     */
+    private boolean readRecord() {
+        final int start = buffer.position();
+        if (buffer.remaining() < EventJournal.RECORD_HEADER_SIZE) {
+            return false;
+        }
+        final long time = buffer.getLong();
+        final byte type = buffer.get();
+        final int length = buffer.getInt();
+        final int crc = buffer.getInt();
+        if (time == 0 || length < 0 || length > buffer.remaining()) {
+            buffer.position(start);
+            return false;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        if (crc != EventJournal.checksum(time, type, bytes)) {
+            buffer.position(start);
+            return false;
+        }
+        timestamp = time;
+        eventType = type >= 0 && type < EVENT_TYPES.length ? EVENT_TYPES[type] : EventType.UNKNOWN;
+        payload = new String(bytes, EventJournal.UTF_8);
+        return true;
+    }
+
+    /**
+     * Returns the time the callback of the current record was received.
+     *
+     * @return the time in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Returns the raw callback payload of the current record.
+     *
+     * @return the payload.
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    private static MappedByteBuffer map(final File segment) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(segment, "r");
+        try {
+            final MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+            if (buffer.remaining() < EventJournal.SEGMENT_HEADER_SIZE || buffer.getInt() != EventJournal.MAGIC) {
+                throw new IOException(segment + " is not a journal segment");
+            }
+            final int version = buffer.getInt();
+            if (version != EventJournal.VERSION) {
+                throw new IOException("Unsupported journal version " + version + " in " + segment);
+            }
+            return buffer;
+        } finally {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.AppPlatformException;
+import com.bandwidth.sdk.model.events.Event;
+import com.bandwidth.sdk.model.events.EventBase;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds the callbacks recorded in an EventJournal back to a handler, parsed with EventBase.createEventFromString()
+ * as the CallbackServer does, at the pace they were received, N times faster or as fast as possible:
+ *
+ * <pre>
+ * new EventReplayer(directory).replay(dispatcher, 10);
+ * </pre>
+ */
+public class EventReplayer {
+
+    public static final double REAL_TIME = 1;
+
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    private final File directory;
+
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    /**
+     * Creates a replayer.
+     *
+     * @param directory the directory of the journal.
+     */
+    public EventReplayer(final File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Replays the journal to a handler, waiting for each event to be handled before the next one. Payloads that
+     * don't parse and handler failures are counted as errors and skipped.
+     *
+     * @param handler the handler.
+     * @param speed the replay speed: REAL_TIME, a factor such as 10, or MAX_SPEED.
+     * @return the number of events replayed.
+     * @throws IOException if the journal can't be read.
+     * @throws InterruptedException if interrupted while pacing the replay.
+     */
+    public long replay(final CallbackHandler handler, final double speed) throws IOException, InterruptedException {
+        return replay(speed, new Sink() {
+            @Override
+            public void accept(final Event event) throws Exception {
+                handler.handle(event);
+            }
+        });
+    }
+
+    /**
+     * Replays the journal to a dispatcher without waiting for the events to be handled, so the pace is kept however
+     * long the handler takes. The order of the events of each call is kept by the dispatcher.
+     *
+     * @param dispatcher the dispatcher.
+     * @param speed the replay speed: REAL_TIME, a factor such as 10, or MAX_SPEED.
+     * @return the number of events replayed.
+     * @throws IOException if the journal can't be read.
+     * @throws InterruptedException if interrupted while pacing the replay.
+     */
+    public long replay(final OrderedEventDispatcher dispatcher, final double speed)
+            throws IOException, InterruptedException {
+        return replay(speed, new Sink() {
+            @Override
+            public void accept(final Event event) {
+                dispatcher.dispatch(event);
+            }
+        });
+    }
+
+    /**
+     * Returns the number of events replayed by this replayer.
+     *
+     * @return the replayed count.
+     */
+    public long getReplayedCount() {
+        return replayed.get();
+    }
+
+    /**
+     * Returns the number of payloads that didn't parse or whose handler failed.
+     *
+     * @return the error count.
+     */
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    private long replay(final double speed, final Sink sink) throws IOException, InterruptedException {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be positive");
+        }
+        final EventJournalReader reader = new EventJournalReader(directory);
+        final long start = System.nanoTime();
+        long first = -1;
+        long count = 0;
+        while (reader.next()) {
+            if (first < 0) {
+                first = reader.getTimestamp();
+            }
+            if (speed != MAX_SPEED) {
+                final long due = start + (long) (TimeUnit.MILLISECONDS.toNanos(reader.getTimestamp() - first) / speed);
+                final long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+            }
+
+            final Event event;
+            try {
+                event = EventBase.createEventFromString(reader.getPayload());
+            } catch (final AppPlatformException e) {
+                errors.incrementAndGet();
+                continue;
+            }
+            try {
+                sink.accept(event);
+            } catch (final Exception e) {
+                errors.incrementAndGet();
+            }
+            replayed.incrementAndGet();
+            count++;
+        }
+        return count;
+    }
+
+    private interface Sink {
+        void accept(Event event) throws Exception;
+    }
+}
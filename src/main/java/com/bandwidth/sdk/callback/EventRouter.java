@@ -0,0 +1,66 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.model.events.Event;
+import com.bandwidth.sdk.model.events.EventType;
+import com.bandwidth.sdk.xml.Response;
+
+import java.util.Arrays;
+
+/**
+ * Routes each event to the handler registered for its EventType, with a single array lookup by ordinal and no
+ * allocation per event. Events of types without a handler go to the fallback handler, if any, and are otherwise
+ * answered with an empty reply.
+ *
+ * <pre>
+ * CallbackHandler router = new EventRouter()
+ *         .on(EventType.ANSWER, answerHandler)
+ *         .on(EventType.CONFERENCE_MEMBER, memberHandler)
+ *         .otherwise(defaultHandler);
+ * </pre>
+ *
+ * Routes can be added while events are being handled; each event sees either the old or the new table.
+ */
+public class EventRouter implements CallbackHandler {
+
+    private volatile CallbackHandler[] routes = new CallbackHandler[EventType.values().length];
+    private volatile CallbackHandler fallback;
+
+    /**
+     * Registers the handler of an event type, replacing the previous one.
+     *
+     * @param eventType the event type.
+     * @param handler the handler, or null to remove the route.
+     * @return this router.
+     */
+    public synchronized EventRouter on(final EventType eventType, final CallbackHandler handler) {
+        if (eventType == null) {
+            throw new IllegalArgumentException("eventType must not be null");
+        }
+        final CallbackHandler[] table = Arrays.copyOf(routes, routes.length);
+        table[eventType.ordinal()] = handler;
+        routes = table;
+        return this;
+    }
+
+    /**
+     * Registers the handler of the events without a route.
+     *
+     * @param handler the handler, or null to reply with an empty body.
+     * @return this router.
+     */
+    public EventRouter otherwise(final CallbackHandler handler) {
+        fallback = handler;
+        return this;
+    }
+
+    @Override
+    public Response handle(final Event event) throws Exception {
+        final EventType eventType = event.getEventType();
+        final CallbackHandler handler = routes[(eventType != null ? eventType : EventType.UNKNOWN).ordinal()];
+        if (handler != null) {
+            return handler.handle(event);
+        }
+        final CallbackHandler otherwise = fallback;
+        return otherwise != null ? otherwise.handle(event) : null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.bandwidth.sdk.callback;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with microsecond resolution. Values are counted in log-linear buckets, 16 per power
+ * of two, so percentiles are reported with at most ~6% error at a fixed memory cost, however many values are
+ * recorded.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param duration the latency.
+     * @param unit the unit of the latency.
+     */
+    public void record(final long duration, final TimeUnit unit) {
+        final long micros = Math.max(0, unit.toMicros(duration));
+        counts.incrementAndGet(bucket(micros));
+        count.incrementAndGet();
+        sum.addAndGet(micros);
+        long current;
+        while (micros > (current = max.get())) {
+            if (max.compareAndSet(current, micros)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Records the time elapsed since a System.nanoTime() reading.
+     *
+     * @param startNanos the start time.
+     */
+    public void recordSince(final long startNanos) {
+        record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the largest recorded latency.
+     *
+     * @param unit the unit of the result.
+     * @return the maximum.
+     */
+    public long getMax(final TimeUnit unit) {
+        return unit.convert(max.get(), TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Returns the mean recorded latency.
+     *
+     * @param unit the unit of the result.
+     * @return the mean, 0 if nothing was recorded.
+     */
+    public long getMean(final TimeUnit unit) {
+        final long n = count.get();
+        return n == 0 ? 0 : unit.convert(sum.get() / n, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Returns the latency below which the given percentage of the recorded values fall, e.g. 99 for the p99. The
+     * result is the upper bound of the bucket holding the percentile, capped at the maximum.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     * @param unit the unit of the result.
+     * @return the percentile, 0 if nothing was recorded.
+     */
+    public long getPercentile(final double percentile, final TimeUnit unit) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+        final long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(n * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return unit.convert(Math.min(upperBound(i), max.get()), TimeUnit.MICROSECONDS);
+            }
+        }
+        return getMax(unit);
+    }
+
+    /**
+     * Clears all recorded values. Values recorded concurrently with the reset may be partially kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + getCount() +
+                ", meanMicros=" + getMean(TimeUnit.MICROSECONDS) +
+                ", p50Micros=" + getPercentile(50, TimeUnit.MICROSECONDS) +
+                ", p99Micros=" + getPercentile(99, TimeUnit.MICROSECONDS) +
+                ", p999Micros=" + getPercentile(99.9, TimeUnit.MICROSECONDS) +
+                ", maxMicros=" + getMax(TimeUnit.MICROSECONDS) +
+                '}';
+    }
+
+    static int bucket(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long sub = bucket % SUB_BUCKETS;
+        final long width = 1L << (magnitude - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + sub) << (magnitude - SUB_BUCKET_BITS)) + width - 1;
+    }
+}
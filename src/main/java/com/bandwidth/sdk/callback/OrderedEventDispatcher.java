@@ -0,0 +1,198 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.model.events.Event;
+import com.bandwidth.sdk.model.events.EventType;
+import com.bandwidth.sdk.xml.Response;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dispatches events to a handler in parallel across calls while keeping the events of each call in order.
+ *
+ * Events are sharded by their ordering key, the conferenceId for conference events and the callId otherwise, onto
+ * a fixed number of lanes, each served by a single thread. Events with the same key always land on the same lane
+ * and are handled in the order they were dispatched; events of different keys spread over all lanes. Events
+ * without a key are spread round-robin.
+ *
+ * The dispatcher is itself a CallbackHandler, so it can sit between a CallbackServer and the application handler:
+ * the server thread waits for the event's turn on its lane and replies with the handler's Response.
+ */
+public class OrderedEventDispatcher implements CallbackHandler {
+
+    private final CallbackHandler handler;
+    private final ThreadPoolExecutor[] lanes;
+    private final LatencyHistogram handoffLatency = new LatencyHistogram();
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    /**
+     * Creates a dispatcher with one lane per processor.
+     *
+     * @param handler the handler the events are dispatched to.
+     */
+    public OrderedEventDispatcher(final CallbackHandler handler) {
+        this(Runtime.getRuntime().availableProcessors(), handler);
+    }
+
+    /**
+     * Creates a dispatcher.
+     *
+     * @param laneCount the number of lanes, i.e. the maximum number of events handled in parallel.
+     * @param handler the handler the events are dispatched to.
+     */
+    public OrderedEventDispatcher(final int laneCount, final CallbackHandler handler) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("laneCount must be at least 1");
+        }
+        if (handler == null) {
+            throw new IllegalArgumentException("handler must not be null");
+        }
+        this.handler = handler;
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            final String name = "bandwidth-event-lane-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactory() {
+                        @Override
+                        public Thread newThread(final Runnable r) {
+                            final Thread thread = new Thread(r, name);
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Queues an event on its lane.
+     *
+     * @param event the event.
+     * @return the future Response of the handler.
+     */
+    public Future<Response> dispatch(final Event event) {
+        final long dispatched = System.nanoTime();
+        return lanes[laneOf(event)].submit(new Callable<Response>() {
+            @Override
+            public Response call() throws Exception {
+                handoffLatency.recordSince(dispatched);
+                return handler.handle(event);
+            }
+        });
+    }
+
+    /**
+     * Dispatches an event and waits for it to be handled, see dispatch().
+     *
+     * @param event the event.
+     * @return the Response of the handler.
+     * @throws Exception the exception thrown by the handler.
+     */
+    @Override
+    public Response handle(final Event event) throws Exception {
+        try {
+            return dispatch(event).get();
+        } catch (final ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Returns the key the events are ordered by: the conferenceId for conference events, the callId otherwise.
+     * Override to order by something else.
+     *
+     * @param event the event.
+     * @return the key, or null if the event needs no ordering.
+     */
+    protected String getOrderingKey(final Event event) {
+        final EventType type = event.getEventType();
+        if (type == EventType.CONFERENCE || type == EventType.CONFERENCE_MEMBER
+                || type == EventType.CONFERENCE_PLAYBACK || type == EventType.CONFERENCE_SPEAK) {
+            final String conferenceId = event.getProperty("conferenceId");
+            if (conferenceId != null) {
+                return conferenceId;
+            }
+        }
+        return event.getProperty("callId");
+    }
+
+    private int laneOf(final Event event) {
+        final String key = getOrderingKey(event);
+        if (key == null) {
+            return (roundRobin.getAndIncrement() & Integer.MAX_VALUE) % lanes.length;
+        }
+        final int h = key.hashCode();
+        return ((h ^ (h >>> 16)) & Integer.MAX_VALUE) % lanes.length;
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Returns the number of events waiting on each lane, not counting the ones being handled.
+     *
+     * @return the lane depths.
+     */
+    public int[] getLaneDepths() {
+        final int[] depths = new int[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            depths[i] = lanes[i].getQueue().size();
+        }
+        return depths;
+    }
+
+    /**
+     * Returns the number of events waiting on the busiest lane, a sign of a hot call or a slow handler.
+     *
+     * @return the maximum lane depth.
+     */
+    public int getMaxLaneDepth() {
+        int max = 0;
+        for (final ThreadPoolExecutor lane : lanes) {
+            max = Math.max(max, lane.getQueue().size());
+        }
+        return max;
+    }
+
+    /**
+     * Returns the histogram of the time events wait between dispatch and the start of their handling.
+     *
+     * @return the handoff latency.
+     */
+    public LatencyHistogram getHandoffLatency() {
+        return handoffLatency;
+    }
+
+    /**
+     * Stops accepting events; the queued ones are still handled.
+     */
+    public void shutdown() {
+        for (final ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    /**
+     * Waits for the queued events to be handled after shutdown().
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit the unit of the timeout.
+     * @return true if all lanes terminated.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (final ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,22 @@
+package com.bandwidth.sdk.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request while the circuit breaker of its resource family is open.
+ */
+public class CircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = -3164813553640367082L;
+
+    private final String family;
+
+    public CircuitOpenException(final String family) {
+        super("Circuit open for " + family + ", failing fast");
+        this.family = family;
+    }
+
+    public String getFamily() {
+        return family;
+    }
+}
@@ -0,0 +1,22 @@
+package com.bandwidth.sdk.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of sending a request when no ConcurrencyLimiter slot of its resource family freed up in time.
+ */
+public class ConcurrencyLimitException extends IOException {
+
+    private static final long serialVersionUID = 5482941183254019706L;
+
+    private final String family;
+
+    public ConcurrencyLimitException(final String family) {
+        super("Timed out waiting for a request slot for " + family);
+        this.family = family;
+    }
+
+    public String getFamily() {
+        return family;
+    }
+}
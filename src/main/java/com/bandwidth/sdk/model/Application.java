@@ -4,11 +4,13 @@ import com.bandwidth.sdk.AppPlatformException;
 import com.bandwidth.sdk.BandwidthConstants;
 import com.bandwidth.sdk.BandwidthClient;
 import com.bandwidth.sdk.RestResponse;
+import org.apache.http.concurrent.FutureCallback;
 import org.json.simple.JSONObject;
 
 import java.io.IOException;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.Future;
 
 /**
  * Information about one of your applications.
@@ -135,8 +137,72 @@ public class Application extends ResourceBase {
 
         return new Application(client, toJSONObject(getResponse));
     }
+
+    /**
+     * Creates an application and returns a lazy handle instead of retrieving the new application right away, saving a request.
+     * The handle holds the id and the params that were sent; the other fields are loaded on first access or
+     * by refresh().
+     * @param params the application params
+     * @return the application handle
+     * @throws Exception unexpected error.
+     */
+    public static Application createLazy(final Map<String, Object> params) throws Exception {
+        return createLazy(BandwidthClient.getInstance(), params);
+    }
+
+    /**
+     * Creates an application and returns a lazy handle instead of retrieving the new application right away, saving a request.
+     * The handle holds the id and the params that were sent; the other fields are loaded on first access or
+     * by refresh().
+     * @param client the client
+     * @param params the application params
+     * @return the application handle
+     * @throws Exception unexpected error.
+     */
+    public static Application createLazy(final BandwidthClient client, final Map<String, Object> params) throws Exception {
+        final String uri = client.getUserResourceUri(BandwidthConstants.APPLICATIONS_URI_PATH);
+        final RestResponse response = client.post(uri, params);
+        return createLazy(client, Application.class, response.getLocation(), params);
+    }
     
     
+    /**
+     * Returns an application, without blocking the calling thread.
+     * @param client the client
+     * @param id the application id
+     * @param callback the callback notified on completion, may be null
+     * @return the future application
+     */
+    public static Future<Application> getAsync(final BandwidthClient client, final String id, final FutureCallback<Application> callback) {
+        final String uri = client.getUserResourceInstanceUri(BandwidthConstants.APPLICATIONS_URI_PATH, id);
+        return AsyncResources.get(client, uri, Application.class, callback);
+    }
+
+    /**
+     * Creates an application without blocking the calling thread. The follow-up retrieval of the new resource is chained on the
+     * non-blocking client as well.
+     * @param params the params
+     * @param callback the callback notified on completion, may be null
+     * @return the future application
+     */
+    public static Future<Application> createAsync(final Map<String, Object> params, final FutureCallback<Application> callback) {
+        return createAsync(BandwidthClient.getInstance(), params, callback);
+    }
+
+    /**
+     * Creates an application without blocking the calling thread. The follow-up retrieval of the new resource is chained on the
+     * non-blocking client as well.
+     * @param client the client
+     * @param params the params
+     * @param callback the callback notified on completion, may be null
+     * @return the future application
+     */
+    public static Future<Application> createAsync(final BandwidthClient client, final Map<String, Object> params,
+                                    final FutureCallback<Application> callback) {
+        final String uri = client.getUserResourceUri(BandwidthConstants.APPLICATIONS_URI_PATH);
+        return AsyncResources.create(client, uri, params, Application.class, callback);
+    }
+
     public Application(final BandwidthClient client, final JSONObject jsonObject) {
         super(client,jsonObject);
     }
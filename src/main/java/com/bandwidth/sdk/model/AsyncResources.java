@@ -0,0 +1,101 @@
+package com.bandwidth.sdk.model;
+
+import com.bandwidth.sdk.BandwidthClient;
+import com.bandwidth.sdk.RestResponse;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.json.simple.JSONObject;
+
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * Helper that chains the non-blocking requests behind the asynchronous model factories, e.g. Call.createAsync().
+ * Callbacks run on the client's I/O dispatch threads.
+ */
+final class AsyncResources {
+
+    private AsyncResources() {
+    }
+
+    /**
+     * Retrieves a resource and builds the model object once the response arrives.
+     *
+     * @param client the client.
+     * @param uri the resource instance uri.
+     * @param clazz the model class, which must expose a (BandwidthClient, JSONObject) constructor.
+     * @param callback the callback notified on completion, may be null.
+     * @param <E> the model type.
+     * @return the future model object.
+     */
+    static <E extends ResourceBase> Future<E> get(final BandwidthClient client, final String uri,
+                                                  final Class<E> clazz, final FutureCallback<E> callback) {
+        final BasicFuture<E> future = new BasicFuture<E>(callback);
+        client.getAsync(uri, null, new Chain<RestResponse>(future) {
+            @Override
+            public void completed(final RestResponse response) {
+                try {
+                    final JSONObject jsonObject = ResourceBase.toJSONObject(response);
+                    future.completed(clazz.getConstructor(BandwidthClient.class, JSONObject.class)
+                            .newInstance(client, jsonObject));
+                } catch (final Exception e) {
+                    future.failed(e);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Creates a resource with a POST and then retrieves it from the Location header, without blocking the caller.
+     *
+     * @param client the client.
+     * @param uri the resource collection uri.
+     * @param params the create params.
+     * @param clazz the model class.
+     * @param callback the callback notified on completion, may be null.
+     * @param <E> the model type.
+     * @return the future model object.
+     */
+    static <E extends ResourceBase> Future<E> create(final BandwidthClient client, final String uri,
+                                                     final Map<String, Object> params, final Class<E> clazz,
+                                                     final FutureCallback<E> callback) {
+        final BasicFuture<E> future = new BasicFuture<E>(callback);
+        client.postAsync(uri, params, new Chain<RestResponse>(future) {
+            @Override
+            public void completed(final RestResponse response) {
+                get(client, response.getLocation(), clazz, new Chain<E>(future) {
+                    @Override
+                    public void completed(final E result) {
+                        future.completed(result);
+                    }
+                });
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Callback that forwards failures and cancellation to a downstream future.
+     *
+     * @param <T> the upstream result type.
+     */
+    private abstract static class Chain<T> implements FutureCallback<T> {
+
+        private final BasicFuture<?> downstream;
+
+        Chain(final BasicFuture<?> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public void failed(final Exception ex) {
+            downstream.failed(ex);
+        }
+
+        @Override
+        public void cancelled() {
+            downstream.cancel();
+        }
+    }
+}
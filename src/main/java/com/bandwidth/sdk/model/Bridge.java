@@ -6,11 +6,13 @@ import com.bandwidth.sdk.BandwidthClient;
 import com.bandwidth.sdk.RestResponse;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.concurrent.FutureCallback;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Future;
 
 /**
  * Information about a specific bridge
@@ -140,6 +142,33 @@ public class Bridge extends ResourceBase {
     	final Bridge bridge = new Bridge(client, callObj);
     	return bridge;
 	}
+
+    /**
+     * Creates a bridge and returns a lazy handle instead of retrieving the new bridge right away, saving a request.
+     * The handle holds the id and the params that were sent; the other fields are loaded on first access or
+     * by refresh().
+     * @param params the bridge params
+     * @return the bridge handle
+     * @throws Exception unexpected error.
+     */
+    public static Bridge createLazy(final Map<String, Object> params) throws Exception {
+        return createLazy(BandwidthClient.getInstance(), params);
+    }
+
+    /**
+     * Creates a bridge and returns a lazy handle instead of retrieving the new bridge right away, saving a request.
+     * The handle holds the id and the params that were sent; the other fields are loaded on first access or
+     * by refresh().
+     * @param client the client
+     * @param params the bridge params
+     * @return the bridge handle
+     * @throws Exception unexpected error.
+     */
+    public static Bridge createLazy(final BandwidthClient client, final Map<String, Object> params) throws Exception {
+        final String uri = client.getUserResourceUri(BandwidthConstants.BRIDGES_URI_PATH);
+        final RestResponse response = client.post(uri, params);
+        return createLazy(client, Bridge.class, response.getLocation(), params);
+    }
     
     
     /**
@@ -189,6 +218,43 @@ public class Bridge extends ResourceBase {
     
     
 
+    /**
+     * Gets information about a specific bridge, without blocking the calling thread.
+     * @param client the client
+     * @param id the bridge id
+     * @param callback the callback notified on completion, may be null
+     * @return the future bridge
+     */
+    public static Future<Bridge> getAsync(final BandwidthClient client, final String id, final FutureCallback<Bridge> callback) {
+        final String uri = client.getUserResourceInstanceUri(BandwidthConstants.BRIDGES_URI_PATH, id);
+        return AsyncResources.get(client, uri, Bridge.class, callback);
+    }
+
+    /**
+     * Creates a bridge without blocking the calling thread. The follow-up retrieval of the new resource is chained on the
+     * non-blocking client as well.
+     * @param params the params
+     * @param callback the callback notified on completion, may be null
+     * @return the future bridge
+     */
+    public static Future<Bridge> createAsync(final Map<String, Object> params, final FutureCallback<Bridge> callback) {
+        return createAsync(BandwidthClient.getInstance(), params, callback);
+    }
+
+    /**
+     * Creates a bridge without blocking the calling thread. The follow-up retrieval of the new resource is chained on the
+     * non-blocking client as well.
+     * @param client the client
+     * @param params the params
+     * @param callback the callback notified on completion, may be null
+     * @return the future bridge
+     */
+    public static Future<Bridge> createAsync(final BandwidthClient client, final Map<String, Object> params,
+                                    final FutureCallback<Bridge> callback) {
+        final String uri = client.getUserResourceUri(BandwidthConstants.BRIDGES_URI_PATH);
+        return AsyncResources.create(client, uri, params, Bridge.class, callback);
+    }
+
     public Bridge(final BandwidthClient client, final JSONObject jsonObject) {
         super(client, jsonObject);
     }
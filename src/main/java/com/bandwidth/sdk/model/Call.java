@@ -5,13 +5,16 @@ import com.bandwidth.sdk.BandwidthConstants;
 import com.bandwidth.sdk.BandwidthClient;
 import com.bandwidth.sdk.RestResponse;
 
+import com.bandwidth.sdk.model.events.Event;
 import com.bandwidth.sdk.model.events.EventBase;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.concurrent.FutureCallback;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Future;
 
 /**
  * Information about call.
@@ -42,11 +45,23 @@ public class Call extends ResourceBase {
      * @throws Exception error.
      */
     public static Call get(final BandwidthClient client, final String callId) throws Exception {
-    	
+
+        final CallStateCache cache = client.getCallStateCache();
+        if (cache != null) {
+            final JSONObject cached = cache.get(callId);
+            if (cached != null) {
+                return new Call(client, cached);
+            }
+        }
+
         final String callsUri = client.getUserResourceInstanceUri(BandwidthConstants.CALLS_URI_PATH, callId);
         
+        final long requestedAt = System.nanoTime();
         final JSONObject jsonObject = toJSONObject(client.get(callsUri, null));
-        
+        if (cache != null) {
+            cache.put(callId, jsonObject, requestedAt);
+        }
+
         return new Call(client, jsonObject);
     }
 
@@ -162,6 +177,70 @@ public class Call extends ResourceBase {
         return get(client, callId);
     }
 
+    /**
+     * Dials a call and returns a lazy handle instead of retrieving the new call right away, saving a request.
+     * The handle holds the id and the params that were sent; the other fields are loaded on first access or
+     * by refresh().
+     * @param params the call params
+     * @return the call handle
+     * @throws Exception unexpected error.
+     */
+    public static Call createLazy(final Map<String, Object> params) throws Exception {
+        return createLazy(BandwidthClient.getInstance(), params);
+    }
+
+    /**
+     * Dials a call and returns a lazy handle instead of retrieving the new call right away, saving a request.
+     * The handle holds the id and the params that were sent; the other fields are loaded on first access or
+     * by refresh().
+     * @param client the client
+     * @param params the call params
+     * @return the call handle
+     * @throws Exception unexpected error.
+     */
+    public static Call createLazy(final BandwidthClient client, final Map<String, Object> params) throws Exception {
+        final String uri = client.getUserResourceUri(BandwidthConstants.CALLS_URI_PATH);
+        final RestResponse response = client.post(uri, params);
+        return createLazy(client, Call.class, response.getLocation(), params);
+    }
+
+    /**
+     * Returns information about an active or completed call, without blocking the calling thread.
+     * @param client the client
+     * @param callId the call id
+     * @param callback the callback notified on completion, may be null
+     * @return the future call
+     */
+    public static Future<Call> getAsync(final BandwidthClient client, final String callId, final FutureCallback<Call> callback) {
+        final String uri = client.getUserResourceInstanceUri(BandwidthConstants.CALLS_URI_PATH, callId);
+        return AsyncResources.get(client, uri, Call.class, callback);
+    }
+
+    /**
+     * Dials a call without blocking the calling thread. The follow-up retrieval of the new resource is chained on the
+     * non-blocking client as well.
+     * @param params the params
+     * @param callback the callback notified on completion, may be null
+     * @return the future call
+     */
+    public static Future<Call> createAsync(final Map<String, Object> params, final FutureCallback<Call> callback) {
+        return createAsync(BandwidthClient.getInstance(), params, callback);
+    }
+
+    /**
+     * Dials a call without blocking the calling thread. The follow-up retrieval of the new resource is chained on the
+     * non-blocking client as well.
+     * @param client the client
+     * @param params the params
+     * @param callback the callback notified on completion, may be null
+     * @return the future call
+     */
+    public static Future<Call> createAsync(final BandwidthClient client, final Map<String, Object> params,
+                                    final FutureCallback<Call> callback) {
+        final String uri = client.getUserResourceUri(BandwidthConstants.CALLS_URI_PATH);
+        return AsyncResources.create(client, uri, params, Call.class, callback);
+    }
+
     public Call(final BandwidthClient client, final JSONObject jsonObject) {
         super(client, jsonObject);
     }
@@ -361,11 +440,7 @@ public class Call extends ResourceBase {
         final Map<String, Object> params = new HashMap<String, Object>();
         params.put("state", "completed");
 
-        final String uri = getUri();
-        client.post(uri, params);
-
-        final JSONObject jsonObject = toJSONObject(client.get(uri, null));
-        updateProperties(jsonObject);
+        postUpdate(params, params);
     }
 
     /**
@@ -377,11 +452,7 @@ public class Call extends ResourceBase {
         final Map<String, Object> params = new HashMap<String, Object>();
         params.put("state", "active");
 
-        final String uri = getUri();
-        client.post(uri, params);
-
-        final JSONObject jsonObject = toJSONObject(client.get(uri, null));
-        updateProperties(jsonObject);
+        postUpdate(params, params);
     }
 
     /**
@@ -393,11 +464,7 @@ public class Call extends ResourceBase {
         final Map<String, Object> params = new HashMap<String, Object>();
         params.put("state", "rejected");
 
-        final String uri = getUri();
-        client.post(uri, params);
-
-        final JSONObject jsonObject = toJSONObject(client.get(uri, null));
-        updateProperties(jsonObject);
+        postUpdate(params, params);
     }
 
     /**
@@ -409,11 +476,7 @@ public class Call extends ResourceBase {
         final Map<String, Object> params = new HashMap<String, Object>();
         params.put("recordingEnabled", "true");
 
-        final String uri = getUri();
-        client.post(uri, params);
-
-        final JSONObject jsonObject = toJSONObject(client.get(uri, null));
-        updateProperties(jsonObject);
+        postUpdate(params, params);
     }
 
     /**
@@ -425,11 +488,7 @@ public class Call extends ResourceBase {
         final Map<String, Object> params = new HashMap<String, Object>();
         params.put("recordingEnabled", "false");
 
-        final String uri = getUri();
-        client.post(uri, params);
-
-        final JSONObject jsonObject = toJSONObject(client.get(uri, null));
-        updateProperties(jsonObject);
+        postUpdate(params, params);
     }
 
     /**
@@ -540,11 +599,49 @@ public class Call extends ResourceBase {
     private void transfer(final Map<String, Object> params) throws Exception {
         params.put("state", "transferring");
 
-        final String uri = getUri();
-        client.post(uri, params);
+        // only the state is known locally, the transfer target lives on the new call
+        postUpdate(params, Collections.<String, Object>singletonMap("state", "transferring"));
+    }
 
-        final JSONObject jsonObject = toJSONObject(client.get(uri, null));
-        updateProperties(jsonObject);
+    /**
+     * Applies the call state carried by a callback event to this call without a request to the API, which keeps the
+     * call current when the client skips the refresh after updates. Events for other calls are ignored.
+     * @param event the callback event
+     */
+    public void updateFromEvent(final Event event) {
+        if (event == null || getId() == null || !getId().equals(event.getProperty("callId"))) {
+            return;
+        }
+
+        final String state = getStateFromEvent(event);
+        if (state != null) {
+            // written straight to the properties, like postUpdate(), so a lazy handle is not loaded
+            synchronized (this) {
+                properties.put("state", state);
+            }
+        }
+    }
+
+    /**
+     * Returns the call state carried by a callback event, the callState field or the state implied by the event type.
+     * @param event the callback event
+     * @return the state, or null if the event doesn't change it
+     */
+    static String getStateFromEvent(final Event event) {
+        final String state = event.getProperty("callState");
+        if (state != null || event.getEventType() == null) {
+            return state;
+        }
+        switch (event.getEventType()) {
+            case ANSWER:
+                return "active";
+            case HANGUP:
+                return "completed";
+            case REJECT:
+                return "rejected";
+            default:
+                return null;
+        }
     }
 
     @Override
@@ -0,0 +1,391 @@
+package com.bandwidth.sdk.model;
+
+import com.bandwidth.sdk.model.events.Event;
+import com.bandwidth.sdk.model.events.EventType;
+import org.json.simple.JSONObject;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local copy of the state of calls and conferences, kept current by callback events instead of repeated GETs.
+ *
+ * The fields of a call or conference are cached when Call.get() or Conference.getConference() first load them, and
+ * the state carried by each callback event passed to update() is applied on top. Once set on the client with
+ * BandwidthClient.setCallStateCache(), those methods are answered from the cache while it holds the resource:
+ *
+ * <pre>
+ * final CallStateCache cache = new CallStateCache();
+ * client.setCallStateCache(cache);
+ * server = new CallbackServer(address, CallbackServer.stateTrackingHandler(cache, handler));
+ * </pre>
+ *
+ * Updates made through the SDK, e.g. Call.hangUp() or Call.recordingOn(), are merged into the cached fields too.
+ * Each field remembers when it was last set, so fields loaded by a GET that was sent before an event or update
+ * don't overwrite what that event or update set.
+ *
+ * Calls and conferences are forgotten a while after they end, and any entry is forgotten when no GET or event has
+ * refreshed it for longer than the idle timeout, in case an event was missed. Bridges have no callbacks and are not
+ * cached.
+ */
+public class CallStateCache {
+
+    public static final long DEFAULT_TTL_AFTER_END_SECONDS = 60;
+
+    public static final long DEFAULT_MAX_IDLE_SECONDS = 3600;
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long ttlAfterEndNanos;
+    private final long maxIdleNanos;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    private volatile long lastSweep = System.nanoTime();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stalenessSum = new AtomicLong();
+    private final AtomicLong maxStaleness = new AtomicLong();
+
+    /**
+     * Creates a cache keeping ended calls for DEFAULT_TTL_AFTER_END_SECONDS and idle ones for
+     * DEFAULT_MAX_IDLE_SECONDS.
+     */
+    public CallStateCache() {
+        this(DEFAULT_TTL_AFTER_END_SECONDS, DEFAULT_MAX_IDLE_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param ttlAfterEnd how long a call or conference is kept once it ended.
+     * @param maxIdle how long an entry is kept without a GET or event.
+     * @param unit the unit of both durations.
+     */
+    public CallStateCache(final long ttlAfterEnd, final long maxIdle, final TimeUnit unit) {
+        this.ttlAfterEndNanos = unit.toNanos(ttlAfterEnd);
+        this.maxIdleNanos = unit.toNanos(maxIdle);
+    }
+
+    /**
+     * Returns the cached fields of a call or conference, counting a hit or a miss.
+     *
+     * @param id the call or conference id.
+     * @return a copy of the fields, or null if they were never loaded or expired.
+     */
+    @SuppressWarnings("unchecked")
+    public JSONObject get(final String id) {
+        final long now = System.nanoTime();
+        final Entry entry = id != null ? entries.get(id) : null;
+        if (entry == null || !entry.complete || entry.isExpired(now)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        recordStaleness(TimeUnit.NANOSECONDS.toMillis(now - entry.updatedAt));
+
+        final JSONObject json = new JSONObject();
+        json.putAll(entry.properties);
+        return json;
+    }
+
+    /**
+     * Returns the last known state of a call or conference, also when only events were seen for it.
+     *
+     * @param id the call or conference id.
+     * @return the state, or null if unknown.
+     */
+    public String getState(final String id) {
+        final Entry entry = id != null ? entries.get(id) : null;
+        if (entry == null || entry.isExpired(System.nanoTime())) {
+            return null;
+        }
+        return (String) entry.properties.get("state");
+    }
+
+    /**
+     * Caches the fields of a call or conference as returned by the API.
+     *
+     * @param id the call or conference id.
+     * @param properties the fields.
+     */
+    public void put(final String id, final Map<?, ?> properties) {
+        put(id, properties, System.nanoTime());
+    }
+
+    /**
+     * Caches the fields of a call or conference as returned by a GET. Fields set by an event or update since the
+     * GET was sent are kept, and the fields are dropped altogether if a later GET was cached already.
+     *
+     * @param id the call or conference id.
+     * @param properties the fields.
+     * @param requestedAt the System.nanoTime() at which the GET was sent.
+     */
+    public void put(final String id, final Map<?, ?> properties, final long requestedAt) {
+        final long now = System.nanoTime();
+        while (true) {
+            final Entry entry = entries.get(id);
+            final boolean current = entry != null && !entry.isExpired(now);
+            if (current && entry.complete && entry.loadedAt - requestedAt > 0) {
+                return;
+            }
+            final Map<String, Object> fields = new HashMap<String, Object>();
+            for (final Map.Entry<?, ?> property : properties.entrySet()) {
+                fields.put(property.getKey().toString(), property.getValue());
+            }
+            final Map<String, Long> setAt = new HashMap<String, Long>();
+            if (current) {
+                for (final Map.Entry<String, Long> field : entry.setAt.entrySet()) {
+                    if (field.getValue() - requestedAt > 0) {
+                        fields.put(field.getKey(), entry.properties.get(field.getKey()));
+                        setAt.put(field.getKey(), field.getValue());
+                    }
+                }
+            }
+            final Entry created = newEntry(fields, setAt, true, requestedAt, now);
+            if (entry == null ? entries.putIfAbsent(id, created) == null : entries.replace(id, entry, created)) {
+                break;
+            }
+        }
+        sweep(now);
+    }
+
+    /**
+     * Merges the changes of an update made through the SDK into a cached call or conference, if it is cached.
+     * Fields set by an event since are kept.
+     *
+     * @param id the call or conference id.
+     * @param changes the changed fields.
+     * @param changedAt the System.nanoTime() as of which the changes are known.
+     */
+    public void merge(final String id, final Map<?, ?> changes, final long changedAt) {
+        if (id == null) {
+            return;
+        }
+        final long now = System.nanoTime();
+        while (true) {
+            final Entry entry = entries.get(id);
+            if (entry == null || entry.isExpired(now)) {
+                return;
+            }
+            final Map<String, Object> fields = new HashMap<String, Object>(entry.properties);
+            final Map<String, Long> setAt = new HashMap<String, Long>(entry.setAt);
+            for (final Map.Entry<?, ?> change : changes.entrySet()) {
+                final String key = change.getKey().toString();
+                final Long fieldSetAt = setAt.get(key);
+                if (fieldSetAt == null || changedAt - fieldSetAt >= 0) {
+                    fields.put(key, change.getValue());
+                    setAt.put(key, changedAt);
+                }
+            }
+            if (entries.replace(id, entry, newEntry(fields, setAt, entry.complete, entry.loadedAt, now))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Applies a callback event: the call state for call events, the conference state and member count for
+     * conference events. Events for calls and conferences not cached yet start a partial entry, which getState()
+     * answers but get() does not.
+     *
+     * @param event the callback event.
+     */
+    public void update(final Event event) {
+        if (event == null || event.getEventType() == null) {
+            return;
+        }
+        final long now = System.nanoTime();
+        final EventType eventType = event.getEventType();
+        if (eventType == EventType.CONFERENCE) {
+            apply(event.getProperty("conferenceId"), "state", event.getProperty("status"), now);
+        } else if (eventType == EventType.CONFERENCE_MEMBER) {
+            apply(event.getProperty("conferenceId"), "activeMembers", toLong(event.getProperty("activeMembers")),
+                    now);
+        } else if (eventType != EventType.CONFERENCE_PLAYBACK && eventType != EventType.CONFERENCE_SPEAK) {
+            apply(event.getProperty("callId"), "state", Call.getStateFromEvent(event), now);
+        }
+        sweep(now);
+    }
+
+    /**
+     * Forgets a call or conference.
+     *
+     * @param id the call or conference id.
+     */
+    public void invalidate(final String id) {
+        entries.remove(id);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the share of get() calls answered from the cache.
+     *
+     * @return the hit ratio between 0 and 1, 0 if get() was never called.
+     */
+    public double getHitRatio() {
+        final long h = hits.get();
+        final long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Returns the mean age of the cached fields served by get(), the time since their last GET or event.
+     *
+     * @param unit the unit of the result.
+     * @return the mean staleness, 0 if nothing was served.
+     */
+    public long getMeanStaleness(final TimeUnit unit) {
+        final long h = hits.get();
+        return h == 0 ? 0 : unit.convert(stalenessSum.get() / h, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the largest age of the cached fields served by get().
+     *
+     * @param unit the unit of the result.
+     * @return the maximum staleness.
+     */
+    public long getMaxStaleness(final TimeUnit unit) {
+        return unit.convert(maxStaleness.get(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the time since a call or conference was last refreshed by a GET or an event.
+     *
+     * @param id the call or conference id.
+     * @param unit the unit of the result.
+     * @return the staleness, or -1 if the id is not cached or expired.
+     */
+    public long getStaleness(final String id, final TimeUnit unit) {
+        final Entry entry = id != null ? entries.get(id) : null;
+        final long now = System.nanoTime();
+        if (entry == null || entry.isExpired(now)) {
+            return -1;
+        }
+        return unit.convert(now - entry.updatedAt, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "CallStateCache{" +
+                "size=" + size() +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", meanStalenessMillis=" + getMeanStaleness(TimeUnit.MILLISECONDS) +
+                ", maxStalenessMillis=" + getMaxStaleness(TimeUnit.MILLISECONDS) +
+                '}';
+    }
+
+    private void apply(final String id, final String key, final Object value, final long now) {
+        if (id == null || value == null) {
+            return;
+        }
+        while (true) {
+            final Entry entry = entries.get(id);
+            if (entry == null || entry.isExpired(now)) {
+                final Map<String, Object> properties = new HashMap<String, Object>();
+                properties.put("id", id);
+                properties.put(key, value);
+                final Entry created = newEntry(properties, Collections.singletonMap(key, now), false, now, now);
+                if (entry == null ? entries.putIfAbsent(id, created) == null : entries.replace(id, entry, created)) {
+                    return;
+                }
+            } else {
+                final Map<String, Object> properties = new HashMap<String, Object>(entry.properties);
+                properties.put(key, value);
+                final Map<String, Long> setAt = new HashMap<String, Long>(entry.setAt);
+                setAt.put(key, now);
+                if (entries.replace(id, entry, newEntry(properties, setAt, entry.complete, entry.loadedAt, now))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private Entry newEntry(final Map<String, Object> properties, final Map<String, Long> setAt,
+                           final boolean complete, final long loadedAt, final long now) {
+        final Object state = properties.get("state");
+        final boolean ended = "completed".equals(state) || "rejected".equals(state);
+        return new Entry(Collections.unmodifiableMap(properties), Collections.unmodifiableMap(setAt), complete,
+                loadedAt, now, now + (ended ? ttlAfterEndNanos : maxIdleNanos));
+    }
+
+    private void sweep(final long now) {
+        if (now - lastSweep < SWEEP_INTERVAL_NANOS) {
+            return;
+        }
+        lastSweep = now;
+        for (final Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().isExpired(now)) {
+                entries.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void recordStaleness(final long millis) {
+        stalenessSum.addAndGet(millis);
+        long current;
+        while (millis > (current = maxStaleness.get())) {
+            if (maxStaleness.compareAndSet(current, millis)) {
+                break;
+            }
+        }
+    }
+
+    private static Long toLong(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Entry {
+        final Map<String, Object> properties;
+        /**
+         * When the fields set by events and updates were set; the other fields are as of loadedAt.
+         */
+        final Map<String, Long> setAt;
+        final boolean complete;
+        final long loadedAt;
+        final long updatedAt;
+        final long expiresAt;
+
+        Entry(final Map<String, Object> properties, final Map<String, Long> setAt, final boolean complete,
+              final long loadedAt, final long updatedAt, final long expiresAt) {
+            this.properties = properties;
+            this.setAt = setAt;
+            this.complete = complete;
+            this.loadedAt = loadedAt;
+            this.updatedAt = updatedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(final long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
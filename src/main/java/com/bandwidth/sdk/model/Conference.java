@@ -5,11 +5,13 @@ import com.bandwidth.sdk.BandwidthConstants;
 import com.bandwidth.sdk.BandwidthClient;
 import com.bandwidth.sdk.RestResponse;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.concurrent.FutureCallback;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Future;
 
 /**
  * Information about conference.
@@ -40,12 +42,23 @@ public class Conference extends ResourceBase {
      * @throws IOException unexpected error.
      */
     public static Conference getConference(final BandwidthClient client, final String id) throws Exception {
+        final CallStateCache cache = client.getCallStateCache();
+        if (cache != null) {
+            final JSONObject cached = cache.get(id);
+            if (cached != null) {
+                return new Conference(client, cached);
+            }
+        }
         final String conferencesUri = client.getUserResourceUri(BandwidthConstants.CONFERENCES_URI_PATH);
         final String conferenceUri = StringUtils.join(new String[]{
                 conferencesUri,
                 id
         }, '/');
+        final long requestedAt = System.nanoTime();
         final JSONObject jsonObject = toJSONObject(client.get(conferenceUri, null));
+        if (cache != null) {
+            cache.put(id, jsonObject, requestedAt);
+        }
         return new Conference(client, jsonObject);
     }
 
@@ -76,6 +89,70 @@ public class Conference extends ResourceBase {
         return getConference(client, id);
     }
 
+    /**
+     * Creates a conference and returns a lazy handle instead of retrieving the new conference right away, saving a request.
+     * The handle holds the id and the params that were sent; the other fields are loaded on first access or
+     * by refresh().
+     * @param params the conference params
+     * @return the conference handle
+     * @throws Exception unexpected error.
+     */
+    public static Conference createConferenceLazy(final Map<String, Object> params) throws Exception {
+        return createConferenceLazy(BandwidthClient.getInstance(), params);
+    }
+
+    /**
+     * Creates a conference and returns a lazy handle instead of retrieving the new conference right away, saving a request.
+     * The handle holds the id and the params that were sent; the other fields are loaded on first access or
+     * by refresh().
+     * @param client the client
+     * @param params the conference params
+     * @return the conference handle
+     * @throws Exception unexpected error.
+     */
+    public static Conference createConferenceLazy(final BandwidthClient client, final Map<String, Object> params) throws Exception {
+        final String uri = client.getUserResourceUri(BandwidthConstants.CONFERENCES_URI_PATH);
+        final RestResponse response = client.post(uri, params);
+        return createLazy(client, Conference.class, response.getLocation(), params);
+    }
+
+
+    /**
+     * Retrieves the conference information, without blocking the calling thread.
+     * @param client the client
+     * @param id the conference id
+     * @param callback the callback notified on completion, may be null
+     * @return the future conference
+     */
+    public static Future<Conference> getConferenceAsync(final BandwidthClient client, final String id, final FutureCallback<Conference> callback) {
+        final String uri = client.getUserResourceInstanceUri(BandwidthConstants.CONFERENCES_URI_PATH, id);
+        return AsyncResources.get(client, uri, Conference.class, callback);
+    }
+
+    /**
+     * Creates a conference without blocking the calling thread. The follow-up retrieval of the new resource is chained on the
+     * non-blocking client as well.
+     * @param params the params
+     * @param callback the callback notified on completion, may be null
+     * @return the future conference
+     */
+    public static Future<Conference> createConferenceAsync(final Map<String, Object> params, final FutureCallback<Conference> callback) {
+        return createConferenceAsync(BandwidthClient.getInstance(), params, callback);
+    }
+
+    /**
+     * Creates a conference without blocking the calling thread. The follow-up retrieval of the new resource is chained on the
+     * non-blocking client as well.
+     * @param client the client
+     * @param params the params
+     * @param callback the callback notified on completion, may be null
+     * @return the future conference
+     */
+    public static Future<Conference> createConferenceAsync(final BandwidthClient client, final Map<String, Object> params,
+                                    final FutureCallback<Conference> callback) {
+        final String uri = client.getUserResourceUri(BandwidthConstants.CONFERENCES_URI_PATH);
+        return AsyncResources.create(client, uri, params, Conference.class, callback);
+    }
 
     public Conference(final BandwidthClient client, final JSONObject jsonObject) {
         super(client, jsonObject);
@@ -133,11 +210,7 @@ public class Conference extends ResourceBase {
         final Map<String, Object> params = new HashMap<String, Object>();
         params.put("state", "completed");
 
-        final String uri = getUri();
-        client.post(uri, params);
-
-        final JSONObject jsonObject = toJSONObject(client.get(uri, null));
-        updateProperties(jsonObject);
+        postUpdate(params, params);
     }
 
     /**
@@ -149,11 +222,7 @@ public class Conference extends ResourceBase {
         final Map<String, Object> params = new HashMap<String, Object>();
         params.put("mute", String.valueOf(true));
 
-        final String uri = getUri();
-        client.post(uri, params);
-
-        final JSONObject jsonObject = toJSONObject(client.get(uri, null));
-        updateProperties(jsonObject);
+        postUpdate(params, params);
     }
 
     /**
@@ -6,7 +6,6 @@ import com.bandwidth.sdk.BandwidthConstants;
 import com.bandwidth.sdk.RestResponse;
 import org.apache.commons.lang3.StringUtils;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 import java.io.IOException;
@@ -29,10 +28,6 @@ public class Domain extends ResourceBase {
         updateProperties(jsonObject);
     }  
     
-    public static JSONObject toJSONObject(final RestResponse response) throws ParseException {
-        return (JSONObject) new JSONParser().parse(response.getResponseText());
-    }
-    
     /**
      * Convenience factory method for Domain.
      * @param name the domain name.
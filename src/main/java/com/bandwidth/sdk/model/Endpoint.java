@@ -11,7 +11,6 @@ import com.bandwidth.sdk.BandwidthConstants;
 import com.bandwidth.sdk.RestResponse;
 
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 import java.io.IOException;
@@ -34,10 +33,6 @@ public class Endpoint extends ResourceBase {
         updateProperties(jsonObject);
     }  
     
-    public static JSONObject toJSONObject(final RestResponse response) throws ParseException {
-        return (JSONObject) new JSONParser().parse(response.getResponseText());
-    }
-    
     /**
      * Convenience factory method for Endpoint, returns a created Endpoint object from a name
      * @param client the bandwidth client configuration.
@@ -5,7 +5,6 @@ import com.bandwidth.sdk.BandwidthClient;
 import com.bandwidth.sdk.BandwidthConstants;
 import com.bandwidth.sdk.RestResponse;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
 import java.io.IOException;
@@ -27,10 +26,6 @@ public class EndpointToken extends ResourceBase {
         updateProperties(jsonObject);
     }
 
-    public static JSONObject toJSONObject(final RestResponse response) throws ParseException {
-        return (JSONObject) new JSONParser().parse(response.getResponseText());
-    }
-
     /**
      * Creates an EndpointToken for the domain/endpoint
      * @param client the bandwidth client.
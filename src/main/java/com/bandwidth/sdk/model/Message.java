@@ -3,12 +3,16 @@ package com.bandwidth.sdk.model;
 import com.bandwidth.sdk.BandwidthClient;
 import com.bandwidth.sdk.BandwidthConstants;
 import com.bandwidth.sdk.RestResponse;
+import org.apache.http.concurrent.FutureCallback;
 import org.json.simple.JSONObject;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 /**
  * Information about message.
@@ -202,7 +206,123 @@ public class Message extends ResourceBase {
 
         return get(client, messageId);
     }
-	
+
+    /**
+     * Sends many messages, in batches posted concurrently over the connection pool, see MessageBatchSender.
+     * A message rejected by the API doesn't stop the others.
+     * @param messages the params of each message
+     * @return the result of each message, with its id or error, in the order of the messages
+     * @throws Exception unexpected error.
+     */
+    public static List<MessageResult> createAll(final Collection<Map<String, Object>> messages) throws Exception {
+        return createAll(BandwidthClient.getInstance(), messages);
+    }
+
+    /**
+     * Sends many messages, in batches posted concurrently over the connection pool, see MessageBatchSender.
+     * A message rejected by the API doesn't stop the others.
+     * @param client the client
+     * @param messages the params of each message
+     * @return the result of each message, with its id or error, in the order of the messages
+     * @throws Exception unexpected error.
+     */
+    public static List<MessageResult> createAll(final BandwidthClient client,
+                                                final Collection<Map<String, Object>> messages) throws Exception {
+        return new MessageBatchSender(client).send(messages);
+    }
+
+    /**
+     * Sends a message and returns a lazy handle instead of retrieving the new message right away, saving a request.
+     * The handle holds the id and the params that were sent; the other fields are loaded on first access or
+     * by refresh().
+     * @param params the message params
+     * @return the message handle
+     * @throws Exception unexpected error.
+     */
+    public static Message createLazy(final Map<String, Object> params) throws Exception {
+        return createLazy(BandwidthClient.getInstance(), params);
+    }
+
+    /**
+     * Sends a message and returns a lazy handle instead of retrieving the new message right away, saving a request.
+     * The handle holds the id and the params that were sent; the other fields are loaded on first access or
+     * by refresh().
+     * @param client the client
+     * @param params the message params
+     * @return the message handle
+     * @throws Exception unexpected error.
+     */
+    public static Message createLazy(final BandwidthClient client, final Map<String, Object> params) throws Exception {
+        final String uri = client.getUserResourceUri(BandwidthConstants.MESSAGES_URI_PATH);
+        final RestResponse response = client.post(uri, params);
+        return createLazy(client, Message.class, response.getLocation(), params);
+    }
+
+    /**
+     * Sends a message logged in a spool first, so that it is sent again on the next start if it fails with a
+     * network or server error, see MessageSpool.
+     * @param client the client
+     * @param params the message params
+     * @param spool the spool
+     * @return the message
+     * @throws Exception unexpected error.
+     */
+    public static Message create(final BandwidthClient client, final Map<String, Object> params,
+                                 final MessageSpool spool) throws Exception {
+        return get(client, spool.create(client, params).getId());
+    }
+
+    /**
+     * Sends a message logged in a spool first, like create(client, params, spool), and returns a lazy handle
+     * instead of retrieving the new message right away.
+     * @param client the client
+     * @param params the message params
+     * @param spool the spool
+     * @return the message handle
+     * @throws Exception unexpected error.
+     */
+    public static Message createLazy(final BandwidthClient client, final Map<String, Object> params,
+                                     final MessageSpool spool) throws Exception {
+        return spool.create(client, params);
+    }
+
+
+    /**
+     * Gets information about a previously sent or received message, without blocking the calling thread.
+     * @param client the client
+     * @param id the message id
+     * @param callback the callback notified on completion, may be null
+     * @return the future message
+     */
+    public static Future<Message> getAsync(final BandwidthClient client, final String id, final FutureCallback<Message> callback) {
+        final String uri = client.getUserResourceInstanceUri(BandwidthConstants.MESSAGES_URI_PATH, id);
+        return AsyncResources.get(client, uri, Message.class, callback);
+    }
+
+    /**
+     * Sends a message without blocking the calling thread. The follow-up retrieval of the new resource is chained on the
+     * non-blocking client as well.
+     * @param params the params
+     * @param callback the callback notified on completion, may be null
+     * @return the future message
+     */
+    public static Future<Message> createAsync(final Map<String, Object> params, final FutureCallback<Message> callback) {
+        return createAsync(BandwidthClient.getInstance(), params, callback);
+    }
+
+    /**
+     * Sends a message without blocking the calling thread. The follow-up retrieval of the new resource is chained on the
+     * non-blocking client as well.
+     * @param client the client
+     * @param params the params
+     * @param callback the callback notified on completion, may be null
+     * @return the future message
+     */
+    public static Future<Message> createAsync(final BandwidthClient client, final Map<String, Object> params,
+                                    final FutureCallback<Message> callback) {
+        final String uri = client.getUserResourceUri(BandwidthConstants.MESSAGES_URI_PATH);
+        return AsyncResources.create(client, uri, params, Message.class, callback);
+    }
 
     public Message(final BandwidthClient client, final JSONObject jsonObject) {
         super(client, jsonObject);
@@ -0,0 +1,198 @@
+package com.bandwidth.sdk.model;
+
+import com.bandwidth.sdk.BandwidthClient;
+import com.bandwidth.sdk.BandwidthConstants;
+import com.bandwidth.sdk.RestResponse;
+import org.apache.http.concurrent.FutureCallback;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sends large numbers of messages over the client's non-blocking connection pool.
+ *
+ * The messages are posted in batches with the array form of the messages endpoint, several batches in flight at
+ * once; or one POST per message when array posts are turned off. Each message gets its own MessageResult: a message
+ * rejected by the API, or a batch that fails altogether, doesn't stop the others.
+ *
+ * <pre>
+ * List&lt;MessageResult&gt; results = new MessageBatchSender(client)
+ *         .setBatchSize(500)
+ *         .setConcurrency(4)
+ *         .send(messages);
+ * </pre>
+ */
+public class MessageBatchSender {
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    public static final int DEFAULT_CONCURRENCY = 8;
+
+    private final BandwidthClient client;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int concurrency = DEFAULT_CONCURRENCY;
+    private boolean arrayPost = true;
+
+    public MessageBatchSender() {
+        this(BandwidthClient.getInstance());
+    }
+
+    public MessageBatchSender(final BandwidthClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Sets the number of messages per array POST.
+     *
+     * @param batchSize the batch size.
+     * @return this sender.
+     */
+    public MessageBatchSender setBatchSize(final int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of requests in flight at once.
+     *
+     * @param concurrency the concurrency.
+     * @return this sender.
+     */
+    public MessageBatchSender setConcurrency(final int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Sets whether messages are sent in array POSTs, the default, or one POST per message.
+     *
+     * @param arrayPost false to send one message per request.
+     * @return this sender.
+     */
+    public MessageBatchSender setArrayPost(final boolean arrayPost) {
+        this.arrayPost = arrayPost;
+        return this;
+    }
+
+    /**
+     * Sends messages and waits for all of them to be accepted or rejected.
+     *
+     * @param messages the params of each message, as for Message.create().
+     * @return the result of each message, in the order of the messages.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public List<MessageResult> send(final Collection<Map<String, Object>> messages) throws InterruptedException {
+        final List<Map<String, Object>> items = new ArrayList<Map<String, Object>>(messages);
+        final MessageResult[] results = new MessageResult[items.size()];
+        final int size = arrayPost ? batchSize : 1;
+        final CountDownLatch done = new CountDownLatch((items.size() + size - 1) / size);
+        final Semaphore inFlight = new Semaphore(concurrency);
+        final String uri = client.getUserResourceUri(BandwidthConstants.MESSAGES_URI_PATH);
+
+        for (int start = 0; start < items.size(); start += size) {
+            final int from = start;
+            final List<Map<String, Object>> batch = items.subList(from, Math.min(from + size, items.size()));
+            inFlight.acquire();
+            final FutureCallback<RestResponse> callback = new FutureCallback<RestResponse>() {
+                @Override
+                public void completed(final RestResponse response) {
+                    try {
+                        if (arrayPost) {
+                            applyResults(response, batch, from, results);
+                        } else {
+                            results[from] = MessageResult.accepted(from, batch.get(0), response.getLocation());
+                        }
+                    } catch (final Exception e) {
+                        fail(batch, from, results, e);
+                    } finally {
+                        inFlight.release();
+                        done.countDown();
+                    }
+                }
+
+                @Override
+                public void failed(final Exception e) {
+                    fail(batch, from, results, e);
+                    inFlight.release();
+                    done.countDown();
+                }
+
+                @Override
+                public void cancelled() {
+                    failed(new IllegalStateException("Request cancelled"));
+                }
+            };
+            try {
+                if (arrayPost) {
+                    client.postJsonAsync(uri, JSONArray.toJSONString(batch), callback);
+                } else {
+                    client.postAsync(uri, batch.get(0), callback);
+                }
+            } catch (final RuntimeException e) {
+                callback.failed(e);
+            }
+        }
+        done.await();
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Reads the per-message results of an array POST, [{"result":"accepted","location":...},
+     * {"result":"error","error":{"code":...,"message":...}}], in the order of the batch.
+     */
+    private static void applyResults(final RestResponse response, final List<Map<String, Object>> batch,
+                                     final int from, final MessageResult[] results) throws IOException {
+        final Object json = response.getJson();
+        final JSONArray array = json instanceof JSONArray ? (JSONArray) json : new JSONArray();
+        for (int i = 0; i < batch.size(); i++) {
+            final int index = from + i;
+            final Object item = i < array.size() ? array.get(i) : null;
+            if (!(item instanceof JSONObject)) {
+                results[index] = MessageResult.rejected(index, batch.get(i), null, "No result for this message");
+                continue;
+            }
+            final JSONObject result = (JSONObject) item;
+            final Object location = result.get("location");
+            if ("accepted".equals(result.get("result")) && location != null) {
+                results[index] = MessageResult.accepted(index, batch.get(i), location.toString());
+            } else {
+                final Object error = result.get("error");
+                final JSONObject details = error instanceof JSONObject ? (JSONObject) error : new JSONObject();
+                results[index] = MessageResult.rejected(index, batch.get(i), asString(details.get("code")),
+                        asString(details.get("message")));
+            }
+        }
+    }
+
+    private static String asString(final Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Fails the messages of a batch that have no result yet; those already read from the response keep theirs, so an
+     * accepted message is not reported as failed and sent again.
+     */
+    private static void fail(final List<Map<String, Object>> batch, final int from, final MessageResult[] results,
+                             final Exception e) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (results[from + i] == null) {
+                results[from + i] = MessageResult.failed(from + i, batch.get(i), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.bandwidth.sdk.model;
+
+import com.bandwidth.sdk.AppPlatformException;
+import com.bandwidth.sdk.BandwidthClient;
+import com.bandwidth.sdk.BandwidthConstants;
+import com.bandwidth.sdk.RestResponse;
+import com.bandwidth.sdk.callback.LatencyHistogram;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queue that paces outbound messages to the rates carriers accept, per sender number and for the whole account.
+ *
+ * Each "from" number has its own token bucket and FIFO queue, and an account-wide bucket caps the sum. A dispatcher
+ * thread sends the next message of whichever number gets its token first, so a number at its limit never holds back
+ * the messages of the others and the aggregate rate grows with the number of senders, up to the account rate.
+ * Messages are posted without blocking over the client's connection pool.
+ *
+ * <pre>
+ * MessageDispatchQueue queue = new MessageDispatchQueue(client, 1, 100);
+ * queue.setNumberRate("+18005551234", 25);
+ * Future&lt;MessageResult&gt; result = queue.send(params);
+ * </pre>
+ *
+ * Buckets hold a single token, so sends are spread evenly instead of bursting at the start of each second.
+ */
+public class MessageDispatchQueue {
+
+    public static final double DEFAULT_NUMBER_RATE = 1;
+
+    public static final double DEFAULT_GLOBAL_RATE = 100;
+
+    private final BandwidthClient client;
+    private final String uri;
+    private final double numberRate;
+    private final TokenBucket global;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, Sender> senders = new HashMap<String, Sender>();
+    private final Map<String, Double> numberRates = new HashMap<String, Double>();
+    private final PriorityQueue<Sender> ready = new PriorityQueue<Sender>(16, new Comparator<Sender>() {
+        @Override
+        public int compare(final Sender a, final Sender b) {
+            final long diff = a.readyAt - b.readyAt;
+            return diff < 0 ? -1 : diff > 0 ? 1 : 0;
+        }
+    });
+    private int depth;
+    private int sequence;
+    private boolean shutdown;
+
+    private final Thread dispatcher;
+
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * Creates a queue sending DEFAULT_NUMBER_RATE messages per second per number and DEFAULT_GLOBAL_RATE in all.
+     *
+     * @param client the client.
+     */
+    public MessageDispatchQueue(final BandwidthClient client) {
+        this(client, DEFAULT_NUMBER_RATE, DEFAULT_GLOBAL_RATE);
+    }
+
+    /**
+     * Creates a queue.
+     *
+     * @param client the client.
+     * @param numberRate the messages per second allowed from each sender number.
+     * @param globalRate the messages per second allowed for the account.
+     */
+    public MessageDispatchQueue(final BandwidthClient client, final double numberRate, final double globalRate) {
+        checkRate(numberRate);
+        checkRate(globalRate);
+        this.client = client;
+        this.uri = client.getUserResourceUri(BandwidthConstants.MESSAGES_URI_PATH);
+        this.numberRate = numberRate;
+        this.global = new TokenBucket(globalRate, System.nanoTime());
+        this.dispatcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatch();
+            }
+        }, "bandwidth-message-dispatch");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Sets the rate of one sender number, e.g. for toll-free or short code numbers allowed more than the default.
+     *
+     * @param from the sender number.
+     * @param rate the messages per second allowed from the number.
+     */
+    public void setNumberRate(final String from, final double rate) {
+        checkRate(rate);
+        lock.lock();
+        try {
+            numberRates.put(from, rate);
+            final Sender sender = senders.get(from);
+            if (sender != null) {
+                final long now = System.nanoTime();
+                sender.bucket = new TokenBucket(rate, now);
+                if (sender.scheduled) {
+                    // the turn taken at the old rate is rescheduled, so the new rate applies right away
+                    ready.remove(sender);
+                    sender.readyAt = now + sender.bucket.nanosUntilToken(now);
+                    ready.add(sender);
+                    changed.signal();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a message, see send(Map, FutureCallback).
+     *
+     * @param params the params of the message, as for Message.create().
+     * @return the future result of the message.
+     */
+    public Future<MessageResult> send(final Map<String, Object> params) {
+        return send(params, null);
+    }
+
+    /**
+     * Queues a message behind the others from the same number. The result completes when the API accepted or
+     * rejected the message; it never fails, errors are reported in the MessageResult.
+     *
+     * @param params the params of the message, as for Message.create(), with a "from" number.
+     * @param callback the callback notified on completion, may be null.
+     * @return the future result of the message.
+     */
+    public Future<MessageResult> send(final Map<String, Object> params,
+                                      final FutureCallback<MessageResult> callback) {
+        final Object from = params.get("from");
+        if (from == null) {
+            throw new IllegalArgumentException("params must have a from number");
+        }
+        final BasicFuture<MessageResult> future = new BasicFuture<MessageResult>(callback);
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new IllegalStateException("queue is shut down");
+            }
+            final long now = System.nanoTime();
+            Sender sender = senders.get(from.toString());
+            if (sender == null) {
+                final Double rate = numberRates.get(from.toString());
+                sender = new Sender(new TokenBucket(rate != null ? rate : numberRate, now));
+                senders.put(from.toString(), sender);
+            }
+            sender.queue.add(new Pending(sequence++ & Integer.MAX_VALUE, params, now, future));
+            depth++;
+            if (!sender.scheduled) {
+                sender.readyAt = now + sender.bucket.nanosUntilToken(now);
+                sender.scheduled = true;
+                ready.add(sender);
+            }
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        return future;
+    }
+
+    /**
+     * Returns the number of messages waiting for their turn.
+     *
+     * @return the queue depth.
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return depth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of messages from one sender number waiting for their turn.
+     *
+     * @param from the sender number.
+     * @return the queue depth of the number.
+     */
+    public int getQueueDepth(final String from) {
+        lock.lock();
+        try {
+            final Sender sender = senders.get(from);
+            return sender == null ? 0 : sender.queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the histogram of the time messages wait in the queue, from send() to their POST.
+     *
+     * @return the wait time.
+     */
+    public LatencyHistogram getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * Returns the number of messages accepted by the API.
+     *
+     * @return the sent count.
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * Returns the number of messages rejected by the API or that could not be posted.
+     *
+     * @return the failed count.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Stops accepting messages; the queued ones are still sent at the configured rates.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for the queued messages to be posted after shutdown().
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit the unit of the timeout.
+     * @return true if the queue is empty.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        dispatcher.join(Math.max(1, unit.toMillis(timeout)));
+        return !dispatcher.isAlive();
+    }
+
+    @Override
+    public String toString() {
+        return "MessageDispatchQueue{" +
+                "depth=" + getQueueDepth() +
+                ", sent=" + getSentCount() +
+                ", failed=" + getFailedCount() +
+                ", waitTime=" + waitTime +
+                '}';
+    }
+
+    private void dispatch() {
+        while (true) {
+            final Pending next;
+            try {
+                next = takeNext();
+            } catch (final InterruptedException e) {
+                return;
+            }
+            if (next == null) {
+                return;
+            }
+            post(next);
+        }
+    }
+
+    /**
+     * Waits for the sender number with the earliest token, and for the account's token, and takes its next message.
+     *
+     * @return the message to post, or null once shut down and empty.
+     */
+    private Pending takeNext() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                final Sender sender = ready.peek();
+                if (sender == null) {
+                    if (shutdown) {
+                        return null;
+                    }
+                    changed.await();
+                    continue;
+                }
+                final long now = System.nanoTime();
+                long wait = sender.readyAt - now;
+                if (wait <= 0) {
+                    wait = Math.max(sender.bucket.nanosUntilToken(now), global.nanosUntilToken(now));
+                }
+                if (wait > 0) {
+                    changed.awaitNanos(wait);
+                    continue;
+                }
+                ready.poll();
+                sender.bucket.take(now);
+                global.take(now);
+                final Pending pending = sender.queue.poll();
+                depth--;
+                if (sender.queue.isEmpty()) {
+                    sender.scheduled = false;
+                } else {
+                    sender.readyAt = now + sender.bucket.nanosUntilToken(now);
+                    ready.add(sender);
+                }
+                waitTime.recordSince(pending.enqueuedAt);
+                return pending;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void post(final Pending pending) {
+        final FutureCallback<RestResponse> callback = new FutureCallback<RestResponse>() {
+            @Override
+            public void completed(final RestResponse response) {
+                if (response.getLocation() == null) {
+                    // taken by the API, but without the id the message can't be reported as accepted
+                    failed(new AppPlatformException("Message posted without a Location in the response",
+                            response.getStatus()));
+                    return;
+                }
+                sent.incrementAndGet();
+                pending.future.completed(MessageResult.accepted(pending.index, pending.params,
+                        response.getLocation()));
+            }
+
+            @Override
+            public void failed(final Exception e) {
+                failed.incrementAndGet();
+                pending.future.completed(MessageResult.failed(pending.index, pending.params, e));
+            }
+
+            @Override
+            public void cancelled() {
+                failed(new IllegalStateException("Request cancelled"));
+            }
+        };
+        try {
+            client.postAsync(uri, pending.params, callback);
+        } catch (final RuntimeException e) {
+            callback.failed(e);
+        }
+    }
+
+    private static void checkRate(final double rate) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+    }
+
+    private static final class Sender {
+        final ArrayDeque<Pending> queue = new ArrayDeque<Pending>();
+        TokenBucket bucket;
+        long readyAt;
+        boolean scheduled;
+
+        Sender(final TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    private static final class Pending {
+        final int index;
+        final Map<String, Object> params;
+        final long enqueuedAt;
+        final BasicFuture<MessageResult> future;
+
+        Pending(final int index, final Map<String, Object> params, final long enqueuedAt,
+                final BasicFuture<MessageResult> future) {
+            this.index = index;
+            this.params = params;
+            this.enqueuedAt = enqueuedAt;
+            this.future = future;
+        }
+    }
+
+    /**
+     * Token bucket holding a single token, refilled at a fixed rate. Not thread-safe, used under the queue lock.
+     */
+    static final class TokenBucket {
+        private final double tokensPerNano;
+        private double tokens = 1;
+        private long last;
+
+        TokenBucket(final double ratePerSecond, final long now) {
+            this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.last = now;
+        }
+
+        long nanosUntilToken(final long now) {
+            refill(now);
+            return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        void take(final long now) {
+            refill(now);
+            tokens -= 1;
+        }
+
+        private void refill(final long now) {
+            tokens = Math.min(1, tokens + (now - last) * tokensPerNano);
+            last = now;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.bandwidth.sdk.model;
+
+import java.util.Map;
+
+/**
+ * The outcome of one message of a batch sent with Message.createAll() or a MessageBatchSender, or of a message sent
+ * through a MessageDispatchQueue: the id of the accepted message, or why it was not sent.
+ */
+public class MessageResult {
+
+    private final int index;
+    private final Map<String, Object> params;
+    private final String location;
+    private final String errorCode;
+    private final String errorMessage;
+    private final Exception exception;
+
+    private MessageResult(final int index, final Map<String, Object> params, final String location,
+                          final String errorCode, final String errorMessage, final Exception exception) {
+        this.index = index;
+        this.params = params;
+        this.location = location;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+        this.exception = exception;
+    }
+
+    static MessageResult accepted(final int index, final Map<String, Object> params, final String location) {
+        return new MessageResult(index, params, location, null, null, null);
+    }
+
+    static MessageResult rejected(final int index, final Map<String, Object> params, final String errorCode,
+                                  final String errorMessage) {
+        return new MessageResult(index, params, null, errorCode, errorMessage, null);
+    }
+
+    static MessageResult failed(final int index, final Map<String, Object> params, final Exception exception) {
+        return new MessageResult(index, params, null, null, exception.getMessage(), exception);
+    }
+
+    /**
+     * Returns the position of the message in the batch, or in the order messages were queued on a
+     * MessageDispatchQueue.
+     *
+     * @return the index.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the params the message was sent with.
+     *
+     * @return the params.
+     */
+    public Map<String, Object> getParams() {
+        return params;
+    }
+
+    public boolean isAccepted() {
+        return location != null;
+    }
+
+    /**
+     * Returns the id of the accepted message.
+     *
+     * @return the id, or null if the message was not accepted.
+     */
+    public String getId() {
+        return location == null ? null : location.substring(location.lastIndexOf('/') + 1);
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Returns the error code the API rejected the message with, such as "blocked-number".
+     *
+     * @return the code, or null if the message was accepted or the request failed.
+     */
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Returns the exception that failed the request carrying the message, for transport or authentication errors.
+     *
+     * @return the exception, or null.
+     */
+    public Exception getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return "MessageResult{" +
+                "index=" + index +
+                (isAccepted() ? ", id='" + getId() + '\'' : ", errorCode='" + errorCode + '\''
+                        + ", errorMessage='" + errorMessage + '\'') +
+                '}';
+    }
+}
@@ -0,0 +1,866 @@
+package com.bandwidth.sdk.model;
+
+import com.bandwidth.sdk.AppPlatformException;
+import com.bandwidth.sdk.BandwidthClient;
+import com.bandwidth.sdk.RetryPolicy;
+import com.bandwidth.sdk.callback.LatencyHistogram;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of outbound messages, so the messages not yet accepted by the API survive a restart.
+ *
+ * Each message is logged before it is sent and acknowledged once the API accepted it, or rejected it for good; on
+ * the next start the messages logged but never acknowledged are sent again. A failure is retryable, and leaves the
+ * message pending, when it may pass later: a network or server error, a 408 or 429, whose Retry-After is honored, or
+ * a 401 or 403, which depend on the credentials rather than on the message. Messages go through a
+ * MessageDispatchQueue, which retries them with a backoff, or are sent right away with
+ * Message.create(client, params, spool):
+ *
+ * <pre>
+ * MessageSpool spool = new MessageSpool(new File("/var/spool/messages"));
+ * spool.resume(queue);
+ * Future&lt;MessageResult&gt; result = spool.send(queue, params);
+ * Message message = Message.create(client, params, spool);
+ * </pre>
+ *
+ * Delivery is at least once: a message accepted just before a crash, before its acknowledgement was logged, is sent
+ * again.
+ *
+ * The log is a directory of segment files, each starting with a magic number and a version, followed by the records:
+ *
+ * <pre>
+ * byte   type, ENQUEUE or ACK
+ * long   spool id of the message
+ * int    payload length in bytes
+ * byte[] payload, UTF-8: the message params as json for ENQUEUE, the message id, if any, for ACK
+ * int    CRC-32 of the fields above
+ * </pre>
+ *
+ * Records are written as they come and forced to disk by a committer thread, which covers all the records written
+ * during the previous sync with a single one (group commit); enqueue() returns once its record is on disk. A commit
+ * interval makes the committer wait before each sync to gather more records, trading latency for fewer syncs. A
+ * segment is deleted once all its messages and those of the older segments are acknowledged. So that a message that
+ * keeps failing doesn't hold back the deletion of all the segments after it, each roll logs the messages still
+ * pending in the oldest segment again in the new one. A torn record at the end of a segment, left by a crash during
+ * a write, ends the segment on recovery.
+ */
+public class MessageSpool implements Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    public static final long DEFAULT_RETRY_DELAY_MILLIS = 1000;
+
+    public static final long DEFAULT_MAX_RETRY_DELAY_MILLIS = 60000;
+
+    private final static Logger LOG = LoggerFactory.getLogger(MessageSpool.class);
+
+    static final int MAGIC = 0x4253504c;
+    static final int VERSION = 1;
+    static final int SEGMENT_HEADER_SIZE = 8;
+    static final int RECORD_OVERHEAD = 1 + 8 + 4 + 4;
+
+    static final byte ENQUEUE = 1;
+    static final byte ACK = 2;
+
+    static final String SEGMENT_SUFFIX = ".spool";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File directory;
+    private final int segmentSize;
+    private final long commitIntervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+
+    private RandomAccessFile file;
+    private FileChannel channel;
+    private long segment;
+    private long nextId;
+    private long writtenRecords;
+    private long syncedRecords;
+    private IOException syncFailure;
+    private boolean closed;
+
+    private final LinkedHashMap<Long, Map<String, Object>> pending = new LinkedHashMap<Long, Map<String, Object>>();
+    private final Map<Long, Long> segmentOf = new HashMap<Long, Long>();
+    private final TreeMap<Long, Integer> liveRecords = new TreeMap<Long, Integer>();
+    private final List<Long> recovered;
+
+    private long enqueued;
+    private long commits;
+    private final LatencyHistogram syncLatency = new LatencyHistogram();
+
+    private final Thread committer;
+
+    private volatile int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private volatile long retryDelayNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_RETRY_DELAY_MILLIS);
+    private volatile long maxRetryDelayNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MAX_RETRY_DELAY_MILLIS);
+    private final ScheduledExecutorService retrier;
+    private final Set<Retry> retrying = Collections.newSetFromMap(new ConcurrentHashMap<Retry, Boolean>());
+    private final AtomicLong retries = new AtomicLong();
+    private final Random random = new Random();
+
+    /**
+     * Opens a spool with DEFAULT_SEGMENT_SIZE segments, syncing as soon as records are written.
+     *
+     * @param directory the directory of the segments, created if needed.
+     * @throws IOException if the spool can't be read or a segment can't be created.
+     */
+    public MessageSpool(final File directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a spool and recovers the messages that were not acknowledged.
+     *
+     * @param directory the directory of the segments, created if needed.
+     * @param segmentSize the size a segment is rolled at.
+     * @param commitInterval how long the committer gathers records before each sync, 0 to sync right away.
+     * @param unit the unit of the commit interval.
+     * @throws IOException if the spool can't be read or a segment can't be created.
+     */
+    public MessageSpool(final File directory, final int segmentSize, final long commitInterval, final TimeUnit unit)
+            throws IOException {
+        if (segmentSize <= SEGMENT_HEADER_SIZE + RECORD_OVERHEAD) {
+            throw new IllegalArgumentException("segmentSize is too small");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create spool directory " + directory);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.commitIntervalNanos = unit.toNanos(commitInterval);
+
+        final File[] segments = listSegments(directory);
+        for (final File file : segments) {
+            recover(file);
+        }
+        this.recovered = new ArrayList<Long>(pending.keySet());
+        openSegment(segments.length == 0 ? 0 : sequenceOf(segments[segments.length - 1]) + 1);
+        deleteAcknowledgedSegments();
+
+        this.committer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                commit();
+            }
+        }, "bandwidth-spool-" + directory.getName());
+        committer.setDaemon(true);
+        committer.start();
+
+        this.retrier = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                final Thread thread = new Thread(r, "bandwidth-spool-retry-" + directory.getName());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Sets the number of times a message sent through a queue is attempted before it is left for the next start.
+     *
+     * @param maxAttempts the attempts, 1 not to retry.
+     * @return this spool.
+     */
+    public MessageSpool setMaxAttempts(final int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Sets the backoff between attempts: the delay doubles from the base delay up to the maximum, and each retry
+     * waits a random time between half that delay and the full delay.
+     *
+     * @param delay the base delay.
+     * @param maxDelay the maximum delay.
+     * @param unit the unit of both delays.
+     * @return this spool.
+     */
+    public MessageSpool setRetryDelays(final long delay, final long maxDelay, final TimeUnit unit) {
+        if (delay < 0 || maxDelay < delay) {
+            throw new IllegalArgumentException("delays must satisfy 0 <= delay <= maxDelay");
+        }
+        this.retryDelayNanos = unit.toNanos(delay);
+        this.maxRetryDelayNanos = unit.toNanos(maxDelay);
+        return this;
+    }
+
+    /**
+     * Logs a message to be sent and waits for the record to be on disk.
+     *
+     * @param params the params of the message, as for Message.create().
+     * @return the spool id of the message, to acknowledge it with.
+     * @throws IOException if the record can't be written or synced.
+     */
+    public long enqueue(final Map<String, Object> params) throws IOException {
+        final byte[] payload = JSONObject.toJSONString(params).getBytes(UTF_8);
+        lock.lock();
+        try {
+            final long id = nextId++;
+            final long record = append(ENQUEUE, id, payload);
+            pending.put(id, params);
+            segmentOf.put(id, segment);
+            liveRecords.put(segment, liveRecords.get(segment) + 1);
+            enqueued++;
+            awaitSync(record);
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Logs that a message was accepted or rejected for good and must not be sent again. The record is synced with
+     * the next commit; this doesn't wait for it.
+     *
+     * @param id the spool id of the message.
+     * @param messageId the id the API gave the message, or null if it was rejected.
+     * @throws IOException if the record can't be written.
+     */
+    public void ack(final long id, final String messageId) throws IOException {
+        lock.lock();
+        try {
+            if (pending.remove(id) == null) {
+                return;
+            }
+            // counted out before the append, which may roll and move the messages of the oldest segment
+            final Long owner = segmentOf.remove(id);
+            liveRecords.put(owner, liveRecords.get(owner) - 1);
+            append(ACK, id, messageId != null ? messageId.getBytes(UTF_8) : new byte[0]);
+            deleteAcknowledgedSegments();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Logs a message and queues it, see send(MessageDispatchQueue, Map, FutureCallback).
+     *
+     * @param queue the queue the message is sent through.
+     * @param params the params of the message, as for Message.create().
+     * @return the future result of the message.
+     * @throws IOException if the message can't be logged.
+     */
+    public Future<MessageResult> send(final MessageDispatchQueue queue, final Map<String, Object> params)
+            throws IOException {
+        return send(queue, params, null);
+    }
+
+    /**
+     * Logs a message and queues it. The message is acknowledged when the API accepts it or rejects it for good.
+     * After a retryable failure it is queued again with a backoff, or after the Retry-After of the response if
+     * longer, up to the maximum attempts; if they all fail, the future completes with the last failure and the
+     * message stays pending, to be sent again by resume() on the next start.
+     *
+     * @param queue the queue the message is sent through.
+     * @param params the params of the message, as for Message.create().
+     * @param callback the callback notified on completion, may be null.
+     * @return the future result of the message.
+     * @throws IOException if the message can't be logged.
+     */
+    public Future<MessageResult> send(final MessageDispatchQueue queue, final Map<String, Object> params,
+                                      final FutureCallback<MessageResult> callback) throws IOException {
+        return dispatch(queue, enqueue(params), params, callback);
+    }
+
+    /**
+     * Logs a message and sends it on the calling thread, as Message.createLazy() does. The message is acknowledged
+     * when the API accepts it or rejects it for good; after a retryable failure it stays pending, to be sent again
+     * by resume() on the next start.
+     *
+     * @param client the client.
+     * @param params the params of the message.
+     * @return a lazy handle of the message.
+     * @throws Exception if the message can't be logged or sent.
+     */
+    public Message create(final BandwidthClient client, final Map<String, Object> params) throws Exception {
+        final long id = enqueue(params);
+        final Message message;
+        try {
+            message = Message.createLazy(client, params);
+        } catch (final AppPlatformException e) {
+            if (!isRetryable(e.getStatus())) {
+                ack(id, null);
+            }
+            throw e;
+        }
+        ack(id, message.getId());
+        return message;
+    }
+
+    /**
+     * Queues the messages recovered when the spool was opened, in the order they were logged. Each is sent once,
+     * however many times this is called.
+     *
+     * @param queue the queue the messages are sent through.
+     * @return the future results of the messages.
+     */
+    public List<Future<MessageResult>> resume(final MessageDispatchQueue queue) {
+        final List<Long> ids;
+        synchronized (recovered) {
+            ids = new ArrayList<Long>(recovered);
+            recovered.clear();
+        }
+        final List<Future<MessageResult>> results = new ArrayList<Future<MessageResult>>(ids.size());
+        for (final Long id : ids) {
+            final Map<String, Object> params;
+            lock.lock();
+            try {
+                params = pending.get(id);
+            } finally {
+                lock.unlock();
+            }
+            if (params != null) {
+                results.add(dispatch(queue, id, params, null));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the messages logged and not acknowledged, in the order they were logged.
+     *
+     * @return a copy of the params of the pending messages by spool id.
+     */
+    public Map<Long, Map<String, Object>> getPending() {
+        lock.lock();
+        try {
+            return new LinkedHashMap<Long, Map<String, Object>>(pending);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of messages logged since the spool was opened.
+     *
+     * @return the enqueue count.
+     */
+    public long getEnqueueCount() {
+        lock.lock();
+        try {
+            return enqueued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of syncs since the spool was opened; with concurrent senders it grows much slower than the
+     * enqueue count.
+     *
+     * @return the commit count.
+     */
+    public long getCommitCount() {
+        lock.lock();
+        try {
+            return commits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of times messages sent through a queue were queued again after a failure.
+     *
+     * @return the retry count.
+     */
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    /**
+     * Returns the histogram of the time each sync takes.
+     *
+     * @return the sync latency.
+     */
+    public LatencyHistogram getSyncLatency() {
+        return syncLatency;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Syncs the records written so far and closes the spool. Messages waiting for a retry are left pending, and
+     * their futures complete with their last failure.
+     *
+     * @throws IOException if the last records can't be synced.
+     */
+    @Override
+    public void close() throws IOException {
+        retrier.shutdownNow();
+        for (final Retry retry : retrying) {
+            retry.giveUp();
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            written.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            channel.force(false);
+            file.close();
+            syncedRecords = writtenRecords;
+            synced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Future<MessageResult> dispatch(final MessageDispatchQueue queue, final long id,
+                                           final Map<String, Object> params,
+                                           final FutureCallback<MessageResult> callback) {
+        final BasicFuture<MessageResult> future = new BasicFuture<MessageResult>(callback);
+        attempt(queue, id, params, future, 1);
+        return future;
+    }
+
+    private void attempt(final MessageDispatchQueue queue, final long id, final Map<String, Object> params,
+                         final BasicFuture<MessageResult> future, final int attempt) {
+        queue.send(params, new FutureCallback<MessageResult>() {
+            @Override
+            public void completed(final MessageResult result) {
+                if (result.isAccepted() || !isRetryable(result)) {
+                    try {
+                        ack(id, result.getId());
+                    } catch (final IOException e) {
+                        // the message stays pending and is sent again on the next start
+                        LOG.warn("Failed to acknowledge spooled message " + id + ".", e);
+                    }
+                } else if (attempt < maxAttempts && retry(new Retry(queue, id, params, future, attempt + 1, result))) {
+                    return;
+                }
+                future.completed(result);
+            }
+
+            @Override
+            public void failed(final Exception e) {
+                future.failed(e);
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel();
+            }
+        });
+    }
+
+    /**
+     * Schedules a retry after the backoff delay of its attempt.
+     *
+     * @return false if the spool is closed.
+     */
+    private boolean retry(final Retry retry) {
+        final long delay = Math.min(maxRetryDelayNanos, retryDelayNanos << Math.min(retry.attempt - 2, 30));
+        long jittered;
+        synchronized (random) {
+            jittered = delay / 2 + (long) (random.nextDouble() * (delay - delay / 2));
+        }
+        final Exception failure = retry.last.getException();
+        if (failure instanceof AppPlatformException && ((AppPlatformException) failure).getRetryAfter() != null) {
+            final long requested = RetryPolicy.parseRetryAfter(((AppPlatformException) failure).getRetryAfter(),
+                    System.currentTimeMillis());
+            jittered = Math.max(jittered, TimeUnit.MILLISECONDS.toNanos(requested));
+        }
+        retrying.add(retry);
+        try {
+            retrier.schedule(retry, jittered, TimeUnit.NANOSECONDS);
+        } catch (final RejectedExecutionException e) {
+            retrying.remove(retry);
+            return false;
+        }
+        retries.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Returns whether a message that was not accepted may be accepted if sent again. A result without an exception
+     * was rejected with an error code, which sending again doesn't change.
+     */
+    private static boolean isRetryable(final MessageResult result) {
+        final Exception e = result.getException();
+        if (e == null) {
+            return false;
+        }
+        return !(e instanceof AppPlatformException) || isRetryable(((AppPlatformException) e).getStatus());
+    }
+
+    /**
+     * Returns whether an error status may pass later: server errors, timeouts and throttling, and the 401 and 403
+     * of credentials being rotated or an account being restored. The other statuses, including the 2xx of a message
+     * taken without a Location, are final.
+     */
+    private static boolean isRetryable(final int status) {
+        return status >= 500 || status == 408 || status == 429 || status == 401 || status == 403;
+    }
+
+    /**
+     * Writes a record, rolling the segment if it doesn't fit. Called with the lock held.
+     *
+     * @return the number of the record, for awaitSync().
+     */
+    private long append(final byte type, final long id, final byte[] payload) throws IOException {
+        if (closed) {
+            throw new IOException("Spool is closed");
+        }
+        final int length = RECORD_OVERHEAD + payload.length;
+        if (channel.position() > SEGMENT_HEADER_SIZE && channel.position() + length > segmentSize) {
+            roll();
+        }
+        return write(type, id, payload);
+    }
+
+    /**
+     * Writes a record to the current segment. Called with the lock held.
+     *
+     * @return the number of the record, for awaitSync().
+     */
+    private long write(final byte type, final long id, final byte[] payload) throws IOException {
+        final int length = RECORD_OVERHEAD + payload.length;
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.put(type).putLong(id).putInt(payload.length).put(payload);
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, length - 4);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        written.signal();
+        return ++writtenRecords;
+    }
+
+    private void awaitSync(final long record) throws IOException {
+        while (syncedRecords < record) {
+            if (syncFailure != null) {
+                throw new IOException("Spool sync failed", syncFailure);
+            }
+            synced.awaitUninterruptibly();
+        }
+    }
+
+    /**
+     * Committer loop: syncs whatever was written since the last sync and wakes up the writers it covers.
+     */
+    private void commit() {
+        while (true) {
+            final long target;
+            final FileChannel current;
+            lock.lock();
+            try {
+                while (writtenRecords == syncedRecords && !closed) {
+                    written.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (commitIntervalNanos > 0) {
+                LockSupport.parkNanos(commitIntervalNanos);
+            }
+            lock.lock();
+            try {
+                target = writtenRecords;
+                current = channel;
+            } finally {
+                lock.unlock();
+            }
+
+            final long start = System.nanoTime();
+            IOException failure = null;
+            try {
+                current.force(false);
+            } catch (final ClosedChannelException e) {
+                // rolled meanwhile, which synced the segment
+            } catch (final IOException e) {
+                failure = e;
+            }
+            syncLatency.recordSince(start);
+
+            lock.lock();
+            try {
+                if (failure != null) {
+                    syncFailure = failure;
+                } else if (target > syncedRecords) {
+                    syncedRecords = target;
+                }
+                commits++;
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Syncs and closes the current segment and opens the next one, then moves the messages still pending in the
+     * oldest segment to it. Called with the lock held.
+     */
+    private void roll() throws IOException {
+        channel.force(false);
+        file.close();
+        syncedRecords = writtenRecords;
+        synced.signalAll();
+        openSegment(segment + 1);
+        relogOldest();
+    }
+
+    /**
+     * Logs the messages pending in the oldest segment again in the current one and deletes it, if they take at most
+     * half a segment: a few messages that keep failing are moved along, a backlog of unsent ones is left in place
+     * rather than copied on every roll. The new records are synced before the segment is deleted, so that a message
+     * is always on disk. Called with the lock held.
+     */
+    private void relogOldest() throws IOException {
+        final long oldest = liveRecords.firstKey();
+        if (oldest == segment) {
+            return;
+        }
+        final Map<Long, byte[]> moved = new LinkedHashMap<Long, byte[]>();
+        long length = 0;
+        for (final Map.Entry<Long, Map<String, Object>> message : pending.entrySet()) {
+            if (segmentOf.get(message.getKey()) == oldest) {
+                final byte[] payload = JSONObject.toJSONString(message.getValue()).getBytes(UTF_8);
+                length += RECORD_OVERHEAD + payload.length;
+                if (length > segmentSize / 2) {
+                    return;
+                }
+                moved.put(message.getKey(), payload);
+            }
+        }
+        for (final Map.Entry<Long, byte[]> message : moved.entrySet()) {
+            write(ENQUEUE, message.getKey(), message.getValue());
+            segmentOf.put(message.getKey(), segment);
+        }
+        liveRecords.put(oldest, 0);
+        liveRecords.put(segment, liveRecords.get(segment) + moved.size());
+        channel.force(false);
+        syncedRecords = writtenRecords;
+        synced.signalAll();
+        deleteAcknowledgedSegments();
+    }
+
+    private void openSegment(final long sequence) throws IOException {
+        file = new RandomAccessFile(segmentFile(directory, sequence), "rw");
+        file.setLength(0);
+        channel = file.getChannel();
+        final ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        segment = sequence;
+        liveRecords.put(sequence, 0);
+    }
+
+    /**
+     * Deletes the oldest segments as long as all their messages are acknowledged. Only a prefix is deleted, so the
+     * ACK records of the segments kept are kept too. Called with the lock held.
+     */
+    private void deleteAcknowledgedSegments() {
+        while (liveRecords.size() > 1 && liveRecords.firstEntry().getValue() == 0) {
+            final long sequence = liveRecords.pollFirstEntry().getKey();
+            final File file = segmentFile(directory, sequence);
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Replays a segment into the pending messages.
+     */
+    @SuppressWarnings("unchecked")
+    private void recover(final File file) throws IOException {
+        final long sequence = sequenceOf(file);
+        final ByteBuffer buffer;
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            buffer = ByteBuffer.allocate((int) raf.length());
+            final FileChannel in = raf.getChannel();
+            while (buffer.hasRemaining() && in.read(buffer) >= 0) {
+                // read it all
+            }
+            buffer.flip();
+        } finally {
+            raf.close();
+        }
+        if (buffer.remaining() < SEGMENT_HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a spool segment: " + file);
+        }
+        liveRecords.put(sequence, 0);
+        final CRC32 crc = new CRC32();
+        final JSONParser parser = new JSONParser();
+        while (buffer.remaining() >= RECORD_OVERHEAD) {
+            final int start = buffer.position();
+            final byte type = buffer.get();
+            final long id = buffer.getLong();
+            final int length = buffer.getInt();
+            if ((type != ENQUEUE && type != ACK) || length < 0 || length > buffer.remaining() - 4) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.array(), start, RECORD_OVERHEAD - 4 + length);
+            final byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (buffer.getInt() != (int) crc.getValue()) {
+                break;
+            }
+            nextId = Math.max(nextId, id + 1);
+            if (type == ENQUEUE) {
+                try {
+                    pending.put(id, (Map<String, Object>) parser.parse(new String(payload, UTF_8)));
+                } catch (final ParseException e) {
+                    throw new IOException("Corrupt message " + id + " in " + file, e);
+                }
+                // a message logged again by a roll counts in the segment of its latest record only
+                final Long previous = segmentOf.put(id, sequence);
+                if (previous != null) {
+                    liveRecords.put(previous, liveRecords.get(previous) - 1);
+                }
+                liveRecords.put(sequence, liveRecords.get(sequence) + 1);
+            } else if (pending.remove(id) != null) {
+                final Long owner = segmentOf.remove(id);
+                liveRecords.put(owner, liveRecords.get(owner) - 1);
+            }
+        }
+    }
+
+    /**
+     * A message waiting to be queued again after a failure.
+     */
+    private final class Retry implements Runnable {
+        final MessageDispatchQueue queue;
+        final long id;
+        final Map<String, Object> params;
+        final BasicFuture<MessageResult> future;
+        final int attempt;
+        final MessageResult last;
+
+        Retry(final MessageDispatchQueue queue, final long id, final Map<String, Object> params,
+              final BasicFuture<MessageResult> future, final int attempt, final MessageResult last) {
+            this.queue = queue;
+            this.id = id;
+            this.params = params;
+            this.future = future;
+            this.attempt = attempt;
+            this.last = last;
+        }
+
+        @Override
+        public void run() {
+            if (!retrying.remove(this)) {
+                return;
+            }
+            try {
+                attempt(queue, id, params, future, attempt);
+            } catch (final IllegalStateException e) {
+                // the queue was shut down
+                future.completed(last);
+            }
+        }
+
+        void giveUp() {
+            if (retrying.remove(this)) {
+                future.completed(last);
+            }
+        }
+    }
+
+    static File segmentFile(final File directory, final long sequence) {
+        return new File(directory, String.format("messages-%020d%s", sequence, SEGMENT_SUFFIX));
+    }
+
+    static long sequenceOf(final File segment) {
+        final String name = segment.getName();
+        return Long.parseLong(name.substring("messages-".length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Returns the segments of a spool in the order they were written.
+     */
+    static File[] listSegments(final File directory) {
+        final File[] segments = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(final File dir, final String name) {
+                return name.startsWith("messages-") && name.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+        if (segments == null) {
+            return new File[0];
+        }
+        Arrays.sort(segments);
+        return segments;
+    }
+}
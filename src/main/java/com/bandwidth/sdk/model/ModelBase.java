@@ -19,21 +19,35 @@ import java.util.Map;
 public abstract class ModelBase {
     protected static final DateTimeFormatter dateFormat = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ssZ");
 
-    protected final Map<String, Object> properties = new HashMap<String, Object>();
+    /**
+     * The model fields as returned by the API, in a compact map (see PropertyMap). Typed getters cache what they
+     * derive from it, so a date is parsed once per value.
+     */
+    protected final Map<String, Object> properties = new PropertyMap();
 
     protected void updateProperties(final JSONObject jsonObject) {
         if (jsonObject != null) {
+            ((PropertyMap) properties).ensureCapacity(properties.size() + jsonObject.size());
             for (final Object key : jsonObject.keySet()) {
                 properties.put(key.toString(), jsonObject.get(key));
             }
         }
     }
 
+    /**
+     * Hook called before the properties are read or written, lets a resource that was created as a lazy handle
+     * load its fields on first access.
+     */
+    protected void ensureHydrated() {
+    }
+
     protected String getPropertyAsString(final String key) {
+        ensureHydrated();
         return (String) properties.get(key);
     }
 
     protected String[] getPropertyAsStringArray(final String key) {
+        ensureHydrated();
         if (properties.containsKey(key)) {
             @SuppressWarnings("unchecked")
             final
@@ -51,10 +65,12 @@ public abstract class ModelBase {
     }
 
     protected Object getProperty(final String key) {
+        ensureHydrated();
         return properties.get(key);
     }
 
     protected Boolean getPropertyAsBoolean(final String key) {
+        ensureHydrated();
         final Object o = properties.get(key);
         if (o == null) return null;
 
@@ -62,31 +78,51 @@ public abstract class ModelBase {
     }
 
     protected Long getPropertyAsLong(final String key) {
+        ensureHydrated();
         return (Long) properties.get(key);
     }
 
     protected Double getPropertyAsDouble(final String key) {
+        ensureHydrated();
         final Object o = properties.get(key);
-        return (o instanceof Double) ? (Double) o : Double.parseDouble(o.toString());
+        if (o instanceof Double) return (Double) o;
+
+        final PropertyMap map = (PropertyMap) properties;
+        final Object parsed = map.getTyped(key, o);
+        if (parsed instanceof Double) return (Double) parsed;
+
+        final Double d = Double.parseDouble(o.toString());
+        map.putTyped(key, o, d);
+        return d;
     }
 
     protected Date getPropertyAsDate(final String key) {
+        ensureHydrated();
         final Object o = properties.get(key);
         if (o == null) return null;
         if (o instanceof Long) return new Date((Long) o);
 
+        // the parsed time is cached as millis, Date is mutable so every call gets its own copy
+        final PropertyMap map = (PropertyMap) properties;
+        final Object parsed = map.getTyped(key, o);
+        if (parsed instanceof Long) return new Date((Long) parsed);
+
         try {
-            return dateFormat.parseDateTime(o.toString()).toDate();
+            final long millis = dateFormat.parseDateTime(o.toString()).getMillis();
+            map.putTyped(key, o, millis);
+            return new Date(millis);
         } catch (final IllegalArgumentException e) {
             throw new RuntimeException(e);
         }
     }
 
     protected void putProperty(final String key, final Object value) {
+        ensureHydrated();
         properties.put(key, value);
     }
 
     protected Map<String, Object> toMap() {
+        ensureHydrated();
         final Map<String, Object> map = new HashMap<String, Object>();
 
         for (final String key : properties.keySet()) {
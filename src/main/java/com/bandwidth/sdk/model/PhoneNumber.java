@@ -4,12 +4,14 @@ import com.bandwidth.sdk.AppPlatformException;
 import com.bandwidth.sdk.BandwidthClient;
 import com.bandwidth.sdk.BandwidthConstants;
 import com.bandwidth.sdk.RestResponse;
+import org.apache.http.concurrent.FutureCallback;
 import org.json.simple.JSONObject;
 
 import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 /**
  * Information about your phone number.
@@ -19,6 +21,43 @@ import java.util.Map;
 public class PhoneNumber extends ResourceBase {
 
     
+    /**
+     * Returns a phone number, without blocking the calling thread.
+     * @param client the client
+     * @param phoneNumberId the phone number id
+     * @param callback the callback notified on completion, may be null
+     * @return the future phoneNumber
+     */
+    public static Future<PhoneNumber> getAsync(final BandwidthClient client, final String phoneNumberId, final FutureCallback<PhoneNumber> callback) {
+        final String uri = client.getUserResourceInstanceUri(BandwidthConstants.PHONE_NUMBER_URI_PATH, phoneNumberId);
+        return AsyncResources.get(client, uri, PhoneNumber.class, callback);
+    }
+
+    /**
+     * Allocates a phone number without blocking the calling thread. The follow-up retrieval of the new resource is chained on the
+     * non-blocking client as well.
+     * @param params the params
+     * @param callback the callback notified on completion, may be null
+     * @return the future phoneNumber
+     */
+    public static Future<PhoneNumber> createAsync(final Map<String, Object> params, final FutureCallback<PhoneNumber> callback) {
+        return createAsync(BandwidthClient.getInstance(), params, callback);
+    }
+
+    /**
+     * Allocates a phone number without blocking the calling thread. The follow-up retrieval of the new resource is chained on the
+     * non-blocking client as well.
+     * @param client the client
+     * @param params the params
+     * @param callback the callback notified on completion, may be null
+     * @return the future phoneNumber
+     */
+    public static Future<PhoneNumber> createAsync(final BandwidthClient client, final Map<String, Object> params,
+                                    final FutureCallback<PhoneNumber> callback) {
+        final String uri = client.getUserResourceUri(BandwidthConstants.PHONE_NUMBER_URI_PATH);
+        return AsyncResources.create(client, uri, params, PhoneNumber.class, callback);
+    }
+
     public PhoneNumber(final BandwidthClient client, final JSONObject jsonObject){
         super(client, jsonObject);
 
@@ -84,6 +123,33 @@ public class PhoneNumber extends ResourceBase {
         final JSONObject jsonObject = toJSONObject(getResponse);
         return new PhoneNumber(client, jsonObject);
     }
+
+    /**
+     * Allocates a phone number and returns a lazy handle instead of retrieving the new phone number right away, saving a request.
+     * The handle holds the id and the params that were sent; the other fields are loaded on first access or
+     * by refresh().
+     * @param params the phone number params
+     * @return the phone number handle
+     * @throws Exception unexpected error.
+     */
+    public static PhoneNumber createLazy(final Map<String, Object> params) throws Exception {
+        return createLazy(BandwidthClient.getInstance(), params);
+    }
+
+    /**
+     * Allocates a phone number and returns a lazy handle instead of retrieving the new phone number right away, saving a request.
+     * The handle holds the id and the params that were sent; the other fields are loaded on first access or
+     * by refresh().
+     * @param client the client
+     * @param params the phone number params
+     * @return the phone number handle
+     * @throws Exception unexpected error.
+     */
+    public static PhoneNumber createLazy(final BandwidthClient client, final Map<String, Object> params) throws Exception {
+        final String uri = client.getUserResourceUri(BandwidthConstants.PHONE_NUMBER_URI_PATH);
+        final RestResponse response = client.post(uri, params);
+        return createLazy(client, PhoneNumber.class, response.getLocation(), params);
+    }
     
     
     /**
@@ -153,11 +219,7 @@ public class PhoneNumber extends ResourceBase {
         final String fallbackNumber = getFallbackNumber();
         if (fallbackNumber != null) params.put("fallbackNumber", fallbackNumber);
 
-        final String uri = getUri();
-        client.post(uri, params);
-
-        final JSONObject object = toJSONObject(client.get(uri, null));
-        updateProperties(object);
+        postUpdate(params, params);
     }
 
     /**
@@ -0,0 +1,346 @@
+package com.bandwidth.sdk.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact property storage behind ModelBase. The API returns a dozen or so fields per resource, so the properties are
+ * kept in parallel arrays instead of a HashMap with an entry object per field. Keys are shared between all instances,
+ * as are the values of the enum-like fields (state, direction, ...), and each property has a slot for a typed value
+ * derived from it (e.g. a parsed date) so that getters don't re-parse on every call. A typed value is only served
+ * for the exact value it was derived from, so a getter racing with an update can't leave a stale one behind.
+ */
+final class PropertyMap extends AbstractMap<String, Object> {
+
+    /**
+     * Fields whose values come from a small fixed set, stored as shared instances.
+     */
+    private static final Set<String> ENUM_KEYS = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(
+            "state", "direction", "eventType", "status", "callState", "numberState", "deliveryState", "deliveryCode",
+            "cause", "reason", "type", "category", "productType", "recordingFileFormat", "transcriptionStatus")));
+
+    /**
+     * Upper bound of each canonical table, so that unexpected data can't grow them without limit.
+     */
+    private static final int MAX_CANONICAL = 4096;
+
+    private static final ConcurrentHashMap<String, String> KEYS = new ConcurrentHashMap<String, String>();
+    private static final ConcurrentHashMap<String, String> VALUES = new ConcurrentHashMap<String, String>();
+
+    private static final String[] NO_KEYS = new String[0];
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private String[] keys = NO_KEYS;
+    private Object[] values = NO_VALUES;
+    private Object[] typed;
+    private int size;
+    private int modCount;
+
+    private transient Set<Map.Entry<String, Object>> entrySet;
+
+    /**
+     * Makes room for the given number of properties, avoiding repeated growth when the size is known up front.
+     *
+     * @param capacity the expected number of properties.
+     */
+    void ensureCapacity(final int capacity) {
+        if (capacity > keys.length) {
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            if (typed != null) {
+                typed = Arrays.copyOf(typed, capacity);
+            }
+        }
+    }
+
+    /**
+     * Returns the typed value cached for a property.
+     *
+     * @param key the property name.
+     * @param source the current value of the property.
+     * @return the typed value, or null if none was cached for that value.
+     */
+    Object getTyped(final String key, final Object source) {
+        final int i = indexOf(key);
+        final Object[] t = typed;
+        if (i < 0 || t == null || i >= t.length) {
+            return null;
+        }
+        final Typed cached = (Typed) t[i];
+        return cached != null && cached.source == source ? cached.value : null;
+    }
+
+    /**
+     * Caches a typed value for a property, along with the value it was derived from. Getters call this without a
+     * lock, so a value parsed from a property that was replaced in the meantime may be stored; getTyped() ignores it
+     * as its source no longer matches, and a store lost to a concurrent one only costs a parse.
+     *
+     * @param key the property name.
+     * @param source the value the typed value was derived from.
+     * @param value the typed value.
+     */
+    void putTyped(final String key, final Object source, final Object value) {
+        final int i = indexOf(key);
+        if (i < 0) {
+            return;
+        }
+        Object[] t = typed;
+        if (t == null) {
+            t = new Object[keys.length];
+            typed = t;
+        }
+        if (i < t.length) {
+            t[i] = new Typed(source, value);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        final int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        final Object canonical = canonicalValue(key, value);
+        final int i = indexOf(key);
+        if (i >= 0) {
+            final Object old = values[i];
+            values[i] = canonical;
+            if (typed != null) {
+                typed[i] = null;
+            }
+            return old;
+        }
+        if (size == keys.length) {
+            ensureCapacity(size < 4 ? 8 : size + (size >> 1));
+        }
+        keys[size] = canonicalKey(key);
+        values[size] = canonical;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        final int i = indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        final Object old = values[i];
+        removeAt(i);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        if (typed != null) {
+            Arrays.fill(typed, 0, size, null);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private int indexOf(final Object key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        if (key != null) {
+            for (int i = 0; i < size; i++) {
+                if (key.equals(keys[i])) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(final int i) {
+        final int moved = size - i - 1;
+        if (moved > 0) {
+            System.arraycopy(keys, i + 1, keys, i, moved);
+            System.arraycopy(values, i + 1, values, i, moved);
+            if (typed != null) {
+                System.arraycopy(typed, i + 1, typed, i, moved);
+            }
+        }
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        if (typed != null) {
+            typed[size] = null;
+        }
+        modCount++;
+    }
+
+    private static String canonicalKey(final String key) {
+        return key == null ? null : canonical(KEYS, key);
+    }
+
+    private static Object canonicalValue(final String key, final Object value) {
+        if (value instanceof String && ENUM_KEYS.contains(key)) {
+            return canonical(VALUES, (String) value);
+        }
+        return value;
+    }
+
+    private static String canonical(final ConcurrentHashMap<String, String> table, final String s) {
+        final String existing = table.get(s);
+        if (existing != null) {
+            return existing;
+        }
+        if (table.size() >= MAX_CANONICAL) {
+            return s;
+        }
+        final String previous = table.putIfAbsent(s, s);
+        return previous != null ? previous : s;
+    }
+
+    /**
+     * A typed value and the property value it was derived from, immutable so it can be read without a lock.
+     */
+    private static final class Typed {
+        final Object source;
+        final Object value;
+
+        Typed(final Object source, final Object value) {
+            this.source = source;
+            this.value = value;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            PropertyMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new Iterator<Map.Entry<String, Object>>() {
+                private int next;
+                private int last = -1;
+                private int expectedModCount = modCount;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Map.Entry<String, Object> next() {
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next++;
+                    return new Entry(last);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    removeAt(last);
+                    next = last;
+                    last = -1;
+                    expectedModCount = modCount;
+                }
+            };
+        }
+    }
+
+    private final class Entry implements Map.Entry<String, Object> {
+
+        private final int index;
+
+        Entry(final int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return keys[index];
+        }
+
+        @Override
+        public Object getValue() {
+            return values[index];
+        }
+
+        @Override
+        public Object setValue(final Object value) {
+            final Object old = values[index];
+            values[index] = canonicalValue(keys[index], value);
+            if (typed != null) {
+                typed[index] = null;
+            }
+            return old;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            final Object value = getValue();
+            return getKey().equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            final Object value = getValue();
+            return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
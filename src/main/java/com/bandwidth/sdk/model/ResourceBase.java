@@ -4,10 +4,9 @@ import com.bandwidth.sdk.BandwidthClient;
 import com.bandwidth.sdk.RestResponse;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 
-import java.util.HashMap;
+import java.io.IOException;
 import java.util.Map;
 
 /**
@@ -18,7 +17,13 @@ public abstract class ResourceBase extends ModelBase {
 	protected String id;
 
 	protected final BandwidthClient client;
-	protected final Map<String, Object> properties = new HashMap<String, Object>();
+
+	/**
+	 * Location of a resource created as a lazy handle, see createLazy().
+	 */
+	protected String location;
+
+	private volatile boolean hydrated = true;
 	
 	protected ResourceBase(final JSONObject jsonObject) {
 		this.client = BandwidthClient.getInstance();
@@ -32,14 +37,135 @@ public abstract class ResourceBase extends ModelBase {
 	
 	protected abstract void setUp(JSONObject jsonObject);
 
+	/**
+	 * Builds a lazy handle for a resource that was just created, instead of retrieving it right away. The handle
+	 * holds the id from the Location header and the params that were sent; the remaining fields are loaded from
+	 * the API on first access to a property, or by refresh().
+	 *
+	 * @param client the client.
+	 * @param clazz the model class, which must expose a (BandwidthClient, JSONObject) constructor.
+	 * @param location the Location header of the create response.
+	 * @param params the create params.
+	 * @param <E> the model type.
+	 * @return the handle.
+	 * @throws Exception if the model can't be instantiated.
+	 */
+	protected static <E extends ResourceBase> E createLazy(final BandwidthClient client, final Class<E> clazz,
+			final String location, final Map<String, Object> params) throws Exception {
+		final JSONObject jsonObject = new JSONObject();
+		@SuppressWarnings("unchecked")
+		final Map<String, Object> fields = jsonObject;
+		if (params != null) {
+			fields.putAll(params);
+		}
+		fields.put("id", location.substring(location.lastIndexOf('/') + 1));
+
+		final E resource = clazz.getConstructor(BandwidthClient.class, JSONObject.class).newInstance(client, jsonObject);
+		final ResourceBase base = resource;
+		base.location = location;
+		base.hydrated = false;
+		return resource;
+	}
+
+	/**
+	 * Reloads the fields of this resource from the API.
+	 *
+	 * @throws Exception if the resource can't be retrieved.
+	 */
+	public void refresh() throws Exception {
+		final JSONObject jsonObject = toJSONObject(client.get(getUri(), null));
+		synchronized (this) {
+			setUp(jsonObject);
+			hydrated = true;
+		}
+	}
+
+	/**
+	 * Posts an update to this resource, then reloads it, or when the client's refresh policy is off applies the
+	 * expected changes to the local properties without another request. Either way, the new fields are merged into
+	 * the client's CallStateCache if it holds this resource.
+	 *
+	 * @param params the update params.
+	 * @param changes the properties the update is expected to change.
+	 * @throws Exception if the update fails.
+	 */
+	protected void postUpdate(final Map<String, Object> params, final Map<String, Object> changes) throws Exception {
+		final String uri = getUri();
+		client.post(uri, params);
+
+		final CallStateCache cache = client.getCallStateCache();
+		if (client.isRefreshAfterUpdate()) {
+			final long requestedAt = System.nanoTime();
+			final JSONObject jsonObject = toJSONObject(client.get(uri, null));
+			synchronized (this) {
+				updateProperties(jsonObject);
+				hydrated = true;
+			}
+			if (cache != null) {
+				cache.merge(getId(), jsonObject, requestedAt);
+			}
+		} else {
+			// written straight to the properties, a lazy handle loads its other fields on first access
+			synchronized (this) {
+				for (final Map.Entry<String, Object> change : changes.entrySet()) {
+					properties.put(change.getKey(), change.getValue());
+				}
+			}
+			if (cache != null) {
+				cache.merge(getId(), changes, System.nanoTime());
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the fields of this resource have been loaded, false for a lazy handle until first access.
+	 *
+	 * @return true once hydrated.
+	 */
+	public boolean isHydrated() {
+		return hydrated;
+	}
+
+	@Override
+	protected void ensureHydrated() {
+		if (!hydrated) {
+			synchronized (this) {
+				if (!hydrated) {
+					try {
+						refresh();
+					} catch (final Exception e) {
+						throw new RuntimeException(e);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the uri of this resource instance, used by refresh().
+	 *
+	 * @return the uri.
+	 */
+	protected String getUri() {
+		return location;
+	}
+
 	public static JSONObject toJSONObject(final RestResponse response)
 			throws ParseException {
-		return (JSONObject) new JSONParser().parse(response.getResponseText());
+		return (JSONObject) toJSON(response);
 	}
 
 	protected static JSONArray toJSONArray(final RestResponse response)
 			throws ParseException {
-		return (JSONArray) new JSONParser().parse(response.getResponseText());
+		return (JSONArray) toJSON(response);
+	}
+
+	private static Object toJSON(final RestResponse response) throws ParseException {
+		try {
+			return response.getJson();
+		} catch (final IOException e) {
+			throw new ParseException(ParseException.ERROR_UNEXPECTED_EXCEPTION, e);
+		}
 	}
 
 	public String getId() {
@@ -54,7 +180,13 @@ public abstract class ResourceBase extends ModelBase {
 		return client;
 	}
 
+	/**
+	 * Returns the live property map of this resource.
+	 *
+	 * @return the properties.
+	 */
 	public Map<String, Object> getProperties() {
+		ensureHydrated();
 		return properties;
 	}	
 
@@ -1,8 +1,18 @@
 package com.bandwidth.sdk.model;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import com.bandwidth.sdk.BandwidthClient;
 import com.bandwidth.sdk.Client;
@@ -15,6 +25,10 @@ import org.json.simple.JSONArray;
 /**
  * The ResourceList class is an ArraryList wrapper, but provides pagination for the BW API 
  * resource lists
+ *
+ * By default the next page is requested when the iterator reaches the end of the current one. With
+ * setPrefetch() the following pages are requested in the background while the current page is consumed,
+ * keeping at most the given number of pages in flight or buffered.
  * @author smitchell
  *
  * @param <E> The generic type.
@@ -39,11 +53,30 @@ public class ResourceList<E> extends ArrayList<E> {
 	protected String resourceUri;
 	
 	Client client;
+
+	protected int prefetchDepth = 0;
+	protected ExecutorService prefetchExecutor;
+	private final PageFetcher prefetcher = new PageFetcher();
+
+	/**
+	 * Shared pool for prefetching when no executor is given. Its threads are daemons and die when idle.
+	 */
+	private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+		@Override
+		public Thread newThread(final Runnable r) {
+			final Thread thread = new Thread(r, "bandwidth-resource-list-prefetch");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
 	
 
+	protected final int firstPage;
+
 	public ResourceList(final String resourceUri, final Class <E> clazz) {
 		super();
 		page = 0;
+		firstPage = 0;
 		size = 25;
 		
 		this.resourceUri = resourceUri;
@@ -54,6 +87,7 @@ public class ResourceList<E> extends ArrayList<E> {
 		super();
 
 		this.page = page;
+		this.firstPage = page;
 		this.size = size;
 		this.resourceUri = resourceUri;
 		this.clazz = clazz;
@@ -104,23 +138,114 @@ public class ResourceList<E> extends ArrayList<E> {
 
 		// return super.iterator();
 	}
+
+	/**
+	 * Returns a view of all the pages from the first one, fetched lazily as the view is iterated. Unlike
+	 * iterator(), walking the view leaves this list untouched, and every call starts a new independent walk.
+	 * The prefetch settings of this list apply to the view as well.
+	 *
+	 * Each page is a separate list, so pages can be handed to worker threads and processed in parallel while
+	 * the next ones are fetched.
+	 * @return the lazily fetched pages
+	 */
+	public Iterable<List<E>> pages() {
+		return new Iterable<List<E>>() {
+			@Override
+			public Iterator<List<E>> iterator() {
+				return new PageIterator();
+			}
+		};
+	}
+
+	/**
+	 * Returns a view of all the elements from the first page on, fetched lazily page by page as the view is
+	 * iterated. Only the pages being consumed or prefetched are held in memory.
+	 * @return the lazily fetched elements
+	 */
+	public Iterable<E> elements() {
+		return new Iterable<E>() {
+			@Override
+			public Iterator<E> iterator() {
+				final Iterator<List<E>> pages = new PageIterator();
+				return new Iterator<E>() {
+					private Iterator<E> current = Collections.<E>emptyList().iterator();
+
+					@Override
+					public boolean hasNext() {
+						while (!current.hasNext() && pages.hasNext()) {
+							current = pages.next().iterator();
+						}
+						return current.hasNext();
+					}
+
+					@Override
+					public E next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						return current.next();
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+	}
 		
+	/**
+	 * Requests the next pages in the background while the current one is iterated, using a shared pool of
+	 * daemon threads.
+	 * @param depth the number of pages to request ahead, 0 turns prefetching off
+	 */
+	public void setPrefetch(final int depth) {
+		setPrefetch(depth, PREFETCH_EXECUTOR);
+	}
+
+	/**
+	 * Requests the next pages in the background while the current one is iterated. At most depth pages are
+	 * in flight or waiting to be consumed at any time, so memory stays bounded to depth + 1 pages.
+	 * @param depth the number of pages to request ahead, 0 turns prefetching off
+	 * @param executor the executor the page requests run on
+	 */
+	public void setPrefetch(final int depth, final ExecutorService executor) {
+		if (depth < 0) {
+			throw new IllegalArgumentException("prefetch depth must not be negative");
+		}
+		prefetcher.cancel();
+		this.prefetchDepth = depth;
+		this.prefetchExecutor = executor;
+		schedulePrefetch();
+	}
+
+	public int getPrefetchDepth() {
+		return prefetchDepth;
+	}
+
 	/**
 	 * This method updates the page value, creates the params for the API call and clears the current list
 	 */
 	protected void getNextPage() {
 		    	    	
-        final JSONObject params = new JSONObject();
-        
         page++;
         
-        params.put("page", page);
-        params.put("size", size);
-        
         clear();
-        
-        getPage(params);
-                
+
+        try {
+            applyPage(prefetcher.take(page));
+        }
+        catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        catch (final Exception e) {
+            // like a failed synchronous page, this ends the iteration
+            e.printStackTrace();
+            return;
+        }
+        schedulePrefetch();
 	}
 	
 	/**
@@ -134,27 +259,191 @@ public class ResourceList<E> extends ArrayList<E> {
 			client = BandwidthClient.getInstance();
     	
         try {
-	        final RestResponse response = client.get(resourceUri, params);
-	        
-	        final JSONArray array = Utils.response2JSONArray(response);
-	        
-	        for (final Object obj : array) {	
-        		final E elem = clazz.getConstructor(BandwidthClient.class, JSONObject.class).newInstance(client, (JSONObject) obj);
-        		add(elem);
-	        }
-	        
-	        // if anything comes back, reset the index
-	        if (array.size() > 0)
-	        	this.index = 0;
-	        
-	        // set the next links
-	        this.setNextLink(response.getNextLink());	        
-	        this.setFirstLink(response.getFirstLink());
-	        this.setPreviousLink(response.getPreviousLink());
+	        applyPage(fetchPage(params));
         }
         catch(final Exception e) {
         	e.printStackTrace();
+        	return;
         }
+        schedulePrefetch();
+	}
+
+	private JSONObject pageParams(final int page) {
+        final JSONObject params = new JSONObject();
+        params.put("page", page);
+        params.put("size", size);
+        return params;
+	}
+
+	/**
+	 * Requests a page and builds its elements without touching the list, so it can run on another thread.
+	 */
+	private Page<E> fetchPage(final JSONObject params) throws Exception {
+        final RestResponse response = client.get(resourceUri, params);
+
+        final JSONArray array = Utils.response2JSONArray(response);
+
+        final List<E> elements = new ArrayList<E>(array.size());
+        for (final Object obj : array) {
+    		elements.add(clazz.getConstructor(BandwidthClient.class, JSONObject.class).newInstance(client, (JSONObject) obj));
+        }
+        return new Page<E>(elements, response);
+	}
+
+	private void applyPage(final Page<E> page) {
+        addAll(page.elements);
+
+        // if anything comes back, reset the index
+        if (page.elements.size() > 0)
+        	this.index = 0;
+
+        // set the next links
+        this.setNextLink(page.nextLink);
+        this.setFirstLink(page.firstLink);
+        this.setPreviousLink(page.previousLink);
+	}
+
+	private void schedulePrefetch() {
+		if (nextLink == null) {
+			prefetcher.cancel();
+		} else {
+			prefetcher.schedule(page);
+		}
+	}
+
+	/**
+	 * Hands out pages in order, taking them from the background requests when prefetching is on. At most
+	 * prefetchDepth requests are queued at once.
+	 */
+	private final class PageFetcher {
+		private final ArrayDeque<Future<Page<E>>> queue = new ArrayDeque<Future<Page<E>>>();
+		private int queuedPage;
+
+		/**
+		 * Returns the given page, which must follow the previously taken one.
+		 */
+		Page<E> take(final int page) throws Exception {
+			final Future<Page<E>> future = queue.poll();
+			if (future == null) {
+				return fetchPage(pageParams(page));
+			}
+			try {
+				return future.get();
+			}
+			catch (final InterruptedException e) {
+				cancel();
+				throw e;
+			}
+			catch (final ExecutionException e) {
+				cancel();
+				throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+			}
+		}
+
+		/**
+		 * Tops up the background requests to the prefetch depth for the pages after the current one.
+		 */
+		void schedule(final int currentPage) {
+			if (prefetchDepth == 0) {
+				return;
+			}
+			if (queue.isEmpty()) {
+				queuedPage = currentPage;
+			}
+			while (queue.size() < prefetchDepth) {
+				final JSONObject params = pageParams(++queuedPage);
+				queue.add(prefetchExecutor.submit(new Callable<Page<E>>() {
+					@Override
+					public Page<E> call() throws Exception {
+						return fetchPage(params);
+					}
+				}));
+			}
+		}
+
+		/**
+		 * Drops the background requests, e.g. once the last page is reached.
+		 */
+		void cancel() {
+			Future<Page<E>> future;
+			while ((future = queue.poll()) != null) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Iterates the pages from the first one without touching the list.
+	 */
+	private final class PageIterator implements Iterator<List<E>> {
+		private final PageFetcher fetcher = new PageFetcher();
+		private int current = firstPage;
+		private List<E> pending;
+		private boolean started;
+		private boolean done;
+		private String next;
+
+		@Override
+		public boolean hasNext() {
+			if (pending == null && !done) {
+				advance();
+			}
+			return pending != null;
+		}
+
+		@Override
+		public List<E> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			final List<E> result = pending;
+			pending = null;
+			return result;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		private void advance() {
+			if (!started && page == firstPage && !isEmpty()) {
+				// the first page is already loaded
+				started = true;
+				pending = Collections.unmodifiableList(new ArrayList<E>(ResourceList.this));
+				next = nextLink;
+			} else {
+				if (started && next == null) {
+					done = true;
+					return;
+				}
+				if (client == null) {
+					client = BandwidthClient.getInstance();
+				}
+				final int number = started ? ++current : current;
+				started = true;
+				final Page<E> fetched;
+				try {
+					fetched = fetcher.take(number);
+				}
+				catch (final Exception e) {
+					done = true;
+					throw new RuntimeException(e);
+				}
+				next = fetched.nextLink;
+				if (fetched.elements.isEmpty()) {
+					done = true;
+					fetcher.cancel();
+					return;
+				}
+				pending = Collections.unmodifiableList(fetched.elements);
+			}
+			if (next == null) {
+				fetcher.cancel();
+			} else {
+				fetcher.schedule(current);
+			}
+		}
 	}
 	
 
@@ -207,8 +496,21 @@ public class ResourceList<E> extends ArrayList<E> {
 	public void setClient(final Client client) {
 		this.client = client;
 	}
-	
-	
 
+	/**
+	 * One page of results with its links.
+	 */
+	private static final class Page<E> {
+		final List<E> elements;
+		final String nextLink;
+		final String firstLink;
+		final String previousLink;
 
+		Page(final List<E> elements, final RestResponse response) {
+			this.elements = elements;
+			this.nextLink = response.getNextLink();
+			this.firstLink = response.getFirstLink();
+			this.previousLink = response.getPreviousLink();
+		}
+	}
 }
@@ -18,6 +18,9 @@ public class AnswerEvent extends EventBase {
 		super(json);
 	}
 
+	AnswerEvent() {
+	}
+
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
 	}
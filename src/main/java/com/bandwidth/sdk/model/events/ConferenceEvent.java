@@ -7,6 +7,9 @@ public class ConferenceEvent extends EventBase {
 	public ConferenceEvent(final JSONObject json) {
 		super(json);
 	}
+
+	ConferenceEvent() {
+	}
 	
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
@@ -7,6 +7,9 @@ public class ConferenceMemberEvent extends EventBase {
 	public ConferenceMemberEvent(final JSONObject json) {
 		super(json);
 	}
+
+	ConferenceMemberEvent() {
+	}
 	
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
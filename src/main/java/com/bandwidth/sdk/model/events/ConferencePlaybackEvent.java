@@ -7,6 +7,9 @@ public class ConferencePlaybackEvent extends EventBase {
 	public ConferencePlaybackEvent(final JSONObject json) {
 		super(json);
 	}
+
+	ConferencePlaybackEvent() {
+	}
 	
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
@@ -7,6 +7,9 @@ public class ConferenceSpeakEvent extends EventBase {
 	public ConferenceSpeakEvent(final JSONObject json) {
 		super(json);
 	}
+
+	ConferenceSpeakEvent() {
+	}
 	
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
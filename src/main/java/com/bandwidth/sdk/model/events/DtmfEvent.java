@@ -8,6 +8,9 @@ public class DtmfEvent extends EventBase {
 		super(json);
 	}
 
+	DtmfEvent() {
+	}
+
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
 	}
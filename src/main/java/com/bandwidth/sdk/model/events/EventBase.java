@@ -1,11 +1,18 @@
 package com.bandwidth.sdk.model.events;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
 
 import com.bandwidth.sdk.AppPlatformException;
+import com.bandwidth.sdk.JsonStreamParser;
 import com.bandwidth.sdk.model.ModelBase;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -15,7 +22,10 @@ import java.util.Map;
  */
 public class EventBase extends ModelBase implements Event {
 
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     protected EventType eventType;
+
     /**
      * This method creates an event from a json string. Given an event from the App Plotform
      * API, the whole body can be passed in and the appropriate Event subclass will be returned.
@@ -24,87 +34,131 @@ public class EventBase extends ModelBase implements Event {
      * @throws AppPlatformException API Exception
      */
     public static Event createEventFromString(final String in) throws AppPlatformException {
-
-        JSONObject jsonObj = null;
         try {
-            jsonObj = (JSONObject) new JSONParser().parse(in);
-        } catch (final org.json.simple.parser.ParseException e) {
+            final JsonParser parser = JSON_FACTORY.createParser(in);
+            try {
+                return parseEvent(parser);
+            } finally {
+                parser.close();
+            }
+        } catch (final IOException e) {
             throw new AppPlatformException(e);
         }
+    }
 
-        final EventType eventType = EventType.getEnum((String) jsonObj
-                .get("eventType"));
+    /**
+     * Reads the fields straight into the properties of the concrete event. The event is created as soon as the
+     * eventType field is read, which the App Platform sends first; fields seen before it are held until then.
+     */
+    private static Event parseEvent(final JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Event is not a JSON object");
+        }
+        final JsonStreamParser values = new JsonStreamParser();
+        EventBase event = null;
+        List<Object> pending = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String name = parser.getCurrentName();
+            final Object value = values.parseValue(parser, parser.nextToken());
+            if (event != null) {
+                event.properties.put(name, value);
+                continue;
+            }
+            if (pending == null) {
+                pending = new ArrayList<Object>();
+            }
+            pending.add(name);
+            pending.add(value);
+            if ("eventType".equals(name)) {
+                event = newEvent(EventType.getEnum(value instanceof String ? (String) value : null));
+                for (int i = 0; i < pending.size(); i += 2) {
+                    event.properties.put((String) pending.get(i), pending.get(i + 1));
+                }
+            }
+        }
+        if (parser.nextToken() != null) {
+            throw new JsonParseException(parser, "Unexpected content after the event");
+        }
+        if (event == null) {
+            event = newEvent(EventType.UNKNOWN);
+            for (int i = 0; pending != null && i < pending.size(); i += 2) {
+                event.properties.put((String) pending.get(i), pending.get(i + 1));
+            }
+        }
+        return event;
+    }
 
-        Event event = null;
+    private static EventBase newEvent(final EventType eventType) {
+        final EventBase event;
         switch (eventType) {
             case INCOMINGCALL:
-                event = new IncomingCallEvent(jsonObj);
+                event = new IncomingCallEvent();
                 break;
 
             case ANSWER:
-                event = new AnswerEvent(jsonObj);
+                event = new AnswerEvent();
                 break;
 
             case SPEAK:
-                event = new SpeakEvent(jsonObj);
+                event = new SpeakEvent();
                 break;
 
             case PLAYBACK:
-                event = new PlaybackEvent(jsonObj);
+                event = new PlaybackEvent();
                 break;
 
             case GATHER:
-                event = new GatherEvent(jsonObj);
+                event = new GatherEvent();
                 break;
 
             case HANGUP:
-                event = new HangupEvent(jsonObj);
+                event = new HangupEvent();
                 break;
 
             case DTMF:
-                event = new DtmfEvent(jsonObj);
+                event = new DtmfEvent();
                 break;
 
             case REJECT:
-                event = new RejectEvent(jsonObj);
+                event = new RejectEvent();
                 break;
 
             case RECORDING:
-                event = new RecordingEvent(jsonObj);
+                event = new RecordingEvent();
                 break;
 
             case TRANSCRIPTION:
-                event = new TranscriptionEvent(jsonObj);
+                event = new TranscriptionEvent();
                 break;
 
             case SMS:
-                event = new SmsEvent(jsonObj);
+                event = new SmsEvent();
                 break;
 
             case TIMEOUT:
-                event = new TimeoutEvent(jsonObj);
+                event = new TimeoutEvent();
                 break;
 
             case CONFERENCE:
-                event = new ConferenceEvent(jsonObj);
+                event = new ConferenceEvent();
                 break;
 
             case CONFERENCE_MEMBER:
-                event = new ConferenceMemberEvent(jsonObj);
+                event = new ConferenceMemberEvent();
                 break;
 
             case CONFERENCE_PLAYBACK:
-                event = new ConferencePlaybackEvent(jsonObj);
+                event = new ConferencePlaybackEvent();
                 break;
 
             case CONFERENCE_SPEAK:
-                event = new ConferenceSpeakEvent(jsonObj);
+                event = new ConferenceSpeakEvent();
                 break;
 
             default:
-                event = new EventBase(jsonObj);
+                event = new EventBase();
         }
-
+        event.eventType = eventType;
         return event;
     }
 
@@ -112,6 +166,12 @@ public class EventBase extends ModelBase implements Event {
         visitor.processEvent(this);
     }
 
+    /**
+     * Creates an empty event, filled by createEventFromString().
+     */
+    EventBase() {
+    }
+
     public EventBase(final JSONObject json) {
         updateProperties(json);
         eventType = EventType.getEnum((String) json.get("eventType"));
@@ -138,8 +198,12 @@ public class EventBase extends ModelBase implements Event {
         return super.toMap();
     }
 
+    /**
+     * Returns a field of the event as a String, numbers and booleans such as activeMembers included.
+     */
     public String getProperty(final String property) {
-        return getPropertyAsString(property);
+        final Object value = properties.get(property);
+        return value == null || value instanceof String ? (String) value : value.toString();
     }
 
     public void setProperty(final String name, final String value) {
@@ -1,5 +1,9 @@
 package com.bandwidth.sdk.model.events;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * EventTypes.
  * 
@@ -25,6 +29,27 @@ public enum EventType {
     CONFERENCE_MEMBER("conference-member"),
     UNKNOWN("unknown");
 
+    /**
+     * Event types by value, resolved with a single lookup since every callback goes through getEnum().
+     */
+    private static final Map<String, EventType> BY_VALUE = new HashMap<String, EventType>();
+
+    /**
+     * The types historically matched ignoring case.
+     */
+    private static final Map<String, EventType> BY_LOWER_CASE_VALUE = new HashMap<String, EventType>();
+
+    static {
+        for (final EventType eventType : values()) {
+            if (eventType != UNKNOWN) {
+                BY_VALUE.put(eventType.val, eventType);
+            }
+        }
+        for (final EventType eventType : new EventType[] {INCOMINGCALL, ANSWER, GATHER}) {
+            BY_LOWER_CASE_VALUE.put(eventType.val, eventType);
+        }
+    }
+
     private final String val;
 
     private EventType(final String val) {
@@ -36,40 +61,14 @@ public enum EventType {
     }
 
     public static EventType getEnum(final String type) {
-        if (INCOMINGCALL.toString().equalsIgnoreCase(type)) {
-            return INCOMINGCALL;
-        } else if (ANSWER.toString().equalsIgnoreCase(type)) {
-            return ANSWER;
-        } else if (SPEAK.toString().equals(type)) {
-            return SPEAK;
-        } else if (PLAYBACK.toString().equals(type)) {
-            return PLAYBACK;
-        } else if (GATHER.toString().equalsIgnoreCase(type)) {
-            return GATHER;
-        } else if (HANGUP.toString().equals(type)) {
-            return HANGUP;
-        } else if (DTMF.toString().equals(type)) {
-            return DTMF;
-        } else if (REJECT.toString().equals(type)) {
-            return REJECT;
-        } else if (RECORDING.toString().equals(type)) {
-            return RECORDING;
-        } else if (TRANSCRIPTION.toString().equals(type)) {
-            return TRANSCRIPTION;
-        } else if (SMS.toString().equals(type)) {
-            return SMS;
-        } else if (TIMEOUT.toString().equals(type)) {
-            return TIMEOUT;
-        } else if (CONFERENCE.toString().equals(type)) {
-            return CONFERENCE;
-        } else if (CONFERENCE_MEMBER.toString().equals(type)) {
-            return CONFERENCE_MEMBER;
-        } else if (CONFERENCE_PLAYBACK.toString().equals(type)) {
-            return CONFERENCE_PLAYBACK;
-        } else if (CONFERENCE_SPEAK.toString().equals(type)) {
-            return CONFERENCE_SPEAK;
-        } else {
+        if (type == null) {
             return UNKNOWN;
         }
+        final EventType eventType = BY_VALUE.get(type);
+        if (eventType != null) {
+            return eventType;
+        }
+        final EventType ignoringCase = BY_LOWER_CASE_VALUE.get(type.toLowerCase(Locale.ENGLISH));
+        return ignoringCase != null ? ignoringCase : UNKNOWN;
     }
-}
\ No newline at end of file
+}
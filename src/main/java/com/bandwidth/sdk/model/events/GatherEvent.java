@@ -8,6 +8,9 @@ public class GatherEvent extends EventBase{
 		super(json);
 	}
 
+	GatherEvent() {
+	}
+
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
 	}
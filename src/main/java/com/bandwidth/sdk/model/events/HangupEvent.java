@@ -8,6 +8,9 @@ public class HangupEvent extends EventBase{
 		super(json);
 	}
 
+	HangupEvent() {
+	}
+
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
 	}
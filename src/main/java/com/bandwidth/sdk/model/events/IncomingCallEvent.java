@@ -8,6 +8,9 @@ public class IncomingCallEvent extends EventBase {
 		super(json);
 	}
 
+	IncomingCallEvent() {
+	}
+
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
 	}
@@ -8,6 +8,9 @@ public class PlaybackEvent extends EventBase {
 		super(json);
 	}
 
+	PlaybackEvent() {
+	}
+
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
 	}
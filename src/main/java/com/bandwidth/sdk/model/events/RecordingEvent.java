@@ -7,6 +7,9 @@ public class RecordingEvent extends EventBase {
 	public RecordingEvent(final JSONObject json) {
 		super(json);
 	}
+
+	RecordingEvent() {
+	}
 	
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
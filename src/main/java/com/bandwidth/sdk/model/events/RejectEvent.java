@@ -8,6 +8,9 @@ public class RejectEvent extends EventBase {
 		super(json);
 	}
 
+	RejectEvent() {
+	}
+
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
 	}
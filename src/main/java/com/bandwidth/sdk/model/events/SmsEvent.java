@@ -8,6 +8,9 @@ public class SmsEvent extends EventBase {
 		super(json);
 	}
 
+	SmsEvent() {
+	}
+
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
 	}
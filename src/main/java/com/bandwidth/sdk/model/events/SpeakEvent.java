@@ -10,6 +10,9 @@ public class SpeakEvent extends EventBase {
 		super(json);
 	}
 
+	SpeakEvent() {
+	}
+
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
 	}
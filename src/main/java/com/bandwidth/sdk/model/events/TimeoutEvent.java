@@ -8,6 +8,9 @@ public class TimeoutEvent extends EventBase {
 		super(json);
 	}
 
+	TimeoutEvent() {
+	}
+
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
 	}
@@ -7,6 +7,9 @@ public class TranscriptionEvent extends EventBase {
 	public TranscriptionEvent(final JSONObject json) {
 		super(json);
 	}
+
+	TranscriptionEvent() {
+	}
 	
 	public void execute(final Visitor visitor) {
 		visitor.processEvent(this);
@@ -14,4 +14,9 @@ public interface Visitor
 	public void processEvent(RecordingEvent event);
 	public void processEvent(SmsEvent event);
 	public void processEvent(TimeoutEvent event);
+	public void processEvent(TranscriptionEvent event);
+	public void processEvent(ConferenceEvent event);
+	public void processEvent(ConferenceMemberEvent event);
+	public void processEvent(ConferencePlaybackEvent event);
+	public void processEvent(ConferenceSpeakEvent event);
 }
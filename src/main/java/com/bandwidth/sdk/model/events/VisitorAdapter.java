@@ -0,0 +1,75 @@
+package com.bandwidth.sdk.model.events;
+
+/**
+ * Base class for visitors interested in a few event types. Every typed method falls back to processEvent(Event),
+ * which does nothing, so a subclass only overrides the events it handles and, if needed, the fallback.
+ */
+public class VisitorAdapter implements Visitor
+{
+	public void processEvent(Event event) {
+	}
+
+	public void processEvent(IncomingCallEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(AnswerEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(SpeakEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(PlaybackEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(GatherEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(HangupEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(DtmfEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(RejectEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(RecordingEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(SmsEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(TimeoutEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(TranscriptionEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(ConferenceEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(ConferenceMemberEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(ConferencePlaybackEvent event) {
+		processEvent((Event) event);
+	}
+
+	public void processEvent(ConferenceSpeakEvent event) {
+		processEvent((Event) event);
+	}
+}
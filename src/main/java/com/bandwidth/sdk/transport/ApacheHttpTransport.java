@@ -0,0 +1,153 @@
+package com.bandwidth.sdk.transport;
+
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.impl.client.AIMDBackoffManager;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transport backed by Apache HttpClient with a pooling connection manager. This is the default transport.
+ */
+public class ApacheHttpTransport implements Transport {
+
+    private final static Logger LOG = LoggerFactory.getLogger(ApacheHttpTransport.class);
+    public static final int MONITOR_TIMER = 5000;
+
+    private final CloseableHttpClient httpClient;
+
+    private final ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+    private final IdleConnectionMonitorRunnable idleConnectionMonitorRunnable;
+
+    /**
+     * Constructor.
+     *
+     * @param maxTotal the maximum number of pooled connections.
+     * @param defaultMaxPerRoute the maximum number of pooled connections per route.
+     */
+    public ApacheHttpTransport(final int maxTotal, final int defaultMaxPerRoute) {
+        // Following recommendations from
+        // https://hc.apache.org/httpcomponents-client-ga/tutorial/html/connmgmt.html
+        final PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+
+        cm.setMaxTotal(maxTotal);
+        cm.setDefaultMaxPerRoute(defaultMaxPerRoute);
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(cm)
+                .setKeepAliveStrategy(getStrategy())
+                .setBackoffManager(new AIMDBackoffManager(cm))
+                .build();
+        this.idleConnectionMonitorRunnable = new IdleConnectionMonitorRunnable(cm);
+        this.executorService.execute(this.idleConnectionMonitorRunnable);
+    }
+
+    @Override
+    public HttpResponse execute(final HttpUriRequest request) throws IOException {
+        return httpClient.execute(request);
+    }
+
+    /**
+     * Returns the Apache client the requests are executed with.
+     *
+     * @return the client.
+     */
+    public CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Returns the keep-alive strategy, which honors the server's Keep-Alive timeout and defaults to 5 seconds.
+     *
+     * @return the strategy.
+     */
+    public static ConnectionKeepAliveStrategy getStrategy() {
+        return new ConnectionKeepAliveStrategy() {
+            @Override
+            public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                HeaderElementIterator it = new BasicHeaderElementIterator
+                        (response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+                while (it.hasNext()) {
+                    HeaderElement he = it.nextElement();
+                    String param = he.getName();
+                    String value = he.getValue();
+                    if (value != null && param.equalsIgnoreCase
+                            ("timeout")) {
+                        return Long.parseLong(value) * 1000;
+                    }
+                }
+                return 5 * 1000;
+            }
+        };
+    }
+
+    public static class IdleConnectionMonitorRunnable implements Runnable {
+        private final HttpClientConnectionManager connMgr;
+        private volatile boolean shutdown;
+
+        public IdleConnectionMonitorRunnable(HttpClientConnectionManager connMgr) {
+            super();
+            this.connMgr = connMgr;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!shutdown) {
+                    synchronized (this) {
+                        wait(MONITOR_TIMER);
+                        // Close expired connections
+                        connMgr.closeExpiredConnections();
+                        // Optionally, close connections
+                        // that have been idle longer than 30 sec
+                        connMgr.closeIdleConnections(30, TimeUnit.SECONDS);
+                    }
+                }
+            } catch (InterruptedException ex) {
+                LOG.error("IdleConnectionMonitorRunnable failed.", ex);
+            }
+        }
+
+        public void shutdown() {
+            shutdown = true;
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+
+        public boolean isShutdown() {
+            return shutdown;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!this.idleConnectionMonitorRunnable.isShutdown()) {
+            this.idleConnectionMonitorRunnable.shutdown();
+        }
+        if (!this.executorService.isShutdown()) {
+            this.executorService.shutdown();
+        }
+        try {
+            this.httpClient.close();
+        } catch (final IOException e) {
+            LOG.error("Failed to close the http client.", e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.bandwidth.sdk.transport;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * In-memory transport that hands every request to a Handler instead of the network. Useful for benchmarking the
+ * client itself without I/O, and for exercising the full request path in tests.
+ */
+public class LoopbackTransport implements Transport {
+
+    /**
+     * Produces the response for a request.
+     */
+    public interface Handler {
+        HttpResponse handle(HttpUriRequest request) throws IOException;
+    }
+
+    private final Handler handler;
+
+    private final List<HttpUriRequest> requests = Collections.synchronizedList(new ArrayList<HttpUriRequest>());
+
+    private volatile boolean recording = true;
+
+    public LoopbackTransport(final Handler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public HttpResponse execute(final HttpUriRequest request) throws IOException {
+        if (recording) {
+            requests.add(request);
+        }
+        return handler.handle(request);
+    }
+
+    /**
+     * Returns the requests executed so far, in order.
+     *
+     * @return the requests.
+     */
+    public List<HttpUriRequest> getRequests() {
+        return requests;
+    }
+
+    /**
+     * Turns request recording on or off. Turn it off for long benchmark runs.
+     *
+     * @param recording whether to record requests.
+     */
+    public void setRecording(final boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Convenience method to build a JSON response.
+     *
+     * @param status the status code.
+     * @param json the body, may be null.
+     * @return the response.
+     */
+    public static HttpResponse response(final int status, final String json) {
+        final BasicHttpResponse response = new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, status, null));
+        if (json != null) {
+            response.setEntity(new StringEntity(json, ContentType.APPLICATION_JSON));
+            response.addHeader("Content-Type", ContentType.APPLICATION_JSON.toString());
+        }
+        return response;
+    }
+
+    @Override
+    public void close() {
+        requests.clear();
+    }
+}
@@ -0,0 +1,31 @@
+package com.bandwidth.sdk.transport;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The HTTP engine used by the BandwidthClient to execute its requests. Requests and responses are expressed with the
+ * httpcore types so that the client can build requests the same way regardless of the engine underneath.
+ *
+ * Implementations must be safe for use by concurrent threads.
+ */
+public interface Transport extends Closeable {
+
+    /**
+     * Executes the request and returns the response. The caller is responsible for consuming the response entity.
+     *
+     * @param request the request.
+     * @return the response.
+     * @throws IOException on a transport failure.
+     */
+    HttpResponse execute(HttpUriRequest request) throws IOException;
+
+    /**
+     * Releases the connections and threads held by this transport.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,105 @@
+package com.bandwidth.sdk.transport;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transport backed by the JDK's built-in HttpURLConnection. Connection reuse is handled by the JDK's keep-alive cache
+ * (tunable with the http.maxConnections system property), so this transport needs no extra dependencies or threads.
+ */
+public class UrlConnectionTransport implements Transport {
+
+    public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+    public static final int DEFAULT_READ_TIMEOUT = 60000;
+
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    public UrlConnectionTransport() {
+        this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param connectTimeout the connect timeout in milliseconds.
+     * @param readTimeout the read timeout in milliseconds.
+     */
+    public UrlConnectionTransport(final int connectTimeout, final int readTimeout) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public HttpResponse execute(final HttpUriRequest request) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) request.getURI().toURL().openConnection();
+        connection.setRequestMethod(request.getMethod());
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setInstanceFollowRedirects(false);
+        for (final Header header : request.getAllHeaders()) {
+            connection.addRequestProperty(header.getName(), header.getValue());
+        }
+
+        final HttpEntity requestEntity = request instanceof HttpEntityEnclosingRequest
+                ? ((HttpEntityEnclosingRequest) request).getEntity() : null;
+        if (requestEntity != null) {
+            connection.setDoOutput(true);
+            if (requestEntity.getContentType() != null) {
+                connection.setRequestProperty("Content-Type", requestEntity.getContentType().getValue());
+            }
+            final long length = requestEntity.getContentLength();
+            if (length >= 0 && length <= Integer.MAX_VALUE) {
+                connection.setFixedLengthStreamingMode((int) length);
+            } else {
+                connection.setChunkedStreamingMode(0);
+            }
+            final OutputStream out = connection.getOutputStream();
+            try {
+                requestEntity.writeTo(out);
+            } finally {
+                out.close();
+            }
+        }
+
+        final int status = connection.getResponseCode();
+        final BasicHttpResponse response = new BasicHttpResponse(
+                new BasicStatusLine(HttpVersion.HTTP_1_1, status, connection.getResponseMessage()));
+        for (final Map.Entry<String, List<String>> entry : connection.getHeaderFields().entrySet()) {
+            // the status line is reported under a null key
+            if (entry.getKey() == null) {
+                continue;
+            }
+            for (final String value : entry.getValue()) {
+                response.addHeader(entry.getKey(), value);
+            }
+        }
+
+        final InputStream body = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (body != null) {
+            final InputStreamEntity entity = new InputStreamEntity(body, connection.getContentLength());
+            entity.setContentType(connection.getContentType());
+            response.setEntity(entity);
+        }
+        return response;
+    }
+
+    @Override
+    public void close() {
+        // pooled connections belong to the JDK keep-alive cache
+    }
+}
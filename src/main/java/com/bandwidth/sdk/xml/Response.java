@@ -6,6 +6,10 @@ import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
@@ -14,8 +18,38 @@ import java.util.List;
 @XmlRootElement(name = "Response")
 public class Response {
 
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private static volatile JAXBContext context;
+
     private List<Elements> verbList = new ArrayList<Elements>();
 
+    /**
+     * Returns the JAXB context for the verbs, created once per JVM since building it is expensive. The context is
+     * thread-safe; marshallers are not, so each toXml() call creates its own.
+     */
+    private static JAXBContext getContext() throws JAXBException {
+        JAXBContext jc = context;
+        if (jc == null) {
+            synchronized (Response.class) {
+                jc = context;
+                if (jc == null) {
+                    jc = JAXBContext.newInstance(Hangup.class, Transfer.class, SpeakSentence.class,
+                            PlayAudio.class, Redirect.class, SendMessage.class, Gather.class, Record.class);
+                    context = jc;
+                }
+            }
+        }
+        return jc;
+    }
+
+    private static Marshaller createMarshaller() throws JAXBException {
+        Marshaller marshaller = getContext().createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        return marshaller;
+    }
+
     public void add(Elements verb) {
         verbList.add(verb);
     }
@@ -29,23 +63,84 @@ public class Response {
             throw new XMLMarshallingException("Error marshalling xml, at least one tag within <Response> is required");
         }
 
+        Marshaller marshaller;
+        try {
+            marshaller = createMarshaller();
+        } catch (JAXBException ex) {
+            throw new XMLMarshallingException("Error creating the xml marshaller", ex);
+        }
+
+        StringWriter writer = new StringWriter();
         for (Elements verb : verbList) {
             try {
-                JAXBContext jc = JAXBContext.newInstance(Hangup.class, Transfer.class, SpeakSentence.class,
-                        PlayAudio.class, Redirect.class, SendMessage.class, Gather.class, Record.class);
-                Marshaller marshaller = jc.createMarshaller();
-                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-                marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
-
-                Writer writer = new StringWriter();
                 marshaller.marshal(verb, writer);
-                writer.toString();
-                stringBuilder.append(writer.toString());
             } catch (JAXBException ex) {
                 throw new XMLMarshallingException("Error marshalling " + verb.toString(), ex);
             }
         }
+        stringBuilder.append(writer.getBuffer());
         stringBuilder.append("</Response>");
         return stringBuilder.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes the response as UTF-8 encoded BXML straight to a stream, marshalling each verb through a StAX writer
+     * without building intermediate strings. Unlike toXml() the output is not indented. The stream is flushed but
+     * not closed.
+     *
+     * @param out the stream.
+     * @throws XMLMarshallingException if the response can't be written.
+     */
+    public void writeXml(OutputStream out) throws XMLMarshallingException {
+        try {
+            writeXml(OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8"));
+        } catch (XMLStreamException ex) {
+            throw new XMLMarshallingException("Error writing xml", ex);
+        }
+    }
+
+    /**
+     * Writes the response as BXML straight to a character stream, see writeXml(OutputStream). The writer is
+     * flushed but not closed.
+     *
+     * @param out the writer.
+     * @throws XMLMarshallingException if the response can't be written.
+     */
+    public void writeXml(Writer out) throws XMLMarshallingException {
+        try {
+            writeXml(OUTPUT_FACTORY.createXMLStreamWriter(out));
+        } catch (XMLStreamException ex) {
+            throw new XMLMarshallingException("Error writing xml", ex);
+        }
+    }
+
+    private void writeXml(XMLStreamWriter xmlWriter) throws XMLMarshallingException {
+        if (verbList.isEmpty()) {
+            throw new XMLMarshallingException("Error marshalling xml, at least one tag within <Response> is required");
+        }
+
+        try {
+            Marshaller marshaller = getContext().createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+
+            xmlWriter.writeStartDocument("UTF-8", "1.0");
+            xmlWriter.writeStartElement("Response");
+            for (Elements verb : verbList) {
+                marshaller.marshal(verb, xmlWriter);
+            }
+            xmlWriter.writeEndElement();
+            xmlWriter.writeEndDocument();
+            xmlWriter.flush();
+        } catch (JAXBException ex) {
+            throw new XMLMarshallingException("Error marshalling xml", ex);
+        } catch (XMLStreamException ex) {
+            throw new XMLMarshallingException("Error writing xml", ex);
+        } finally {
+            try {
+                xmlWriter.close();
+            } catch (XMLStreamException ignored) {
+                // closing a stax writer does not close the underlying stream
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.bandwidth.sdk.xml;
+
+import com.bandwidth.sdk.exception.XMLMarshallingException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A BXML response rendered once with named slots, for callbacks that always answer with the same shape and only
+ * change a sentence, a url or a number per call.
+ *
+ * The template is built from a regular Response whose string attributes or text hold ${name} placeholders, so the
+ * verbs are validated as usual:
+ *
+ * <pre>
+ * Response response = new Response();
+ * response.add(new SpeakSentence("Hello ${name}", "paul", "male", "en_US"));
+ * response.add(new Transfer("${agent}", "+19195551212"));
+ * ResponseTemplate template = ResponseTemplate.compile(response);
+ *
+ * template.writeXml(out, values);
+ * </pre>
+ *
+ * Rendering copies the pre-encoded static parts and writes each slot value XML-escaped. Templates are immutable
+ * and can be shared between threads.
+ */
+public class ResponseTemplate {
+
+    private static final Pattern SLOT = Pattern.compile("\\$\\{([A-Za-z0-9_.-]+)\\}");
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final String[] chunks;
+    private final byte[][] encodedChunks;
+    private final String[] slots;
+    private final Set<String> slotNames;
+
+    private ResponseTemplate(List<String> chunks, List<String> slots) {
+        this.chunks = chunks.toArray(new String[chunks.size()]);
+        this.encodedChunks = new byte[this.chunks.length][];
+        for (int i = 0; i < this.chunks.length; i++) {
+            encodedChunks[i] = this.chunks[i].getBytes(UTF_8);
+        }
+        this.slots = slots.toArray(new String[slots.size()]);
+        this.slotNames = Collections.unmodifiableSet(new LinkedHashSet<String>(slots));
+    }
+
+    /**
+     * Renders a response once and splits it on its ${name} placeholders.
+     *
+     * @param response the response, with placeholders in its string attributes or text.
+     * @return the template.
+     * @throws XMLMarshallingException if the response can't be rendered.
+     */
+    public static ResponseTemplate compile(Response response) throws XMLMarshallingException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.writeXml(out);
+
+        String xml;
+        try {
+            xml = out.toString("UTF-8");
+        } catch (UnsupportedEncodingException ex) {
+            throw new XMLMarshallingException("Error rendering template", ex);
+        }
+
+        List<String> chunks = new ArrayList<String>();
+        List<String> slots = new ArrayList<String>();
+        Matcher matcher = SLOT.matcher(xml);
+        int start = 0;
+        while (matcher.find()) {
+            chunks.add(xml.substring(start, matcher.start()));
+            slots.add(matcher.group(1));
+            start = matcher.end();
+        }
+        chunks.add(xml.substring(start));
+
+        return new ResponseTemplate(chunks, slots);
+    }
+
+    /**
+     * Returns the names of the slots, in order of first appearance.
+     *
+     * @return the slot names.
+     */
+    public Set<String> getSlots() {
+        return slotNames;
+    }
+
+    /**
+     * Renders the template to a String.
+     *
+     * @param values the slot values, rendered with toString().
+     * @return the BXML.
+     */
+    public String toXml(Map<String, ?> values) {
+        StringBuilder sb = new StringBuilder(chunks[0].length() * 2);
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(chunks[i]);
+            escape(value(values, slots[i]), sb);
+        }
+        sb.append(chunks[slots.length]);
+        return sb.toString();
+    }
+
+    /**
+     * Writes the template as UTF-8 encoded BXML to a stream, which is not flushed or closed.
+     *
+     * @param out the stream.
+     * @param values the slot values, rendered with toString().
+     * @throws IOException if the stream can't be written.
+     */
+    public void writeXml(OutputStream out, Map<String, ?> values) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < slots.length; i++) {
+            out.write(encodedChunks[i]);
+            sb.setLength(0);
+            escape(value(values, slots[i]), sb);
+            out.write(sb.toString().getBytes(UTF_8));
+        }
+        out.write(encodedChunks[slots.length]);
+    }
+
+    /**
+     * Writes the template as BXML to a character stream, which is not flushed or closed.
+     *
+     * @param out the writer.
+     * @param values the slot values, rendered with toString().
+     * @throws IOException if the writer can't be written.
+     */
+    public void writeXml(Writer out, Map<String, ?> values) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < slots.length; i++) {
+            out.write(chunks[i]);
+            sb.setLength(0);
+            escape(value(values, slots[i]), sb);
+            out.append(sb);
+        }
+        out.write(chunks[slots.length]);
+    }
+
+    private static String value(Map<String, ?> values, String slot) {
+        Object value = values == null ? null : values.get(slot);
+        if (value == null) {
+            throw new IllegalArgumentException("No value for slot " + slot);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Escapes a value for use in both attributes and text.
+     */
+    private static void escape(String value, StringBuilder sb) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    sb.append("&amp;");
+                    break;
+                case '<':
+                    sb.append("&lt;");
+                    break;
+                case '>':
+                    sb.append("&gt;");
+                    break;
+                case '"':
+                    sb.append("&quot;");
+                    break;
+                case '\'':
+                    sb.append("&apos;");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.bandwidth.sdk;
+
+import com.bandwidth.sdk.exception.CircuitOpenException;
+import com.bandwidth.sdk.model.Call;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class AsyncClientTest {
+
+    private TestApiServer server;
+    private BandwidthClient client;
+
+    private final CountDownLatch messagesReleased = new CountDownLatch(1);
+    private final AtomicInteger messagesReceived = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new TestApiServer();
+        final String location = server.getUserResourceUrl("calls/c-1");
+        server.handle("calls", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                if ("POST".equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().add("Location", location);
+                    TestApiServer.respond(exchange, 201, "");
+                } else if (exchange.getRequestURI().getPath().endsWith("/c-1")) {
+                    TestApiServer.respond(exchange, 200, "{\"id\":\"c-1\",\"state\":\"started\",\"from\":\"+1111\",\"to\":\"+2222\"}");
+                } else {
+                    TestApiServer.respond(exchange, 404, "{\"message\":\"not found\"}");
+                }
+            }
+        }).handle("messages", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                messagesReceived.incrementAndGet();
+                try {
+                    messagesReleased.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                TestApiServer.respond(exchange, 503, "{\"message\":\"unavailable\"}");
+            }
+        }).start();
+        client = server.newClient();
+    }
+
+    @After
+    public void tearDown() {
+        messagesReleased.countDown();
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void shouldCreateCallAsync() throws Exception {
+        final Map<String, Object> params = new HashMap<String, Object>();
+        params.put("to", "+2222");
+        params.put("from", "+1111");
+
+        final Call call = Call.createAsync(client, params, null).get(5, TimeUnit.SECONDS);
+
+        assertThat(call.getId(), equalTo("c-1"));
+        assertThat(call.getState(), equalTo("started"));
+        assertThat(call.getTo(), equalTo("+2222"));
+    }
+
+    @Test
+    public void shouldFailFutureOnErrorStatus() throws Exception {
+        try {
+            client.getAsync(client.getUserResourceInstanceUri(BandwidthConstants.CALLS_URI_PATH, "missing"), null, null)
+                    .get(5, TimeUnit.SECONDS);
+            fail("expected failure");
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(AppPlatformException.class));
+            assertThat(((AppPlatformException) e.getCause()).getStatus(), equalTo(404));
+        }
+    }
+
+    @Test
+    public void shouldHoldALimiterSlotUntilTheResponse() throws Exception {
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 10, 0.5, 100, TimeUnit.MILLISECONDS);
+        client.setConcurrencyLimiter(limiter);
+        final String uri = client.getUserResourceUri(BandwidthConstants.MESSAGES_URI_PATH);
+        final Map<String, Object> params = new HashMap<String, Object>();
+        final Future<RestResponse> first = client.postAsync(uri, params, null);
+        final Future<RestResponse> second = client.postAsync(uri, params, null);
+        assertThat(limiter.getInFlight("messages"), equalTo(2));
+        try {
+            client.postAsync(uri, params, null).get(5, TimeUnit.SECONDS);
+            fail("expected failure");
+        } catch (final ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(IOException.class));
+            assertThat(limiter.getTimeoutCount("messages"), equalTo(1L));
+        }
+
+        messagesReleased.countDown();
+        assertFailsWith(first, 503);
+        assertFailsWith(second, 503);
+        // the slots are given back with the status of the responses, and the 503s cut the limit
+        assertThat(limiter.getInFlight("messages"), equalTo(0));
+        assertThat(limiter.getLimit("messages"), equalTo(1));
+    }
+
+    @Test
+    public void shouldFailFastWhileTheCircuitIsOpen() throws Exception {
+        final CircuitBreaker breaker = new CircuitBreaker(0.5, 2, 2, 1, TimeUnit.MINUTES, 1);
+        client.setCircuitBreaker(breaker);
+        messagesReleased.countDown();
+        final String uri = client.getUserResourceUri(BandwidthConstants.MESSAGES_URI_PATH);
+        final Map<String, Object> params = new HashMap<String, Object>();
+        assertFailsWith(client.postAsync(uri, params, null), 503);
+        assertFailsWith(client.postAsync(uri, params, null), 503);
+        assertThat(breaker.getState("messages"), equalTo(CircuitBreaker.State.OPEN));
+
+        try {
+            client.postAsync(uri, params, null).get(5, TimeUnit.SECONDS);
+            fail("expected failure");
+        } catch (final ExecutionException e) {
+            assertThat(((CircuitOpenException) e.getCause()).getFamily(), equalTo("messages"));
+        }
+        assertThat(messagesReceived.get(), equalTo(2));
+        assertThat(breaker.getRejectedCount("messages"), equalTo(1L));
+    }
+
+    private static void assertFailsWith(final Future<RestResponse> response, final int status) throws Exception {
+        try {
+            response.get(5, TimeUnit.SECONDS);
+            fail("expected failure");
+        } catch (final ExecutionException e) {
+            assertThat(((AppPlatformException) e.getCause()).getStatus(), equalTo(status));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.bandwidth.sdk;
+
+import com.bandwidth.sdk.transport.LoopbackTransport;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.message.BasicHeader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request header setup before and after caching the Authorization header. Run with the gc profiler
+ * to see the allocation difference:
+ *
+ * mvn test-compile exec:exec -Pbenchmark -Dbenchmark="AuthorizationHeaderBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationHeaderBenchmark {
+
+    private static final String PATH = "https://api.catapult.inetwork.com/v1/users/u-id/calls/c-id";
+
+    private BandwidthClient client;
+    private Map<String, Object> params;
+
+    @Setup
+    public void setUp() {
+        client = new BandwidthClient("u-id", "t-abcdefghijklmnopqrstuvw", "abcdefghijklmnopqrstuvwxyz0123456789abcd",
+                null, null, 10, 10, new LoopbackTransport(new LoopbackTransport.Handler() {
+            @Override
+            public HttpResponse handle(final HttpUriRequest request) throws IOException {
+                return LoopbackTransport.response(200, "{}");
+            }
+        }));
+        params = Collections.emptyMap();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public HttpUriRequest cachedHeaders() {
+        final HttpUriRequest request = new HttpGet(PATH);
+        client.addHeaders(request);
+        return request;
+    }
+
+    @Benchmark
+    public HttpUriRequest perRequestHeaders() {
+        final HttpUriRequest request = new HttpGet(PATH);
+        request.addHeader(new BasicHeader("Accept", "application/json"));
+        request.addHeader(new BasicHeader("Accept-Charset", "utf-8"));
+        request.setHeader(new BasicHeader("Authorization", "Basic " + new String(Base64.encodeBase64((client.token + ":" + client.secret).getBytes()))));
+        return request;
+    }
+
+    @Benchmark
+    public HttpUriRequest setupRequest() {
+        return client.setupRequest(PATH, HttpGet.METHOD_NAME, params);
+    }
+}
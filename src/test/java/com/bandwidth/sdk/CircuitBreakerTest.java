@@ -0,0 +1,177 @@
+package com.bandwidth.sdk;
+
+import com.bandwidth.sdk.exception.CircuitOpenException;
+import com.bandwidth.sdk.transport.LoopbackTransport;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CircuitBreakerTest {
+
+    private volatile int status = 500;
+
+    private final LoopbackTransport transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+        @Override
+        public HttpResponse handle(final HttpUriRequest request) throws IOException {
+            if (status == RetryPolicy.IO_FAILURE) {
+                throw new IOException("connection refused");
+            }
+            return LoopbackTransport.response(status, "{}");
+        }
+    });
+
+    private final BandwidthClient client = new BandwidthClient(TestsHelper.TEST_USER_ID, "token", "secret",
+            "http://localhost", "v1", 10, 10, transport);
+
+    private final CircuitBreaker breaker = new CircuitBreaker(0.5, 10, 4, 50, TimeUnit.MILLISECONDS, 2);
+
+    private final List<String> events = new ArrayList<String>();
+
+    @After
+    public void tearDown() {
+        client.close();
+    }
+
+    @Test
+    public void shouldFailFastOnceTheFailureRateIsReached() throws Exception {
+        client.setCircuitBreaker(breaker);
+        breaker.addListener(new CircuitBreaker.Listener() {
+            @Override
+            public void onStateChange(final String family, final CircuitBreaker.State from,
+                                      final CircuitBreaker.State to) {
+                events.add(family + ":" + from + "->" + to);
+            }
+        });
+
+        getCalls(200);
+        getCalls(200);
+        getCalls(500);
+        assertThat(breaker.getState("calls"), equalTo(CircuitBreaker.State.CLOSED));
+        getCalls(RetryPolicy.IO_FAILURE);
+        assertThat(breaker.getState("calls"), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(breaker.getOpenCount("calls"), equalTo(1L));
+
+        try {
+            client.get(client.getUserResourceUri("calls/c-1"), null);
+            fail("expected CircuitOpenException");
+        } catch (final CircuitOpenException e) {
+            assertThat(e.getFamily(), equalTo("calls"));
+        }
+        assertThat(transport.getRequests().size(), equalTo(4));
+        assertThat(breaker.getRejectedCount("calls"), equalTo(1L));
+        assertThat(events, equalTo(Arrays.asList("calls:CLOSED->OPEN")));
+    }
+
+    @Test
+    public void shouldNotCountClientErrorsAsFailures() throws Exception {
+        client.setCircuitBreaker(breaker);
+        status = 404;
+        for (int i = 0; i < 10; i++) {
+            getCalls(404);
+        }
+        assertThat(breaker.getState("calls"), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.getFailureRate("calls"), equalTo(0.0));
+    }
+
+    @Test
+    public void shouldKeepFamiliesApart() throws Exception {
+        client.setCircuitBreaker(breaker);
+        for (int i = 0; i < 4; i++) {
+            getCalls(500);
+        }
+        assertThat(breaker.getState("calls"), equalTo(CircuitBreaker.State.OPEN));
+
+        status = 200;
+        assertThat(client.get(client.getUserResourceUri("messages"), null).getStatus(), equalTo(200));
+        assertThat(breaker.getState("messages"), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.toString(), equalTo("CircuitBreaker{calls=OPEN, messages=CLOSED}"));
+    }
+
+    @Test
+    public void shouldCloseAfterSuccessfulProbes() throws Exception {
+        final CircuitBreaker.Permit[] opening = new CircuitBreaker.Permit[5];
+        for (int i = 0; i < opening.length; i++) {
+            opening[i] = breaker.acquire("/v1/users/u-1/calls");
+        }
+        for (int i = 0; i < 4; i++) {
+            opening[i].release(503);
+        }
+        assertThat(breaker.getState("calls"), equalTo(CircuitBreaker.State.OPEN));
+
+        Thread.sleep(60);
+        final CircuitBreaker.Permit first = breaker.acquire("/v1/users/u-1/calls/c-1");
+        assertThat(breaker.getState("calls"), equalTo(CircuitBreaker.State.HALF_OPEN));
+        final CircuitBreaker.Permit second = breaker.acquire("/v1/users/u-1/calls/c-1");
+        try {
+            breaker.acquire("/v1/users/u-1/calls");
+            fail("expected CircuitOpenException");
+        } catch (final CircuitOpenException e) {
+            assertThat(breaker.getRejectedCount("calls"), equalTo(1L));
+        }
+
+        // a request let through before the circuit opened doesn't count as a probe
+        opening[4].release(500);
+        assertThat(breaker.getState("calls"), equalTo(CircuitBreaker.State.HALF_OPEN));
+        first.release(200);
+        second.release(201);
+        assertThat(breaker.getState("calls"), equalTo(CircuitBreaker.State.CLOSED));
+        assertThat(breaker.getFailureRate("calls"), equalTo(0.0));
+    }
+
+    @Test
+    public void shouldReopenOnAFailedProbe() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            breaker.acquire("/v1/users/u-1/calls").release(500);
+        }
+        Thread.sleep(60);
+        final CircuitBreaker.Permit cancelled = breaker.acquire("/v1/users/u-1/calls");
+        breaker.acquire("/v1/users/u-1/calls").release(200);
+        // a probe that was not sent frees its place
+        cancelled.cancel();
+        breaker.acquire("/v1/users/u-1/calls").release(RetryPolicy.IO_FAILURE);
+        assertThat(breaker.getState("calls"), equalTo(CircuitBreaker.State.OPEN));
+        assertThat(breaker.getOpenCount("calls"), equalTo(2L));
+    }
+
+    @Test
+    public void shouldNotRetryWhileOpen() throws Exception {
+        final RetryPolicy policy = new RetryPolicy().setDelays(1, 10, TimeUnit.MILLISECONDS).setMaxAttempts(10);
+        client.setRetryPolicy(policy);
+        client.setCircuitBreaker(breaker);
+        status = 503;
+        try {
+            client.get(client.getUserResourceUri("calls/c-1"), null);
+            fail("expected CircuitOpenException");
+        } catch (final CircuitOpenException e) {
+            assertThat(e.getFamily(), equalTo("calls"));
+        }
+        // the circuit opened on the fourth attempt and stopped the retries
+        assertThat(transport.getRequests().size(), equalTo(4));
+        assertThat(breaker.getRejectedCount("calls"), equalTo(1L));
+    }
+
+    private void getCalls(final int expected) throws Exception {
+        status = expected;
+        try {
+            client.get(client.getUserResourceUri("calls/c-1"), null);
+            if (expected >= 400 || expected == RetryPolicy.IO_FAILURE) {
+                fail("expected a failure");
+            }
+        } catch (final AppPlatformException e) {
+            assertThat(e.getStatus(), equalTo(expected));
+        } catch (final IOException e) {
+            assertThat(expected, equalTo(RetryPolicy.IO_FAILURE));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.bandwidth.sdk;
+
+import com.bandwidth.sdk.exception.ConcurrencyLimitException;
+import com.bandwidth.sdk.transport.LoopbackTransport;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ConcurrencyLimiterTest {
+
+    @Test
+    public void shouldKeyLimitsByResourceFamily() {
+        assertThat(ConcurrencyLimiter.familyOf("/v1/users/u-1/messages"), equalTo("messages"));
+        assertThat(ConcurrencyLimiter.familyOf("/v1/users/u-1/calls/c-1/audio"), equalTo("calls"));
+        assertThat(ConcurrencyLimiter.familyOf("/v1/users/u-1/domains/d-1/endpoints/e-1"), equalTo("domains"));
+        assertThat(ConcurrencyLimiter.familyOf("/v1/users/u-1/availableNumbers/local"), equalTo("availableNumbers"));
+        assertThat(ConcurrencyLimiter.familyOf("/v1/availableNumbers/tollFree"), equalTo("availableNumbers"));
+        assertThat(ConcurrencyLimiter.familyOf("/v1/users/u-1"), equalTo("users"));
+    }
+
+    @Test
+    public void shouldWaitForASlot() throws Exception {
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(2, 1, 10, 0.5, 50, TimeUnit.MILLISECONDS);
+        final ConcurrencyLimiter.Permit first = limiter.acquire("/v1/users/u-1/messages");
+        limiter.acquire("/v1/users/u-1/messages");
+        // other families have their own slots
+        limiter.acquire("/v1/users/u-1/calls").release(200);
+        try {
+            limiter.acquire("/v1/users/u-1/messages");
+            fail("expected ConcurrencyLimitException");
+        } catch (final ConcurrencyLimitException e) {
+            assertThat(e.getFamily(), equalTo("messages"));
+            assertThat(limiter.getTimeoutCount("messages"), equalTo(1L));
+        }
+
+        first.release(200);
+        assertThat(limiter.acquire("/v1/users/u-1/messages").getFamily(), equalTo("messages"));
+        assertThat(limiter.getInFlight("messages"), equalTo(2));
+        assertThat(limiter.getWaitTime("messages").getCount(), equalTo(3L));
+        assertThat(limiter.getWaitTime("media"), nullValue());
+    }
+
+    @Test
+    public void shouldNotRetryASlotTimeout() throws Exception {
+        final LoopbackTransport transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+            @Override
+            public HttpResponse handle(final HttpUriRequest request) throws IOException {
+                return LoopbackTransport.response(200, "{}");
+            }
+        });
+        final BandwidthClient client = new BandwidthClient(TestsHelper.TEST_USER_ID, "token", "secret",
+                "http://localhost", "v1", 10, 10, transport);
+        final RetryPolicy policy = new RetryPolicy().setDelays(1, 10, TimeUnit.MILLISECONDS).setMaxAttempts(10);
+        client.setRetryPolicy(policy);
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 10, 0.5, 20, TimeUnit.MILLISECONDS);
+        client.setConcurrencyLimiter(limiter);
+        final ConcurrencyLimiter.Permit held = limiter.acquire("/v1/users/u-1/calls");
+        try {
+            client.get(client.getUserResourceUri("calls/c-1"), null);
+            fail("expected ConcurrencyLimitException");
+        } catch (final ConcurrencyLimitException e) {
+            assertThat(e.getFamily(), equalTo("calls"));
+        } finally {
+            held.release(200);
+            client.close();
+        }
+        assertThat(transport.getRequests().size(), equalTo(0));
+        assertThat(policy.getRetryCount(), equalTo(0L));
+        assertThat(limiter.getTimeoutCount("calls"), equalTo(1L));
+    }
+
+    @Test
+    public void shouldCutTheLimitOncePerBurstOfThrottles() throws Exception {
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(10, 1, 100, 0.5, 1, TimeUnit.SECONDS);
+        final List<ConcurrencyLimiter.Permit> permits = new ArrayList<ConcurrencyLimiter.Permit>();
+        for (int i = 0; i < 5; i++) {
+            permits.add(limiter.acquire("/v1/users/u-1/messages"));
+        }
+        for (final ConcurrencyLimiter.Permit permit : permits) {
+            permit.release(429);
+        }
+        assertThat(limiter.getLimit("messages"), equalTo(5));
+        assertThat(limiter.getThrottledCount("messages"), equalTo(5L));
+
+        limiter.acquire("/v1/users/u-1/messages").release(503);
+        assertThat(limiter.getLimit("messages"), equalTo(2));
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire("/v1/users/u-1/messages").release(503);
+        }
+        assertThat(limiter.getLimit("messages"), equalTo(1));
+    }
+
+    @Test
+    public void shouldGrowTheLimitOnlyWhenBusy() throws Exception {
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(4, 1, 100, 0.5, 1, TimeUnit.SECONDS);
+        for (int i = 0; i < 50; i++) {
+            limiter.acquire("/v1/users/u-1/calls").release(200);
+        }
+        assertThat(limiter.getLimit("calls"), equalTo(4));
+
+        for (int round = 0; round < 3; round++) {
+            final List<ConcurrencyLimiter.Permit> permits = new ArrayList<ConcurrencyLimiter.Permit>();
+            for (int i = 0; i < limiter.getLimit("calls"); i++) {
+                permits.add(limiter.acquire("/v1/users/u-1/calls"));
+            }
+            for (final ConcurrencyLimiter.Permit permit : permits) {
+                permit.release(200);
+                permit.release(200);
+            }
+        }
+        assertThat(limiter.getLimit("calls"), equalTo(5));
+    }
+
+    @Test
+    public void shouldConvergeBelowTheApiLimit() throws Exception {
+        final int capacity = 4;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger throttled = new AtomicInteger();
+        final LoopbackTransport transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+            @Override
+            public HttpResponse handle(final HttpUriRequest request) throws IOException {
+                try {
+                    if (inFlight.incrementAndGet() > capacity) {
+                        throttled.incrementAndGet();
+                        return LoopbackTransport.response(429, "{}");
+                    }
+                    Thread.sleep(2);
+                    return LoopbackTransport.response(201, "{}");
+                } catch (final InterruptedException e) {
+                    throw new IOException(e);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        });
+        transport.setRecording(false);
+        final BandwidthClient client = new BandwidthClient(TestsHelper.TEST_USER_ID, "token", "secret",
+                "http://localhost", "v1", 10, 10, transport);
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter(16, 1, 100, 0.5, 10, TimeUnit.SECONDS);
+        client.setConcurrencyLimiter(limiter);
+        final Map<String, Object> params = Collections.<String, Object>singletonMap("text", "hello");
+
+        final AtomicInteger lateThrottles = new AtomicInteger();
+        final Thread[] senders = new Thread[16];
+        for (int t = 0; t < senders.length; t++) {
+            senders[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 100; i++) {
+                        try {
+                            client.post(client.getUserResourceUri(BandwidthConstants.MESSAGES_URI_PATH), params);
+                        } catch (final AppPlatformException e) {
+                            if (i >= 50) {
+                                lateThrottles.incrementAndGet();
+                            }
+                        } catch (final Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                }
+            };
+            senders[t].start();
+        }
+        for (final Thread sender : senders) {
+            sender.join();
+        }
+        client.close();
+
+        assertThat(throttled.get() > 0, equalTo(true));
+        assertThat(limiter.getThrottledCount("messages"), equalTo((long) throttled.get()));
+        // cut from 16 to around the capacity, a little above as requests also spend time in the client
+        assertThat(limiter.getLimit("messages") >= 2 && limiter.getLimit("messages") <= 2 * capacity, equalTo(true));
+        // once converged, the API only pushes back on the probes above its limit: under 20% of the requests, where
+        // 16 unlimited senders would see most of theirs throttled
+        assertThat(lateThrottles.get() < 16 * 50 / 5, equalTo(true));
+    }
+}
@@ -0,0 +1,50 @@
+package com.bandwidth.sdk;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class JsonStreamParserTest {
+
+    @Test
+    public void shouldParseObjectWithJsonSimpleTypes() throws Exception {
+        final JsonStreamParser parser = new JsonStreamParser();
+        final JSONObject object = (JSONObject) parser.parse(new ByteArrayInputStream(
+                "{\"id\":\"c-1\",\"count\":3,\"price\":0.5,\"active\":true,\"none\":null,\"items\":[1,\"two\"]}"
+                        .getBytes("UTF-8")));
+
+        assertThat((String) object.get("id"), equalTo("c-1"));
+        assertThat((Long) object.get("count"), equalTo(3L));
+        assertThat((Double) object.get("price"), equalTo(0.5));
+        assertThat((Boolean) object.get("active"), equalTo(true));
+        assertThat(object.get("none"), nullValue());
+        assertThat(object.get("items"), instanceOf(JSONArray.class));
+        assertThat(((JSONArray) object.get("items")).size(), equalTo(2));
+        assertThat(parser.isAccessDenied(), equalTo(false));
+    }
+
+    @Test
+    public void shouldParseEmptyDocumentAsEmptyObject() throws Exception {
+        assertThat(((JSONObject) new JsonStreamParser().parse("")).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void shouldFlagAccessDenied() throws Exception {
+        final JsonStreamParser parser = new JsonStreamParser();
+        parser.parse("{\"code\":\"access-denied\"}");
+        assertThat(parser.isAccessDenied(), equalTo(true));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectMalformedJson() throws Exception {
+        new JsonStreamParser().parse("{\"id\":");
+    }
+}
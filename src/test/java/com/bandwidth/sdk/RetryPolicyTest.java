@@ -0,0 +1,189 @@
+package com.bandwidth.sdk;
+
+import com.bandwidth.sdk.transport.LoopbackTransport;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.DateUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class RetryPolicyTest {
+
+    private static final Map<String, Object> PARAMS = Collections.<String, Object>singletonMap("text", "hello");
+
+    private final LinkedList<Object> script = new LinkedList<Object>();
+
+    private final LoopbackTransport transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+        @Override
+        public HttpResponse handle(final HttpUriRequest request) throws IOException {
+            final Object next;
+            synchronized (script) {
+                next = script.size() > 1 ? script.removeFirst() : script.getFirst();
+            }
+            if (next instanceof IOException) {
+                throw (IOException) next;
+            }
+            return (HttpResponse) next;
+        }
+    });
+
+    private final BandwidthClient client = new BandwidthClient(TestsHelper.TEST_USER_ID, "token", "secret",
+            "http://localhost", "v1", 10, 10, transport);
+
+    private final RetryPolicy policy = new RetryPolicy().setDelays(1, 50, TimeUnit.MILLISECONDS);
+
+    @After
+    public void tearDown() {
+        client.close();
+    }
+
+    @Test
+    public void shouldRetryTransientStatuses() throws Exception {
+        client.setRetryPolicy(policy);
+        script.add(withRetryAfter(LoopbackTransport.response(503, "{}"), "0"));
+        script.add(LoopbackTransport.response(429, "{}"));
+        script.add(LoopbackTransport.response(200, "{\"id\":\"c-1\"}"));
+
+        final RestResponse response = client.get(client.getUserResourceUri("calls/c-1"), null);
+
+        assertThat(response.getStatus(), equalTo(200));
+        assertThat(transport.getRequests().size(), equalTo(3));
+        assertThat(policy.getRequestCount(), equalTo(1L));
+        assertThat(policy.getRetryCount(), equalTo(2L));
+        assertThat(policy.getRetryCount(503), equalTo(1L));
+        assertThat(policy.getRetryCount(429), equalTo(1L));
+    }
+
+    @Test
+    public void shouldRetryPostsOnlyWhenTheApiDidNotActOnThem() throws Exception {
+        client.setRetryPolicy(policy);
+        script.add(LoopbackTransport.response(429, "{}"));
+        script.add(LoopbackTransport.response(201, "{}"));
+        assertThat(client.post(client.getUserResourceUri("messages"), PARAMS).getStatus(), equalTo(201));
+        assertThat(transport.getRequests().size(), equalTo(2));
+
+        script.clear();
+        script.add(LoopbackTransport.response(502, "{}"));
+        try {
+            client.post(client.getUserResourceUri("messages"), PARAMS);
+            fail("expected AppPlatformException");
+        } catch (final AppPlatformException e) {
+            assertThat(e.getStatus(), equalTo(502));
+        }
+        assertThat(transport.getRequests().size(), equalTo(3));
+    }
+
+    @Test
+    public void shouldRetryIoFailuresOfIdempotentRequestsOnly() throws Exception {
+        client.setRetryPolicy(policy);
+        script.add(new IOException("connection reset"));
+        script.add(LoopbackTransport.response(200, "{}"));
+        assertThat(client.delete(client.getUserResourceUri("calls/c-1")).getStatus(), equalTo(200));
+        assertThat(policy.getRetryCount(RetryPolicy.IO_FAILURE), equalTo(1L));
+
+        script.clear();
+        script.add(new IOException("connection reset"));
+        try {
+            client.post(client.getUserResourceUri("messages"), PARAMS);
+            fail("expected IOException");
+        } catch (final IOException e) {
+            assertThat(e.getMessage(), equalTo("connection reset"));
+        }
+        assertThat(transport.getRequests().size(), equalTo(3));
+    }
+
+    @Test
+    public void shouldGiveUpAfterMaxAttempts() throws Exception {
+        client.setRetryPolicy(policy.setMaxAttempts(4));
+        script.add(LoopbackTransport.response(503, "{}"));
+        try {
+            client.get(client.getUserResourceUri("calls/c-1"), null);
+            fail("expected AppPlatformException");
+        } catch (final AppPlatformException e) {
+            assertThat(e.getStatus(), equalTo(503));
+        }
+        assertThat(transport.getRequests().size(), equalTo(4));
+        assertThat(policy.getGivenUpCount(), equalTo(1L));
+    }
+
+    @Test
+    public void shouldNotWaitLongerThanTheMaxDelay() throws Exception {
+        client.setRetryPolicy(policy);
+        script.add(withRetryAfter(LoopbackTransport.response(429, "{}"), "120"));
+        try {
+            client.get(client.getUserResourceUri("calls/c-1"), null);
+            fail("expected AppPlatformException");
+        } catch (final AppPlatformException e) {
+            assertThat(e.getStatus(), equalTo(429));
+        }
+        assertThat(transport.getRequests().size(), equalTo(1));
+        assertThat(policy.getGivenUpCount(), equalTo(1L));
+    }
+
+    @Test
+    public void shouldStopRetryingOnceTheBudgetIsSpent() throws Exception {
+        client.setRetryPolicy(policy.setMaxAttempts(10).setBudget(0.5, 2));
+        script.add(LoopbackTransport.response(503, "{}"));
+        for (int i = 0; i < 3; i++) {
+            try {
+                client.get(client.getUserResourceUri("calls/c-1"), null);
+                fail("expected AppPlatformException");
+            } catch (final AppPlatformException e) {
+                assertThat(e.getStatus(), equalTo(503));
+            }
+        }
+        // the reserve of 2 plus half a retry per request, only whole retries are spent
+        assertThat(policy.getRetryCount(), equalTo(3L));
+        assertThat(transport.getRequests().size(), equalTo(6));
+        assertThat(policy.getBudgetExhaustedCount(), equalTo(3L));
+    }
+
+    @Test
+    public void shouldDrawDecorrelatedDelays() {
+        final RetryPolicy jittered = new RetryPolicy().setDelays(10, 1000, TimeUnit.MILLISECONDS).setBudget(1, 1000);
+        final Set<Long> firsts = new HashSet<Long>();
+        for (int i = 0; i < 200; i++) {
+            final long first = jittered.nextDelay("GET", 1, 503, null, 0);
+            assertThat(first >= 10 && first <= 30, equalTo(true));
+            firsts.add(first);
+            final long next = jittered.nextDelay("GET", 2, 503, null, 400);
+            assertThat(next >= 10 && next <= 1000, equalTo(true));
+        }
+        // the first retries are spread too, not all sent after the base delay
+        assertThat(firsts.size() > 5, equalTo(true));
+        assertThat(jittered.nextDelay("GET", 1, 503, "0.5", 0) >= 10, equalTo(true));
+        assertThat(jittered.nextDelay("GET", 1, 404, null, 0), equalTo(-1L));
+        assertThat(jittered.nextDelay("POST", 1, 500, null, 0), equalTo(-1L));
+    }
+
+    @Test
+    public void shouldParseRetryAfter() {
+        final long now = System.currentTimeMillis();
+        assertThat(RetryPolicy.parseRetryAfter("2", now), equalTo(2000L));
+        final long date = RetryPolicy.parseRetryAfter(DateUtils.formatDate(new Date(now + 5000)), now);
+        assertThat(date > 3000 && date <= 5000, equalTo(true));
+        assertThat(RetryPolicy.parseRetryAfter("later", now), equalTo(-1L));
+
+        final RestResponse response = RestResponse.createRestResponse(
+                withRetryAfter(LoopbackTransport.response(429, "{}"), "30"));
+        assertThat(response.getRetryAfter(), equalTo("30"));
+    }
+
+    private static HttpResponse withRetryAfter(final HttpResponse response, final String retryAfter) {
+        response.addHeader("Retry-After", retryAfter);
+        return response;
+    }
+}
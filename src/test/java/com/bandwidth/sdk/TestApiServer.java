@@ -0,0 +1,105 @@
+package com.bandwidth.sdk;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP server standing in for the API, for tests that go through a real BandwidthClient and transport.
+ */
+public class TestApiServer {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server handling requests on the JDK server's own thread.
+     *
+     * @throws IOException if no port is available.
+     */
+    public TestApiServer() throws IOException {
+        this(0);
+    }
+
+    /**
+     * Creates a server.
+     *
+     * @param threads the number of threads handling requests, 0 for the JDK server's own thread.
+     * @throws IOException if no port is available.
+     */
+    public TestApiServer(final int threads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = threads > 0 ? Executors.newFixedThreadPool(threads) : null;
+        server.setExecutor(executor);
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the url of a resource of the test user, e.g. messages/ for the prefix of the message urls.
+     *
+     * @param path the path under the user.
+     * @return the url.
+     */
+    public String getUserResourceUrl(final String path) {
+        return getBaseUrl() + "/v1/users/" + TestsHelper.TEST_USER_ID + "/" + path;
+    }
+
+    /**
+     * Handles the requests for a resource of the test user and everything under it.
+     *
+     * @param path the path under the user, e.g. messages.
+     * @param handler the handler.
+     * @return this server.
+     */
+    public TestApiServer handle(final String path, final HttpHandler handler) {
+        server.createContext("/v1/users/" + TestsHelper.TEST_USER_ID + "/" + path, handler);
+        return this;
+    }
+
+    public TestApiServer start() {
+        server.start();
+        return this;
+    }
+
+    /**
+     * Creates a client for the test user pointed at this server.
+     *
+     * @return the client.
+     */
+    public BandwidthClient newClient() {
+        return new BandwidthClient(TestsHelper.TEST_USER_ID, "token", "secret", getBaseUrl(), "v1", 10, 10);
+    }
+
+    public void stop() {
+        server.stop(0);
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Sends a JSON response. An empty body is sent without a Content-Length.
+     *
+     * @param exchange the exchange.
+     * @param status the status.
+     * @param body the JSON body.
+     * @throws IOException if the response can't be written.
+     */
+    public static void respond(final HttpExchange exchange, final int status, final String body) throws IOException {
+        final byte[] bytes = body.getBytes("UTF-8");
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        final OutputStream out = exchange.getResponseBody();
+        out.write(bytes);
+        out.close();
+    }
+}
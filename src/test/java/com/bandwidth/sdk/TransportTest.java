@@ -0,0 +1,120 @@
+package com.bandwidth.sdk;
+
+import com.bandwidth.sdk.model.Call;
+import com.bandwidth.sdk.transport.ApacheHttpTransport;
+import com.bandwidth.sdk.transport.LoopbackTransport;
+import com.bandwidth.sdk.transport.UrlConnectionTransport;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class TransportTest {
+
+    @Test
+    public void shouldRouteRequestsThroughLoopback() throws Exception {
+        final LoopbackTransport transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+            @Override
+            public HttpResponse handle(final HttpUriRequest request) throws IOException {
+                return LoopbackTransport.response(200, "{\"id\":\"c-1\",\"state\":\"active\"}");
+            }
+        });
+        final BandwidthClient client = new BandwidthClient(TestsHelper.TEST_USER_ID, "token", "secret",
+                "http://localhost", "v1", 10, 10, transport);
+
+        final Call call = Call.get(client, "c-1");
+
+        assertThat(call.getState(), equalTo("active"));
+        assertThat(transport.getRequests().size(), equalTo(1));
+        assertThat(transport.getRequests().get(0).getMethod(), equalTo("GET"));
+        assertThat(transport.getRequests().get(0).getURI().toString(),
+                equalTo("http://localhost/v1/users/userId/calls/c-1"));
+        client.close();
+    }
+
+    @Test
+    public void shouldPostThroughUrlConnection() throws Exception {
+        final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        final Map<String, String> received = new HashMap<String, String>();
+        server.createContext("/v1/users/userId/messages", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                received.put("method", exchange.getRequestMethod());
+                received.put("authorization", exchange.getRequestHeaders().getFirst("Authorization"));
+                received.put("body", IOUtils.toString(exchange.getRequestBody(), "UTF-8"));
+                exchange.getResponseHeaders().add("Location", "http://127.0.0.1/v1/users/userId/messages/m-1");
+                exchange.sendResponseHeaders(201, -1);
+                final OutputStream out = exchange.getResponseBody();
+                out.close();
+            }
+        });
+        server.start();
+        final BandwidthClient client = new BandwidthClient(TestsHelper.TEST_USER_ID, "token", "secret",
+                "http://127.0.0.1:" + server.getAddress().getPort(), "v1", 10, 10, new UrlConnectionTransport());
+        try {
+            final Map<String, Object> params = new HashMap<String, Object>();
+            params.put("text", "hello");
+
+            final RestResponse response = client.post(client.getUserResourceUri(BandwidthConstants.MESSAGES_URI_PATH), params);
+
+            assertThat(response.getStatus(), equalTo(201));
+            assertThat(response.getLocation(), equalTo("http://127.0.0.1/v1/users/userId/messages/m-1"));
+            assertThat(received.get("method"), equalTo("POST"));
+            assertThat(received.get("authorization"), equalTo("Basic dG9rZW46c2VjcmV0"));
+            assertThat(received.get("body"), equalTo("{\"text\":\"hello\"}"));
+        } finally {
+            client.close();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void shouldSendThroughAnHttpClientSetBySubclasses() throws Exception {
+        final TestApiServer server = new TestApiServer();
+        server.handle("calls", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                TestApiServer.respond(exchange, 200, "{\"id\":\"c-1\",\"state\":\"active\"}");
+            }
+        }).start();
+        final LoopbackTransport transport = new LoopbackTransport(new LoopbackTransport.Handler() {
+            @Override
+            public HttpResponse handle(final HttpUriRequest request) throws IOException {
+                return LoopbackTransport.response(500, "{}");
+            }
+        });
+        final BandwidthClient client = new BandwidthClient(TestsHelper.TEST_USER_ID, "token", "secret",
+                server.getBaseUrl(), "v1", 10, 10, transport) {
+            {
+                httpClient = HttpClients.createDefault();
+            }
+        };
+        try {
+            assertThat(Call.get(client, "c-1").getState(), equalTo("active"));
+            assertThat(transport.getRequests().size(), equalTo(0));
+        } finally {
+            client.close();
+            server.stop();
+        }
+
+        final BandwidthClient apache = server.newClient();
+        assertThat(apache.httpClient,
+                sameInstance((Object) ((ApacheHttpTransport) apache.getTransport()).getHttpClient()));
+        apache.close();
+    }
+}
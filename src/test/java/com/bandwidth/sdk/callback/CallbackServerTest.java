@@ -0,0 +1,160 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.model.events.AnswerEvent;
+import com.bandwidth.sdk.model.events.Event;
+import com.bandwidth.sdk.model.events.EventType;
+import com.bandwidth.sdk.xml.Response;
+import com.bandwidth.sdk.xml.elements.SpeakSentence;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.containsString;
+
+public class CallbackServerTest {
+
+    private final List<Event> received = new CopyOnWriteArrayList<Event>();
+    private CallbackServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new CallbackServer(new InetSocketAddress("127.0.0.1", 0), new CallbackHandler() {
+            @Override
+            public Response handle(final Event event) throws Exception {
+                received.add(event);
+                if (event.getEventType() == EventType.ANSWER) {
+                    final Response response = new Response();
+                    response.add(new SpeakSentence("Hello " + event.getProperty("to"), "paul", "male", "en_US"));
+                    return response;
+                }
+                if (event.getEventType() == EventType.HANGUP) {
+                    throw new IllegalStateException("failing handler");
+                }
+                return null;
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void shouldReplyWithBxml() throws Exception {
+        final HttpURLConnection connection = post("{\"eventType\":\"answer\",\"callId\":\"c-1\",\"to\":\"+1234\"}");
+
+        assertThat(connection.getResponseCode(), equalTo(200));
+        assertThat(connection.getContentType(), containsString("application/xml"));
+        final String body = IOUtils.toString(connection.getInputStream(), "UTF-8");
+        assertThat(body, containsString("<Response><SpeakSentence"));
+        assertThat(body, containsString("Hello +1234"));
+
+        assertThat(received.size(), equalTo(1));
+        assertThat(received.get(0), instanceOf(AnswerEvent.class));
+        assertThat(server.getLatency().getCount(), equalTo(1L));
+    }
+
+    @Test
+    public void shouldAcceptGetCallbacks() throws Exception {
+        final URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/?eventType=speak&callId=c-2&status=done");
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+
+        assertThat(connection.getResponseCode(), equalTo(200));
+        assertThat(received.get(0).getEventType(), equalTo(EventType.SPEAK));
+        assertThat(received.get(0).getProperty("callId"), equalTo("c-2"));
+    }
+
+    @Test
+    public void shouldReportErrors() throws Exception {
+        assertThat(post("not json").getResponseCode(), equalTo(400));
+        assertThat(post("{\"eventType\":\"hangup\",\"callId\":\"c-1\"}").getResponseCode(), equalTo(500));
+        assertThat(server.getErrorCount(), equalTo(2L));
+    }
+
+    @Test
+    public void shouldLeaveNoDelayToTheApplication() {
+        final String previous = System.clearProperty("sun.net.httpserver.nodelay");
+        try {
+            new CallbackServer(new InetSocketAddress("127.0.0.1", 0), CallbackServer.visitorHandler(null));
+            assertThat(System.getProperty("sun.net.httpserver.nodelay"), equalTo((String) null));
+
+            assertThat(CallbackServer.enableNoDelay(), equalTo(true));
+            System.setProperty("sun.net.httpserver.nodelay", "false");
+            assertThat(CallbackServer.enableNoDelay(), equalTo(false));
+        } finally {
+            if (previous != null) {
+                System.setProperty("sun.net.httpserver.nodelay", previous);
+            } else {
+                System.clearProperty("sun.net.httpserver.nodelay");
+            }
+        }
+    }
+
+    @Test
+    public void shouldHandleConcurrentCallbacks() throws Exception {
+        final int threads = 8;
+        final int perThread = 50;
+        final Thread[] generators = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            generators[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perThread; i++) {
+                        try {
+                            post("{\"eventType\":\"dtmf\",\"callId\":\"c-" + id + "\",\"dtmfDigit\":\"" + (i % 10) + "\"}")
+                                    .getResponseCode();
+                        } catch (final IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                }
+            };
+            generators[t].start();
+        }
+        for (final Thread generator : generators) {
+            generator.join();
+        }
+
+        assertThat(received.size(), equalTo(threads * perThread));
+        // the latency is recorded once the reply is written, which the client may see first
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (server.getLatency().getCount() < threads * perThread && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(server.getLatency().getCount(), equalTo((long) threads * perThread));
+        assertThat(server.getLatency().getPercentile(99, TimeUnit.MICROSECONDS)
+                <= server.getLatency().getMax(TimeUnit.MICROSECONDS), equalTo(true));
+    }
+
+    private HttpURLConnection post(final String body) throws IOException {
+        return post(server, body);
+    }
+
+    static HttpURLConnection post(final CallbackServer server, final String body) throws IOException {
+        final URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        final OutputStream out = connection.getOutputStream();
+        out.write(body.getBytes("UTF-8"));
+        out.close();
+        return connection;
+    }
+}
@@ -0,0 +1,105 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.model.events.Event;
+import com.bandwidth.sdk.model.events.EventBase;
+import com.bandwidth.sdk.xml.Response;
+import com.bandwidth.sdk.xml.elements.Hangup;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class EventDeduplicatorTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Response hangup = new Response();
+
+    private final CallbackHandler counting = new CallbackHandler() {
+        @Override
+        public Response handle(final Event event) {
+            calls.incrementAndGet();
+            return hangup;
+        }
+    };
+
+    @Test
+    public void shouldDropRetriedCallbacks() throws Exception {
+        hangup.add(new Hangup());
+        final EventDeduplicator deduplicator = new EventDeduplicator(counting);
+
+        assertThat(deduplicator.handle(event("answer", "c-1", "2014-08-12T10:17:55.551Z")), sameInstance(hangup));
+        assertThat(deduplicator.handle(event("answer", "c-1", "2014-08-12T10:17:55.551Z")), sameInstance(hangup));
+        deduplicator.handle(event("answer", "c-2", "2014-08-12T10:17:55.551Z"));
+        deduplicator.handle(event("hangup", "c-1", "2014-08-12T10:17:55.551Z"));
+        deduplicator.handle(event("answer", "c-1", "2014-08-12T10:17:56.000Z"));
+
+        assertThat(calls.get(), equalTo(4));
+        assertThat(deduplicator.getHitCount(), equalTo(1L));
+        assertThat(deduplicator.getMissCount(), equalTo(4L));
+        assertThat(deduplicator.size(), equalTo(4));
+    }
+
+    @Test
+    public void shouldForgetFailedEvents() throws Exception {
+        final EventDeduplicator deduplicator = new EventDeduplicator(new CallbackHandler() {
+            @Override
+            public Response handle(final Event event) throws Exception {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IllegalStateException("failing once");
+                }
+                return null;
+            }
+        });
+
+        try {
+            deduplicator.handle(event("gather", "c-1", "t1"));
+            fail("the failure should be rethrown");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+        deduplicator.handle(event("gather", "c-1", "t1"));
+        deduplicator.handle(event("gather", "c-1", "t1"));
+
+        assertThat(calls.get(), equalTo(2));
+        assertThat(deduplicator.getHitCount(), equalTo(1L));
+    }
+
+    @Test
+    public void shouldStayWithinCapacity() throws Exception {
+        final EventDeduplicator deduplicator = new EventDeduplicator(counting, 10, 1, TimeUnit.HOURS);
+
+        for (int i = 0; i < 100; i++) {
+            deduplicator.handle(event("dtmf", "c-" + i, "t1"));
+        }
+        deduplicator.handle(event("dtmf", "c-0", "t1"));
+        deduplicator.handle(event("dtmf", "c-99", "t1"));
+
+        assertThat(deduplicator.size(), equalTo(10));
+        assertThat(deduplicator.getEvictionCount(), equalTo(91L));
+        assertThat(deduplicator.getHitCount(), equalTo(1L));
+        assertThat(calls.get(), equalTo(101));
+    }
+
+    @Test
+    public void shouldExpireEvents() throws Exception {
+        final EventDeduplicator deduplicator = new EventDeduplicator(counting, 10, 20, TimeUnit.MILLISECONDS);
+
+        deduplicator.handle(event("hangup", "c-1", "t1"));
+        Thread.sleep(50);
+        deduplicator.handle(event("hangup", "c-1", "t1"));
+
+        assertThat(calls.get(), equalTo(2));
+        assertThat(deduplicator.getHitCount(), equalTo(0L));
+        assertThat(deduplicator.size(), equalTo(1));
+    }
+
+    private static Event event(final String type, final String callId, final String time) throws Exception {
+        return EventBase.createEventFromString("{\"eventType\":\"" + type + "\",\"callId\":\"" + callId
+                + "\",\"time\":\"" + time + "\"}");
+    }
+}
@@ -0,0 +1,58 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.model.events.EventType;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time added to a callback by recording its payload in an EventJournal, rolling segments included:
+ *
+ * mvn test-compile exec:exec -Pbenchmark -Dbenchmark="EventJournalBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventJournalBenchmark {
+
+    private static final String PAYLOAD = "{\"eventType\":\"gather\",\"reason\":\"max-digits\",\"digits\":\"1234\","
+            + "\"gatherId\":\"g-2sxl5fwenhkvhkd2ri4fxqa\",\"callId\":\"c-z572ovxwcmqsn2hkxzq2pmi\","
+            + "\"callUri\":\"https://api.catapult.inetwork.com/v1/users/u-abc123/calls/c-z572ovxwcmqsn2hkxzq2pmi\","
+            + "\"state\":\"completed\",\"tag\":\"pin\",\"time\":\"2014-08-12T10:18:09.817Z\"}";
+
+    private File directory;
+    private EventJournal journal;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = File.createTempFile("journal", "");
+        directory.delete();
+        journal = new EventJournal(directory);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        journal.close();
+        FileUtils.deleteQuietly(directory);
+    }
+
+    @Benchmark
+    public void append() throws Exception {
+        journal.append(PAYLOAD, EventType.GATHER);
+    }
+}
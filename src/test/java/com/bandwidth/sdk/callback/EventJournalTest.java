@@ -0,0 +1,196 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.model.events.Event;
+import com.bandwidth.sdk.model.events.EventType;
+import com.bandwidth.sdk.xml.Response;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class EventJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Event> received = new CopyOnWriteArrayList<Event>();
+
+    private final CallbackHandler recording = new CallbackHandler() {
+        @Override
+        public Response handle(final Event event) {
+            received.add(event);
+            return null;
+        }
+    };
+
+    @Test
+    public void shouldReadRecordsAcrossSegments() throws Exception {
+        final File directory = new File(folder.getRoot(), "journal");
+        final EventJournal journal = new EventJournal(directory, 1024);
+        for (int i = 0; i < 100; i++) {
+            journal.append(1000L + i, payload("dtmf", "c-" + i), EventType.DTMF);
+        }
+        journal.close();
+
+        assertThat(EventJournal.listSegments(directory).length > 1, equalTo(true));
+        final EventJournalReader reader = new EventJournalReader(directory);
+        for (int i = 0; i < 100; i++) {
+            assertThat(reader.next(), equalTo(true));
+            assertThat(reader.getTimestamp(), equalTo(1000L + i));
+            assertThat(reader.getEventType(), equalTo(EventType.DTMF));
+            assertThat(reader.getPayload(), equalTo(payload("dtmf", "c-" + i)));
+        }
+        assertThat(reader.next(), equalTo(false));
+    }
+
+    @Test
+    public void shouldContinueAfterExistingSegments() throws Exception {
+        final File directory = folder.getRoot();
+        EventJournal journal = new EventJournal(directory, 4096);
+        journal.append(1L, payload("answer", "c-1"), EventType.ANSWER);
+        journal.close();
+        journal = new EventJournal(directory, 4096);
+        journal.append(2L, payload("hangup", "c-1"), EventType.HANGUP);
+        journal.close();
+
+        final EventJournalReader reader = new EventJournalReader(directory);
+        assertThat(reader.next() && reader.getEventType() == EventType.ANSWER, equalTo(true));
+        assertThat(reader.next() && reader.getEventType() == EventType.HANGUP, equalTo(true));
+        assertThat(reader.next(), equalTo(false));
+    }
+
+    @Test
+    public void shouldReadRecordsAppendedWhileReading() throws Exception {
+        final EventJournal journal = new EventJournal(folder.getRoot(), 4096);
+        try {
+            journal.append(1L, payload("answer", "c-1"), EventType.ANSWER);
+            final EventJournalReader reader = new EventJournalReader(folder.getRoot());
+            assertThat(reader.next() && reader.getEventType() == EventType.ANSWER, equalTo(true));
+            assertThat(reader.next(), equalTo(false));
+
+            journal.append(2L, payload("hangup", "c-1"), EventType.HANGUP);
+            assertThat(reader.next() && reader.getEventType() == EventType.HANGUP, equalTo(true));
+            assertThat(reader.next(), equalTo(false));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void shouldStopAtATornRecord() throws Exception {
+        final File directory = new File(folder.getRoot(), "journal");
+        EventJournal journal = new EventJournal(directory, 4096);
+        journal.append(1L, payload("answer", "c-1"), EventType.ANSWER);
+        journal.append(2L, payload("hangup", "c-1"), EventType.HANGUP);
+        journal.close();
+        journal = new EventJournal(directory, 4096);
+        journal.append(3L, payload("answer", "c-2"), EventType.ANSWER);
+        journal.close();
+
+        // the end of the second record's payload was not written back before a crash
+        final int second = EventJournal.SEGMENT_HEADER_SIZE + EventJournal.RECORD_HEADER_SIZE
+                + payload("answer", "c-1").getBytes("UTF-8").length;
+        final int end = second + EventJournal.RECORD_HEADER_SIZE + payload("hangup", "c-1").getBytes("UTF-8").length;
+        final RandomAccessFile file = new RandomAccessFile(EventJournal.listSegments(directory)[0], "rw");
+        try {
+            file.seek(end - 1);
+            file.write(0);
+        } finally {
+            file.close();
+        }
+
+        final EventJournalReader reader = new EventJournalReader(directory);
+        assertThat(reader.next() && reader.getTimestamp() == 1L, equalTo(true));
+        // the torn record ends its segment, the next segment is read
+        assertThat(reader.next() && reader.getTimestamp() == 3L, equalTo(true));
+        assertThat(reader.next(), equalTo(false));
+    }
+
+    @Test
+    public void shouldReplayAtMaxSpeed() throws Exception {
+        final EventJournal journal = new EventJournal(folder.getRoot(), 4096);
+        journal.append(1000L, payload("answer", "c-1"), EventType.ANSWER);
+        journal.append(61000L, "not json", EventType.UNKNOWN);
+        journal.append(121000L, payload("hangup", "c-1"), EventType.HANGUP);
+        journal.close();
+
+        final EventReplayer replayer = new EventReplayer(folder.getRoot());
+        final long start = System.currentTimeMillis();
+        assertThat(replayer.replay(recording, EventReplayer.MAX_SPEED), equalTo(2L));
+
+        assertThat(System.currentTimeMillis() - start < 60000, equalTo(true));
+        assertThat(replayer.getErrorCount(), equalTo(1L));
+        assertThat(received.get(0).getEventType(), equalTo(EventType.ANSWER));
+        assertThat(received.get(1).getEventType(), equalTo(EventType.HANGUP));
+    }
+
+    @Test
+    public void shouldReplayAtScaledSpeed() throws Exception {
+        final EventJournal journal = new EventJournal(folder.getRoot(), 4096);
+        journal.append(1000L, payload("answer", "c-1"), EventType.ANSWER);
+        journal.append(1400L, payload("hangup", "c-1"), EventType.HANGUP);
+        journal.close();
+
+        final OrderedEventDispatcher dispatcher = new OrderedEventDispatcher(2, recording);
+        final long start = System.nanoTime();
+        new EventReplayer(folder.getRoot()).replay(dispatcher, 2);
+        final long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertThat(elapsedMillis >= 190, equalTo(true));
+        assertThat(received.size(), equalTo(2));
+    }
+
+    @Test
+    public void shouldRecordCallbacksOfServer() throws Exception {
+        final EventJournal journal = new EventJournal(folder.getRoot(), 4096);
+        final CallbackServer server = new CallbackServer(new InetSocketAddress("127.0.0.1", 0), recording);
+        server.setJournal(journal);
+        server.start();
+        try {
+            CallbackServerTest.post(server, payload("answer", "c-1")).getResponseCode();
+            CallbackServerTest.post(server, "not json").getResponseCode();
+        } finally {
+            server.stop(0);
+            journal.close();
+        }
+
+        final EventJournalReader reader = new EventJournalReader(folder.getRoot());
+        assertThat(reader.next(), equalTo(true));
+        assertThat(reader.getPayload(), equalTo(payload("answer", "c-1")));
+        assertThat(reader.getEventType(), equalTo(EventType.ANSWER));
+        assertThat(reader.next(), equalTo(false));
+    }
+
+    @Test
+    public void shouldHandleCallbacksTheJournalFailsToRecord() throws Exception {
+        final EventJournal journal = new EventJournal(folder.getRoot(), 4096);
+        journal.close();
+        final CallbackServer server = new CallbackServer(new InetSocketAddress("127.0.0.1", 0), recording);
+        server.setJournal(journal);
+        server.start();
+        try {
+            assertThat(CallbackServerTest.post(server, payload("answer", "c-1")).getResponseCode(), equalTo(200));
+        } finally {
+            server.stop(0);
+        }
+
+        assertThat(received.size(), equalTo(1));
+        assertThat(server.getJournalErrorCount(), equalTo(1L));
+        assertThat(server.getErrorCount(), equalTo(0L));
+    }
+
+    private static String payload(final String type, final String callId) {
+        return "{\"eventType\":\"" + type + "\",\"callId\":\"" + callId + "\"}";
+    }
+}
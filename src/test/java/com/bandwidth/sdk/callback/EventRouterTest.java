@@ -0,0 +1,64 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.model.events.Event;
+import com.bandwidth.sdk.model.events.EventBase;
+import com.bandwidth.sdk.model.events.EventType;
+import com.bandwidth.sdk.xml.Response;
+import com.bandwidth.sdk.xml.elements.Hangup;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class EventRouterTest {
+
+    private final List<String> handled = new ArrayList<String>();
+
+    @Test
+    public void shouldRouteByEventType() throws Exception {
+        final Response hangup = new Response();
+        hangup.add(new Hangup());
+        final EventRouter router = new EventRouter()
+                .on(EventType.ANSWER, recording("answer", hangup))
+                .on(EventType.CONFERENCE_MEMBER, recording("member", null));
+
+        assertThat(router.handle(event("answer")), sameInstance(hangup));
+        assertThat(router.handle(event("conference-member")), nullValue());
+        assertThat(router.handle(event("hangup")), nullValue());
+        assertThat(handled, equalTo(Arrays.asList("answer", "member")));
+    }
+
+    @Test
+    public void shouldFallBackForUnroutedEvents() throws Exception {
+        final EventRouter router = new EventRouter()
+                .on(EventType.ANSWER, recording("answer", null))
+                .otherwise(recording("fallback", null));
+
+        router.handle(event("conference-speak"));
+        router.handle(event("something-new"));
+        router.on(EventType.ANSWER, null);
+        router.handle(event("answer"));
+
+        assertThat(handled, equalTo(Arrays.asList("fallback", "fallback", "fallback")));
+    }
+
+    private CallbackHandler recording(final String name, final Response response) {
+        return new CallbackHandler() {
+            @Override
+            public Response handle(final Event event) {
+                handled.add(name);
+                return response;
+            }
+        };
+    }
+
+    private static Event event(final String type) throws Exception {
+        return EventBase.createEventFromString("{\"eventType\":\"" + type + "\",\"callId\":\"c-1\"}");
+    }
+}
@@ -0,0 +1,42 @@
+package com.bandwidth.sdk.callback;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldMapValuesToContiguousBuckets() {
+        for (long value = 0; value < 100000; value++) {
+            final int bucket = LatencyHistogram.bucket(value);
+            assertThat(value <= LatencyHistogram.upperBound(bucket), equalTo(true));
+            assertThat(bucket == 0 || value > LatencyHistogram.upperBound(bucket - 1), equalTo(true));
+        }
+        assertThat(LatencyHistogram.upperBound(LatencyHistogram.bucket(Long.MAX_VALUE)), equalTo(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldReportPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i, TimeUnit.MILLISECONDS);
+        }
+
+        assertThat(histogram.getCount(), equalTo(1000L));
+        assertThat(histogram.getMax(TimeUnit.MILLISECONDS), equalTo(1000L));
+        assertThat(histogram.getMean(TimeUnit.MILLISECONDS), equalTo(500L));
+
+        final long p99 = histogram.getPercentile(99, TimeUnit.MILLISECONDS);
+        assertThat(p99 >= 990 && p99 <= 990 * 1.07, equalTo(true));
+        final long p50 = histogram.getPercentile(50, TimeUnit.MILLISECONDS);
+        assertThat(p50 >= 500 && p50 <= 500 * 1.07, equalTo(true));
+
+        histogram.reset();
+        assertThat(histogram.getCount(), equalTo(0L));
+        assertThat(histogram.getPercentile(99, TimeUnit.MILLISECONDS), equalTo(0L));
+    }
+}
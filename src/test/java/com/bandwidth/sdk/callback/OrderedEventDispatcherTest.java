@@ -0,0 +1,101 @@
+package com.bandwidth.sdk.callback;
+
+import com.bandwidth.sdk.model.events.Event;
+import com.bandwidth.sdk.model.events.EventBase;
+import com.bandwidth.sdk.xml.Response;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class OrderedEventDispatcherTest {
+
+    private OrderedEventDispatcher dispatcher;
+
+    @After
+    public void tearDown() throws Exception {
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldKeepPerCallOrderAcrossLanes() throws Exception {
+        final Map<String, List<Integer>> seen = new ConcurrentHashMap<String, List<Integer>>();
+        final Set<String> threads = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        dispatcher = new OrderedEventDispatcher(4, new CallbackHandler() {
+            @Override
+            public Response handle(final Event event) throws Exception {
+                threads.add(Thread.currentThread().getName());
+                seen.get(event.getProperty("callId")).add(Integer.valueOf(event.getProperty("tag")));
+                return null;
+            }
+        });
+
+        final int calls = 32;
+        final int events = 50;
+        for (int c = 0; c < calls; c++) {
+            seen.put("c-" + c, Collections.synchronizedList(new ArrayList<Integer>()));
+        }
+        final List<Future<Response>> futures = new ArrayList<Future<Response>>();
+        for (int i = 0; i < events; i++) {
+            for (int c = 0; c < calls; c++) {
+                futures.add(dispatcher.dispatch(event("dtmf", "c-" + c, String.valueOf(i))));
+            }
+        }
+        for (final Future<Response> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        for (final List<Integer> order : seen.values()) {
+            assertThat(order.size(), equalTo(events));
+            for (int i = 0; i < events; i++) {
+                assertThat(order.get(i), equalTo(i));
+            }
+        }
+        assertThat(threads.size() > 1, equalTo(true));
+        assertThat(dispatcher.getHandoffLatency().getCount(), equalTo((long) calls * events));
+        assertThat(dispatcher.getMaxLaneDepth(), equalTo(0));
+    }
+
+    @Test
+    public void shouldShardConferenceEventsByConference() throws Exception {
+        dispatcher = new OrderedEventDispatcher(8, new CallbackHandler() {
+            @Override
+            public Response handle(final Event event) {
+                return null;
+            }
+        });
+
+        final Event member = event("conference-member", "c-1", null);
+        member.setProperty("conferenceId", "conf-1");
+        assertThat(dispatcher.getOrderingKey(member), equalTo("conf-1"));
+        assertThat(dispatcher.getOrderingKey(event("answer", "c-1", null)), equalTo("c-1"));
+        assertThat(dispatcher.getLaneDepths().length, equalTo(8));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRethrowHandlerFailure() throws Exception {
+        dispatcher = new OrderedEventDispatcher(2, new CallbackHandler() {
+            @Override
+            public Response handle(final Event event) {
+                throw new IllegalStateException("failing handler");
+            }
+        });
+        dispatcher.handle(event("hangup", "c-1", null));
+    }
+
+    private static Event event(final String type, final String callId, final String tag) throws Exception {
+        return EventBase.createEventFromString("{\"eventType\":\"" + type + "\",\"callId\":\"" + callId + "\""
+                + (tag != null ? ",\"tag\":\"" + tag + "\"" : "") + "}");
+    }
+}
@@ -0,0 +1,132 @@
+package com.bandwidth.sdk.model;
+
+import com.bandwidth.sdk.MockClient;
+import com.bandwidth.sdk.RestResponse;
+import com.bandwidth.sdk.model.events.EventBase;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class CallStateCacheTest {
+
+    private MockClient mockClient;
+    private CallStateCache cache;
+
+    @Before
+    public void setUp() {
+        mockClient = new MockClient();
+        cache = new CallStateCache();
+        mockClient.setCallStateCache(cache);
+
+        final RestResponse response = new RestResponse();
+        response.setResponseText("{\"id\":\"c-1\",\"state\":\"started\",\"from\":\"+22222222222\",\"to\":\"+11111111111\"}");
+        mockClient.setRestResponse(response);
+    }
+
+    @Test
+    public void shouldServeCallsFromCacheAndApplyEvents() throws Exception {
+        assertThat(Call.get(mockClient, "c-1").getState(), equalTo("started"));
+        assertThat(mockClient.requests.size(), equalTo(1));
+
+        cache.update(EventBase.createEventFromString("{\"eventType\":\"answer\",\"callId\":\"c-1\"}"));
+        final Call call = Call.get(mockClient, "c-1");
+
+        assertThat(call.getState(), equalTo("active"));
+        assertThat(call.getFrom(), equalTo("+22222222222"));
+        assertThat(mockClient.requests.size(), equalTo(1));
+        assertThat(cache.getHitCount(), equalTo(1L));
+        assertThat(cache.getMissCount(), equalTo(1L));
+        assertThat(cache.getHitRatio(), equalTo(0.5));
+        assertThat(cache.getStaleness("c-1", TimeUnit.HOURS), equalTo(0L));
+    }
+
+    @Test
+    public void shouldTrackStateOfCallsNeverLoaded() throws Exception {
+        cache.update(EventBase.createEventFromString("{\"eventType\":\"incomingcall\",\"callId\":\"c-2\",\"callState\":\"active\"}"));
+
+        assertThat(cache.getState("c-2"), equalTo("active"));
+        assertThat(cache.get("c-2"), nullValue());
+        assertThat(cache.getStaleness("c-3", TimeUnit.MILLISECONDS), equalTo(-1L));
+    }
+
+    @Test
+    public void shouldTrackConferences() throws Exception {
+        cache.put("conf-1", (JSONObject) new JSONParser().parse("{\"id\":\"conf-1\",\"state\":\"created\"}"));
+        cache.update(EventBase.createEventFromString(
+                "{\"eventType\":\"conference-member\",\"conferenceId\":\"conf-1\",\"memberId\":\"m-1\",\"activeMembers\":2}"));
+        cache.update(EventBase.createEventFromString(
+                "{\"eventType\":\"conference\",\"conferenceId\":\"conf-1\",\"status\":\"completed\"}"));
+
+        assertThat(cache.getState("conf-1"), equalTo("completed"));
+        assertThat(cache.get("conf-1").get("activeMembers"), equalTo((Object) 2L));
+    }
+
+    @Test
+    public void shouldKeepEventStateNewerThanTheGet() throws Exception {
+        final long requestedAt = System.nanoTime();
+        // the hangup arrives while the GET is in flight, which still saw the call active
+        cache.update(EventBase.createEventFromString("{\"eventType\":\"hangup\",\"callId\":\"c-1\"}"));
+        cache.put("c-1", (JSONObject) new JSONParser().parse("{\"id\":\"c-1\",\"state\":\"active\",\"from\":\"+22222222222\"}"),
+                requestedAt);
+
+        assertThat(cache.getState("c-1"), equalTo("completed"));
+        assertThat(cache.get("c-1").get("from"), equalTo((Object) "+22222222222"));
+
+        // a GET sent after the event wins
+        cache.put("c-1", (JSONObject) new JSONParser().parse("{\"id\":\"c-1\",\"state\":\"rejected\"}"));
+        assertThat(cache.getState("c-1"), equalTo("rejected"));
+    }
+
+    @Test
+    public void shouldIgnoreAGetOlderThanTheCachedOne() throws Exception {
+        final long first = System.nanoTime();
+        cache.put("c-1", (JSONObject) new JSONParser().parse("{\"id\":\"c-1\",\"recordingEnabled\":true}"));
+        cache.put("c-1", (JSONObject) new JSONParser().parse("{\"id\":\"c-1\",\"recordingEnabled\":false}"), first);
+
+        assertThat(cache.get("c-1").get("recordingEnabled"), equalTo((Object) true));
+    }
+
+    @Test
+    public void shouldMergeUpdatesMadeThroughTheSdk() throws Exception {
+        final Call call = Call.get(mockClient, "c-1");
+        mockClient.setRefreshAfterUpdate(false);
+        call.recordingOn();
+        assertThat(Call.get(mockClient, "c-1").isRecordingEnabled(), equalTo(true));
+        assertThat(mockClient.requests.size(), equalTo(2));
+
+        final RestResponse response = new RestResponse();
+        response.setResponseText("{\"id\":\"c-1\",\"state\":\"completed\",\"recordingEnabled\":true}");
+        mockClient.setRestResponse(response);
+        mockClient.setRefreshAfterUpdate(true);
+        call.hangUp();
+        assertThat(mockClient.requests.size(), equalTo(4));
+
+        final Call cached = Call.get(mockClient, "c-1");
+        assertThat(cached.getState(), equalTo("completed"));
+        assertThat(cached.getFrom(), equalTo("+22222222222"));
+        assertThat(mockClient.requests.size(), equalTo(4));
+    }
+
+    @Test
+    public void shouldEvictCallsAfterHangup() throws Exception {
+        cache = new CallStateCache(20, 60000, TimeUnit.MILLISECONDS);
+        mockClient.setCallStateCache(cache);
+
+        Call.get(mockClient, "c-1");
+        cache.update(EventBase.createEventFromString("{\"eventType\":\"hangup\",\"callId\":\"c-1\"}"));
+        assertThat(Call.get(mockClient, "c-1").getState(), equalTo("completed"));
+        Thread.sleep(50);
+
+        assertThat(cache.getState("c-1"), nullValue());
+        assertThat(cache.getStaleness("c-1", TimeUnit.MILLISECONDS), equalTo(-1L));
+        Call.get(mockClient, "c-1");
+        assertThat(mockClient.requests.size(), equalTo(2));
+    }
+}
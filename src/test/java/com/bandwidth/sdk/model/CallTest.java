@@ -66,6 +66,88 @@ public class CallTest {
         assertThat(mockClient.requests.get(1).uri, equalTo("users/" + TestsHelper.TEST_USER_ID + "/calls/c-11111111111111111111111"));
     }
 
+    @Test
+    public void shouldHangUpWithoutRefresh() throws Exception {
+        final JSONObject jsonObject = (JSONObject) new JSONParser().parse("{\"id\":\"c-11111111111111111111111\",\"state\":\"active\",\"recordingEnabled\":false}");
+        mockClient.setRestResponse(new RestResponse());
+        mockClient.setRefreshAfterUpdate(false);
+
+        final Call call = new Call(mockClient, jsonObject);
+
+        call.hangUp();
+        assertThat(mockClient.requests.size(), equalTo(1));
+        assertThat(mockClient.requests.get(0).name, equalTo("post"));
+        assertThat(call.getState(), equalTo("completed"));
+
+        call.recordingOn();
+        assertThat(mockClient.requests.size(), equalTo(2));
+        assertThat(call.isRecordingEnabled(), equalTo(true));
+    }
+
+    @Test
+    public void shouldHangUpLazyCallWithoutRefresh() throws Exception {
+        final RestResponse restResponse = new RestResponse();
+        restResponse.setResponseText("{\"id\":\"id1\",\"state\":\"completed\",\"from\":\"+11111111112\",\"to\":\"+11111111111\",\"direction\":\"out\"}");
+        restResponse.setContentType("application/json");
+        restResponse.setLocation(mockClient.getUserResourceUri(BandwidthConstants.CALLS_URI_PATH) + "/id1");
+        restResponse.setStatus(201);
+        mockClient.setRestResponse(restResponse);
+        mockClient.setRefreshAfterUpdate(false);
+
+        final Map<String, Object> params = new HashMap<String, Object>();
+        params.put("to", "+11111111111");
+        params.put("from", "+11111111112");
+        final Call call = Call.createLazy(mockClient, params);
+        mockClient.requests.clear();
+
+        call.hangUp();
+        assertThat(mockClient.requests.size(), equalTo(1));
+        assertThat(mockClient.requests.get(0).name, equalTo("post"));
+        assertThat(call.isHydrated(), equalTo(false));
+
+        // the fields the update didn't set are still loaded on first access
+        assertThat(call.getDirection(), equalTo("out"));
+        assertThat(call.getState(), equalTo("completed"));
+        assertThat(mockClient.requests.size(), equalTo(2));
+        assertThat(mockClient.requests.get(1).name, equalTo("get"));
+    }
+
+    @Test
+    public void shouldUpdateStateFromEvent() throws Exception {
+        final JSONObject jsonObject = (JSONObject) new JSONParser().parse("{\"id\":\"c-1\",\"state\":\"started\"}");
+        final Call call = new Call(mockClient, jsonObject);
+
+        call.updateFromEvent(EventBase.createEventFromString("{\"eventType\":\"answer\",\"callId\":\"c-1\"}"));
+        assertThat(call.getState(), equalTo("active"));
+
+        call.updateFromEvent(EventBase.createEventFromString("{\"eventType\":\"hangup\",\"callId\":\"c-2\"}"));
+        assertThat(call.getState(), equalTo("active"));
+
+        call.updateFromEvent(EventBase.createEventFromString("{\"eventType\":\"hangup\",\"callId\":\"c-1\"}"));
+        assertThat(call.getState(), equalTo("completed"));
+        assertThat(mockClient.requests.size(), equalTo(0));
+    }
+
+    @Test
+    public void shouldUpdateLazyCallFromEventWithoutRequests() throws Exception {
+        final RestResponse restResponse = new RestResponse();
+        restResponse.setResponseText("{\"id\":\"c-1\",\"state\":\"started\",\"direction\":\"out\"}");
+        restResponse.setContentType("application/json");
+        restResponse.setLocation(mockClient.getUserResourceUri(BandwidthConstants.CALLS_URI_PATH) + "/c-1");
+        restResponse.setStatus(201);
+        mockClient.setRestResponse(restResponse);
+
+        final Map<String, Object> params = new HashMap<String, Object>();
+        params.put("to", "+11111111111");
+        params.put("from", "+11111111112");
+        final Call call = Call.createLazy(mockClient, params);
+        mockClient.requests.clear();
+
+        call.updateFromEvent(EventBase.createEventFromString("{\"eventType\":\"answer\",\"callId\":\"c-1\"}"));
+        assertThat(mockClient.requests.size(), equalTo(0));
+        assertThat(call.isHydrated(), equalTo(false));
+    }
+
     @Test
     public void shouldAnswerOnIncoming() throws ParseException, IOException, Exception {
         final JSONObject jsonObject = (JSONObject) new JSONParser().parse("{\"to\":\"+11111111111\",\"recordings\":\"https://api.catapult.inetwork.com/v1/users/recordings\",\"transcriptionEnabled\":false,\"direction\":\"in\",\"events\":\"https://api.catapult.inetwork.com/v1/users/calls/events\",\"chargeableDuration\":300,\"state\":\"completed\",\"from\":\"+22222222222\",\"endTime\":\"2014-08-12T10:22:54Z\",\"id\":\"c-11111111111111111111111\",\"recordingEnabled\":true,\"startTime\":\"2014-08-12T10:17:54Z\",\"activeTime\":\"2014-08-12T10:17:54Z\",\"transcriptions\":\"https://api.catapult.inetwork.com/v1/users/transcriptions\"}");
@@ -413,6 +495,60 @@ public class CallTest {
         assertThat(mockClient.requests.get(0).uri, equalTo("users/" + TestsHelper.TEST_USER_ID + "/calls"));
     }
 
+    @Test
+    public void shouldCreateLazyCall() throws Exception {
+        final RestResponse restResponse = new RestResponse();
+        restResponse.setResponseText("{\"id\":\"id1\",\"state\":\"active\",\"from\":\"+11111111112\",\"to\":\"+11111111111\",\"startTime\":\"2014-08-12T10:54:29Z\"}");
+        restResponse.setContentType("application/json");
+        restResponse.setLocation(mockClient.getUserResourceUri(BandwidthConstants.CALLS_URI_PATH) + "/id1");
+        restResponse.setStatus(201);
+        mockClient.setRestResponse(restResponse);
+
+        final Map<String, Object> params = new HashMap<String, Object>();
+        params.put("to", "+11111111111");
+        params.put("from", "+11111111112");
+
+        final Call call = Call.createLazy(mockClient, params);
+
+        assertThat(call.getId(), equalTo("id1"));
+        assertThat(call.isHydrated(), equalTo(false));
+        assertThat(mockClient.requests.size(), equalTo(1));
+        assertThat(mockClient.requests.get(0).name, equalTo("post"));
+
+        assertThat(call.getState(), equalTo("active"));
+        assertThat(call.getFrom(), equalTo("+11111111112"));
+        assertThat(call.isHydrated(), equalTo(true));
+        assertThat(mockClient.requests.size(), equalTo(2));
+        assertThat(mockClient.requests.get(1).name, equalTo("get"));
+        assertThat(mockClient.requests.get(1).uri, equalTo("users/" + TestsHelper.TEST_USER_ID + "/calls/id1"));
+
+        call.getStartTime();
+        assertThat(mockClient.requests.size(), equalTo(2));
+    }
+
+    @Test
+    public void shouldHydrateLazyCallOnUpdate() throws Exception {
+        final RestResponse restResponse = new RestResponse();
+        restResponse.setResponseText("{\"id\":\"id1\",\"state\":\"completed\",\"from\":\"+11111111112\",\"to\":\"+11111111111\"}");
+        restResponse.setContentType("application/json");
+        restResponse.setLocation(mockClient.getUserResourceUri(BandwidthConstants.CALLS_URI_PATH) + "/id1");
+        restResponse.setStatus(201);
+        mockClient.setRestResponse(restResponse);
+
+        final Map<String, Object> params = new HashMap<String, Object>();
+        params.put("to", "+11111111111");
+        params.put("from", "+11111111112");
+        final Call call = Call.createLazy(mockClient, params);
+        mockClient.requests.clear();
+
+        call.hangUp();
+        assertThat(call.isHydrated(), equalTo(true));
+        assertThat(call.getState(), equalTo("completed"));
+        assertThat(mockClient.requests.size(), equalTo(2));
+        assertThat(mockClient.requests.get(0).name, equalTo("post"));
+        assertThat(mockClient.requests.get(1).name, equalTo("get"));
+    }
+
     @Test(expected = AppPlatformException.class)
     public void shouldFailGetCallById() throws Exception {
 
@@ -0,0 +1,203 @@
+package com.bandwidth.sdk.model;
+
+import com.bandwidth.sdk.AppPlatformException;
+import com.bandwidth.sdk.BandwidthClient;
+import com.bandwidth.sdk.TestApiServer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.apache.commons.io.IOUtils;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class MessageBatchSenderTest {
+
+    private TestApiServer server;
+    private BandwidthClient client;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new TestApiServer(8);
+        final String messages = server.getUserResourceUrl("messages/");
+        server.handle("messages", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                final int current = inFlight.incrementAndGet();
+                while (true) {
+                    final int max = maxInFlight.get();
+                    if (current <= max || maxInFlight.compareAndSet(max, current)) {
+                        break;
+                    }
+                }
+                try {
+                    Thread.sleep(20);
+                    final Object body = new JSONParser().parse(IOUtils.toString(exchange.getRequestBody(), "UTF-8"));
+                    if (body instanceof JSONArray) {
+                        respondToBatch(exchange, (JSONArray) body, messages);
+                    } else if ("+blocked".equals(((JSONObject) body).get("to"))) {
+                        TestApiServer.respond(exchange, 400, "{\"code\":\"blocked-number\",\"message\":\"blocked\"}");
+                    } else {
+                        exchange.getResponseHeaders().add("Location", messages + "m-" + nextId.incrementAndGet());
+                        TestApiServer.respond(exchange, 201, "{}");
+                    }
+                } catch (final Exception e) {
+                    TestApiServer.respond(exchange, 500, "{\"message\":\"" + e.getMessage() + "\"}");
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        }).start();
+        client = server.newClient();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void shouldSendInConcurrentArrayPosts() throws Exception {
+        final List<Map<String, Object>> messages = messages(250);
+        messages.get(7).put("to", "+blocked");
+
+        final List<MessageResult> results = new MessageBatchSender(client)
+                .setBatchSize(25)
+                .setConcurrency(4)
+                .send(messages);
+
+        assertThat(results.size(), equalTo(250));
+        assertThat(requests.get(), equalTo(10));
+        assertThat(maxInFlight.get() > 1 && maxInFlight.get() <= 4, equalTo(true));
+        for (final MessageResult result : results) {
+            assertThat(result.getParams(), equalTo(messages.get(result.getIndex())));
+            assertThat(result.isAccepted(), equalTo(result.getIndex() != 7));
+        }
+        assertThat(results.get(0).getId().startsWith("m-"), equalTo(true));
+        assertThat(results.get(7).getErrorCode(), equalTo("blocked-number"));
+        assertThat(results.get(7).getId(), nullValue());
+    }
+
+    @Test
+    public void shouldReportFailedBatchesPerMessage() throws Exception {
+        final List<Map<String, Object>> messages = messages(30);
+        messages.get(12).put("text", "fail-batch");
+
+        final List<MessageResult> results = new MessageBatchSender(client).setBatchSize(10).send(messages);
+
+        for (final MessageResult result : results) {
+            final boolean failedBatch = result.getIndex() >= 10 && result.getIndex() < 20;
+            assertThat(result.isAccepted(), equalTo(!failedBatch));
+            if (failedBatch) {
+                assertThat(result.getException(), notNullValue());
+                assertThat(((AppPlatformException) result.getException()).getStatus(), equalTo(500));
+            }
+        }
+    }
+
+    @Test
+    public void shouldReadNumericErrorCodes() throws Exception {
+        final List<Map<String, Object>> messages = messages(3);
+        messages.get(1).put("to", "+invalid");
+
+        final List<MessageResult> results = new MessageBatchSender(client).send(messages);
+
+        assertThat(results.get(0).isAccepted(), equalTo(true));
+        assertThat(results.get(1).isAccepted(), equalTo(false));
+        assertThat(results.get(1).getErrorCode(), equalTo("1234"));
+        assertThat(results.get(1).getException(), nullValue());
+        assertThat(results.get(2).isAccepted(), equalTo(true));
+    }
+
+    @Test
+    public void shouldSendOnePostPerMessage() throws Exception {
+        final List<Map<String, Object>> messages = messages(12);
+        messages.get(3).put("to", "+blocked");
+
+        final List<MessageResult> results = new MessageBatchSender(client)
+                .setArrayPost(false)
+                .setConcurrency(3)
+                .send(messages);
+
+        assertThat(requests.get(), equalTo(12));
+        assertThat(maxInFlight.get() <= 3, equalTo(true));
+        assertThat(results.get(3).isAccepted(), equalTo(false));
+        assertThat(((AppPlatformException) results.get(3).getException()).getStatus(), equalTo(400));
+        assertThat(results.get(4).isAccepted(), equalTo(true));
+    }
+
+    @Test
+    public void shouldCreateAll() throws Exception {
+        final List<MessageResult> results = Message.createAll(client, messages(3));
+
+        assertThat(results.size(), equalTo(3));
+        assertThat(results.get(2).isAccepted(), equalTo(true));
+        assertThat(requests.get(), equalTo(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void respondToBatch(final HttpExchange exchange, final JSONArray batch, final String messages)
+            throws IOException {
+        final JSONArray results = new JSONArray();
+        for (final Object item : batch) {
+            final JSONObject message = (JSONObject) item;
+            if ("fail-batch".equals(message.get("text"))) {
+                TestApiServer.respond(exchange, 500, "{\"message\":\"batch failed\"}");
+                return;
+            }
+            final JSONObject result = new JSONObject();
+            if ("+blocked".equals(message.get("to"))) {
+                final JSONObject error = new JSONObject();
+                error.put("category", "bad-request");
+                error.put("code", "blocked-number");
+                error.put("message", "The number is blocked");
+                result.put("result", "error");
+                result.put("error", error);
+            } else if ("+invalid".equals(message.get("to"))) {
+                final JSONObject error = new JSONObject();
+                error.put("code", 1234);
+                error.put("message", "Invalid number");
+                result.put("result", "error");
+                result.put("error", error);
+            } else {
+                result.put("result", "accepted");
+                result.put("location", messages + "m-" + message.get("text"));
+            }
+            results.add(result);
+        }
+        TestApiServer.respond(exchange, 202, results.toJSONString());
+    }
+
+    private static List<Map<String, Object>> messages(final int count) {
+        final List<Map<String, Object>> messages = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < count; i++) {
+            final Map<String, Object> params = new HashMap<String, Object>();
+            params.put("from", "+1111");
+            params.put("to", "+2222");
+            params.put("text", "text-" + i);
+            messages.add(params);
+        }
+        return messages;
+    }
+}
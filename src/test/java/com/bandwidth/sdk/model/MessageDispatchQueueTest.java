@@ -0,0 +1,343 @@
+package com.bandwidth.sdk.model;
+
+import com.bandwidth.sdk.AppPlatformException;
+import com.bandwidth.sdk.BandwidthClient;
+import com.bandwidth.sdk.TestApiServer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.apache.commons.io.IOUtils;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class MessageDispatchQueueTest {
+
+    private TestApiServer server;
+    private BandwidthClient client;
+    private MessageDispatchQueue queue;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Map<String, List<Long>> arrivals = new ConcurrentHashMap<String, List<Long>>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    private final AtomicInteger flakyFailures = new AtomicInteger(2);
+    private final AtomicInteger throttles = new AtomicInteger(1);
+
+    @Before
+    public void setUp() throws Exception {
+        server = new TestApiServer(8);
+        final String messages = server.getUserResourceUrl("messages/");
+        server.handle("messages", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                final long now = System.nanoTime();
+                try {
+                    final JSONObject body = (JSONObject) new JSONParser().parse(
+                            IOUtils.toString(exchange.getRequestBody(), "UTF-8"));
+                    final String from = (String) body.get("from");
+                    arrivals.putIfAbsent(from, new CopyOnWriteArrayList<Long>());
+                    arrivals.get(from).add(now);
+                    if ("+blocked".equals(body.get("to"))) {
+                        TestApiServer.respond(exchange, 400, "{\"code\":\"blocked-number\",\"message\":\"blocked\"}");
+                    } else if ("+unavailable".equals(body.get("to"))
+                            || ("+flaky".equals(body.get("to")) && flakyFailures.getAndDecrement() > 0)) {
+                        TestApiServer.respond(exchange, 503, "{\"message\":\"unavailable\"}");
+                    } else if ("+throttled".equals(body.get("to")) && throttles.getAndDecrement() > 0) {
+                        exchange.getResponseHeaders().add("Retry-After", "1");
+                        TestApiServer.respond(exchange, 429, "{\"message\":\"too many requests\"}");
+                    } else if ("+nolocation".equals(body.get("to"))) {
+                        TestApiServer.respond(exchange, 201, "{}");
+                    } else {
+                        exchange.getResponseHeaders().add("Location", messages + "m-" + nextId.incrementAndGet());
+                        TestApiServer.respond(exchange, 201, "{}");
+                    }
+                } catch (final Exception e) {
+                    TestApiServer.respond(exchange, 500, "{\"message\":\"" + e.getMessage() + "\"}");
+                }
+            }
+        }).start();
+        client = server.newClient();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (queue != null) {
+            queue.shutdown();
+            queue.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        client.close();
+        server.stop();
+    }
+
+    @Test
+    public void shouldPaceEachNumberAndInterleaveNumbers() throws Exception {
+        queue = new MessageDispatchQueue(client, 20, 1000);
+        final List<Future<MessageResult>> results = new ArrayList<Future<MessageResult>>();
+        final long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            results.add(queue.send(message("+1000", "+2000")));
+            results.add(queue.send(message("+1001", "+2000")));
+        }
+        assertThat(queue.getQueueDepth() > 0, equalTo(true));
+        for (final Future<MessageResult> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).isAccepted(), equalTo(true));
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        // 10 messages at 20/s per number take 450ms, for either number
+        for (final String from : new String[]{"+1000", "+1001"}) {
+            final List<Long> times = arrivals.get(from);
+            assertThat(times.size(), equalTo(10));
+            assertThat(TimeUnit.NANOSECONDS.toMillis(times.get(9) - start) >= 400, equalTo(true));
+        }
+        // the numbers are sent in parallel, not one after the other
+        assertThat(TimeUnit.NANOSECONDS.toMillis(elapsed) < 850, equalTo(true));
+        assertThat(queue.getQueueDepth(), equalTo(0));
+        assertThat(queue.getSentCount(), equalTo(20L));
+        assertThat(queue.getWaitTime().getCount(), equalTo(20L));
+        assertThat(queue.getWaitTime().getMax(TimeUnit.MILLISECONDS) >= 400, equalTo(true));
+    }
+
+    @Test
+    public void shouldCapTheAccountRate() throws Exception {
+        queue = new MessageDispatchQueue(client, 1000, 20);
+        final List<Future<MessageResult>> results = new ArrayList<Future<MessageResult>>();
+        final long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            results.add(queue.send(message("+100" + i, "+2000")));
+        }
+        for (final Future<MessageResult> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+        long last = 0;
+        for (final List<Long> times : arrivals.values()) {
+            last = Math.max(last, times.get(0));
+        }
+        // 10 messages at 20/s take 450ms, however many numbers they come from
+        assertThat(TimeUnit.NANOSECONDS.toMillis(last - start) >= 400, equalTo(true));
+    }
+
+    @Test
+    public void shouldApplyNumberRates() throws Exception {
+        queue = new MessageDispatchQueue(client, 1, 1000);
+        queue.setNumberRate("+1800", 1000);
+        final List<Future<MessageResult>> results = new ArrayList<Future<MessageResult>>();
+        for (int i = 0; i < 10; i++) {
+            results.add(queue.send(message("+1800", "+2000")));
+        }
+        queue.send(message("+1000", "+2000"));
+        queue.send(message("+1000", "+2000"));
+        for (final Future<MessageResult> result : results) {
+            result.get(2, TimeUnit.SECONDS);
+        }
+        // the second message of the 1/s number is still waiting
+        assertThat(queue.getQueueDepth("+1000"), equalTo(1));
+        assertThat(queue.getQueueDepth("+1800"), equalTo(0));
+    }
+
+    @Test
+    public void shouldReportRejectedMessages() throws Exception {
+        queue = new MessageDispatchQueue(client, 100, 100);
+        final MessageResult accepted = queue.send(message("+1000", "+2000")).get(5, TimeUnit.SECONDS);
+        final MessageResult rejected = queue.send(message("+1000", "+blocked")).get(5, TimeUnit.SECONDS);
+
+        assertThat(accepted.getIndex(), equalTo(0));
+        assertThat(accepted.getId().startsWith("m-"), equalTo(true));
+        assertThat(rejected.getIndex(), equalTo(1));
+        assertThat(rejected.isAccepted(), equalTo(false));
+        assertThat(((AppPlatformException) rejected.getException()).getStatus(), equalTo(400));
+        assertThat(queue.getSentCount(), equalTo(1L));
+        assertThat(queue.getFailedCount(), equalTo(1L));
+    }
+
+    @Test
+    public void shouldApplyARaisedRateRightAway() throws Exception {
+        queue = new MessageDispatchQueue(client, 0.5, 1000);
+        final List<Future<MessageResult>> results = new ArrayList<Future<MessageResult>>();
+        for (int i = 0; i < 3; i++) {
+            results.add(queue.send(message("+1000", "+2000")));
+        }
+        results.get(0).get(5, TimeUnit.SECONDS);
+        final long start = System.nanoTime();
+        queue.setNumberRate("+1000", 1000);
+        for (final Future<MessageResult> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).isAccepted(), equalTo(true));
+        }
+        // the second message doesn't wait out the 2s turn it was given at the old rate
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000, equalTo(true));
+    }
+
+    @Test
+    public void shouldReportAResponseWithoutLocationAsFailed() throws Exception {
+        queue = new MessageDispatchQueue(client, 100, 100);
+        final MessageResult result = queue.send(message("+1000", "+nolocation")).get(5, TimeUnit.SECONDS);
+
+        assertThat(result.isAccepted(), equalTo(false));
+        assertThat(((AppPlatformException) result.getException()).getStatus(), equalTo(201));
+        assertThat(queue.getSentCount(), equalTo(0L));
+        assertThat(queue.getFailedCount(), equalTo(1L));
+    }
+
+    @Test
+    public void shouldDrainOnShutdown() throws Exception {
+        queue = new MessageDispatchQueue(client, 50, 1000);
+        final List<Future<MessageResult>> results = new ArrayList<Future<MessageResult>>();
+        for (int i = 0; i < 5; i++) {
+            results.add(queue.send(message("+1000", "+2000")));
+        }
+        queue.shutdown();
+        try {
+            queue.send(message("+1000", "+2000"));
+            fail("expected IllegalStateException");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+        assertThat(queue.awaitTermination(5, TimeUnit.SECONDS), equalTo(true));
+        for (final Future<MessageResult> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).isAccepted(), equalTo(true));
+        }
+    }
+
+    @Test
+    public void shouldAcknowledgeSpooledMessages() throws Exception {
+        final File directory = folder.newFolder("spool");
+        MessageSpool spool = new MessageSpool(directory).setMaxAttempts(2).setRetryDelays(1, 10, TimeUnit.MILLISECONDS);
+        queue = new MessageDispatchQueue(client, 100, 100);
+        assertThat(spool.send(queue, message("+1000", "+2000")).get(5, TimeUnit.SECONDS).isAccepted(), equalTo(true));
+        assertThat(spool.send(queue, message("+1000", "+blocked")).get(5, TimeUnit.SECONDS).isAccepted(),
+                equalTo(false));
+        assertThat(spool.send(queue, message("+1000", "+unavailable")).get(5, TimeUnit.SECONDS).isAccepted(),
+                equalTo(false));
+
+        // accepted and rejected messages are done with, the one that kept hitting a server error is not
+        assertThat(spool.getPendingCount(), equalTo(1));
+        assertThat(spool.getRetryCount(), equalTo(1L));
+        spool.close();
+
+        spool = new MessageSpool(directory).setMaxAttempts(1);
+        try {
+            final List<Future<MessageResult>> resumed = spool.resume(queue);
+            assertThat(resumed.size(), equalTo(1));
+            assertThat(resumed.get(0).get(5, TimeUnit.SECONDS).getParams().get("to"), equalTo((Object) "+unavailable"));
+            assertThat(spool.resume(queue).size(), equalTo(0));
+            assertThat(spool.getPendingCount(), equalTo(1));
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    public void shouldRetrySpooledMessagesAfterServerErrors() throws Exception {
+        final MessageSpool spool = new MessageSpool(folder.newFolder("spool"))
+                .setRetryDelays(1, 10, TimeUnit.MILLISECONDS);
+        queue = new MessageDispatchQueue(client, 100, 100);
+        try {
+            final MessageResult result = spool.send(queue, message("+1000", "+flaky")).get(5, TimeUnit.SECONDS);
+            assertThat(result.isAccepted(), equalTo(true));
+            assertThat(arrivals.get("+1000").size(), equalTo(3));
+            assertThat(spool.getRetryCount(), equalTo(2L));
+            assertThat(spool.getPendingCount(), equalTo(0));
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    public void shouldLeaveThrottledMessagesPending() throws Exception {
+        final MessageSpool spool = new MessageSpool(folder.newFolder("spool")).setMaxAttempts(1);
+        queue = new MessageDispatchQueue(client, 100, 100);
+        try {
+            final MessageResult result = spool.send(queue, message("+1000", "+throttled")).get(5, TimeUnit.SECONDS);
+            assertThat(result.isAccepted(), equalTo(false));
+            assertThat(((AppPlatformException) result.getException()).getStatus(), equalTo(429));
+            // a 429 is not a rejection of the message, it is sent again
+            assertThat(spool.getPendingCount(), equalTo(1));
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    public void shouldRetryThrottledMessagesAfterRetryAfter() throws Exception {
+        final MessageSpool spool = new MessageSpool(folder.newFolder("spool"))
+                .setRetryDelays(1, 10, TimeUnit.MILLISECONDS);
+        queue = new MessageDispatchQueue(client, 100, 100);
+        try {
+            final MessageResult result = spool.send(queue, message("+1000", "+throttled")).get(5, TimeUnit.SECONDS);
+            assertThat(result.isAccepted(), equalTo(true));
+            final List<Long> times = arrivals.get("+1000");
+            assertThat(times.size(), equalTo(2));
+            assertThat(TimeUnit.NANOSECONDS.toMillis(times.get(1) - times.get(0)) >= 900, equalTo(true));
+            assertThat(spool.getPendingCount(), equalTo(0));
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    public void shouldSpoolMessagesSentRightAway() throws Exception {
+        final MessageSpool spool = new MessageSpool(folder.newFolder("spool"));
+        try {
+            final Message message = Message.createLazy(client, message("+1000", "+2000"), spool);
+            assertThat(message.getId().startsWith("m-"), equalTo(true));
+            try {
+                Message.createLazy(client, message("+1000", "+blocked"), spool);
+                fail("expected AppPlatformException");
+            } catch (final AppPlatformException e) {
+                assertThat(e.getStatus(), equalTo(400));
+            }
+            try {
+                Message.createLazy(client, message("+1000", "+unavailable"), spool);
+                fail("expected AppPlatformException");
+            } catch (final AppPlatformException e) {
+                assertThat(e.getStatus(), equalTo(503));
+            }
+            try {
+                Message.createLazy(client, message("+1000", "+throttled"), spool);
+                fail("expected AppPlatformException");
+            } catch (final AppPlatformException e) {
+                assertThat(e.getStatus(), equalTo(429));
+                assertThat(e.getRetryAfter(), equalTo("1"));
+            }
+            // only the messages that hit a server error or were throttled are left to send again
+            assertThat(spool.getPendingCount(), equalTo(2));
+        } finally {
+            spool.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequireAFromNumber() {
+        queue = new MessageDispatchQueue(client);
+        queue.send(new HashMap<String, Object>());
+    }
+
+    private static Map<String, Object> message(final String from, final String to) {
+        final Map<String, Object> params = new HashMap<String, Object>();
+        params.put("from", from);
+        params.put("to", to);
+        params.put("text", "hello");
+        return params;
+    }
+}
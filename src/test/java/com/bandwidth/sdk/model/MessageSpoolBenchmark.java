@@ -0,0 +1,68 @@
+package com.bandwidth.sdk.model;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable enqueues per second of a MessageSpool on local disk, each followed by its acknowledgement, with 32
+ * concurrent senders sharing the syncs:
+ *
+ * mvn test-compile exec:exec -Pbenchmark -Dbenchmark="MessageSpoolBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(32)
+@Fork(1)
+public class MessageSpoolBenchmark {
+
+    @Param({"0", "1000"})
+    public long commitIntervalMicros;
+
+    private final Map<String, Object> params = new HashMap<String, Object>();
+
+    private File directory;
+    private MessageSpool spool;
+
+    @Setup
+    public void setUp() throws Exception {
+        params.put("from", "+19195551212");
+        params.put("to", "+19195551213");
+        params.put("text", "Your verification code is 123456");
+        params.put("tag", "campaign-42");
+        directory = new File(System.getProperty("user.dir"), "target/spool-benchmark");
+        FileUtils.deleteQuietly(directory);
+        spool = new MessageSpool(directory, MessageSpool.DEFAULT_SEGMENT_SIZE, commitIntervalMicros,
+                TimeUnit.MICROSECONDS);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        spool.close();
+        FileUtils.deleteQuietly(directory);
+    }
+
+    @Benchmark
+    public void enqueueAndAck() throws Exception {
+        spool.ack(spool.enqueue(params), "m-1");
+    }
+}
@@ -0,0 +1,176 @@
+package com.bandwidth.sdk.model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class MessageSpoolTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private MessageSpool spool;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = new File(folder.getRoot(), "spool");
+        spool = new MessageSpool(directory);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        spool.close();
+    }
+
+    @Test
+    public void shouldRecoverUnacknowledgedMessages() throws Exception {
+        final long first = spool.enqueue(message(0));
+        final long second = spool.enqueue(message(1));
+        final long third = spool.enqueue(message(2));
+        spool.ack(second, "m-1");
+        assertThat(spool.getPendingCount(), equalTo(2));
+        spool.close();
+
+        spool = new MessageSpool(directory);
+        final Map<Long, Map<String, Object>> pending = spool.getPending();
+        assertThat(new ArrayList<Long>(pending.keySet()), equalTo(Arrays.asList(first, third)));
+        assertThat(pending.get(third).get("text"), equalTo((Object) "message 2"));
+
+        spool.ack(first, "m-0");
+        final long fourth = spool.enqueue(message(3));
+        assertThat(fourth > third, equalTo(true));
+        spool.close();
+
+        spool = new MessageSpool(directory);
+        assertThat(new ArrayList<Long>(spool.getPending().keySet()), equalTo(Arrays.asList(third, fourth)));
+    }
+
+    @Test
+    public void shouldDeleteAcknowledgedSegments() throws Exception {
+        spool.close();
+        spool = new MessageSpool(directory, 256, 0, TimeUnit.MILLISECONDS);
+        final List<Long> ids = new ArrayList<Long>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(spool.enqueue(message(i)));
+        }
+        assertThat(MessageSpool.listSegments(directory).length > 5, equalTo(true));
+
+        // the first message holds back the deletion of all the segments after it
+        for (int i = 1; i < 4; i++) {
+            spool.ack(ids.get(i), "m-" + i);
+        }
+        assertThat(MessageSpool.listSegments(directory).length > 5, equalTo(true));
+
+        spool.ack(ids.get(0), "m-0");
+        for (int i = 4; i < 20; i++) {
+            spool.ack(ids.get(i), "m-" + i);
+        }
+        assertThat(MessageSpool.listSegments(directory).length, equalTo(1));
+        spool.close();
+
+        spool = new MessageSpool(directory);
+        assertThat(spool.getPendingCount(), equalTo(0));
+    }
+
+    @Test
+    public void shouldMoveMessagesLeftPendingWhenRolling() throws Exception {
+        spool.close();
+        spool = new MessageSpool(directory, 256, 0, TimeUnit.MILLISECONDS);
+        final long stuck = spool.enqueue(message(0));
+        for (int i = 1; i < 40; i++) {
+            spool.ack(spool.enqueue(message(i)), "m-" + i);
+        }
+        // the message left pending is logged again as the segments roll, so they can be deleted
+        assertThat(MessageSpool.listSegments(directory).length <= 2, equalTo(true));
+        spool.close();
+
+        spool = new MessageSpool(directory);
+        assertThat(new ArrayList<Long>(spool.getPending().keySet()), equalTo(Arrays.asList(stuck)));
+        assertThat(spool.getPending().get(stuck).get("text"), equalTo((Object) "message 0"));
+        spool.ack(stuck, "m-0");
+        spool.close();
+
+        spool = new MessageSpool(directory);
+        assertThat(spool.getPendingCount(), equalTo(0));
+    }
+
+    @Test
+    public void shouldStopAtATornRecord() throws Exception {
+        spool.enqueue(message(0));
+        spool.enqueue(message(1));
+        spool.enqueue(message(2));
+        spool.close();
+
+        final File[] segments = MessageSpool.listSegments(directory);
+        final RandomAccessFile file = new RandomAccessFile(segments[segments.length - 1], "rw");
+        try {
+            file.setLength(file.length() - 3);
+        } finally {
+            file.close();
+        }
+
+        spool = new MessageSpool(directory);
+        assertThat(spool.getPendingCount(), equalTo(2));
+        spool.enqueue(message(3));
+        spool.close();
+
+        spool = new MessageSpool(directory);
+        assertThat(spool.getPendingCount(), equalTo(3));
+    }
+
+    @Test
+    public void shouldShareSyncsBetweenConcurrentWriters() throws Exception {
+        final int threads = 8;
+        final int perThread = 200;
+        final Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            writers[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < perThread; i++) {
+                            spool.enqueue(message(i));
+                        }
+                    } catch (final Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            };
+            writers[t].start();
+        }
+        for (final Thread writer : writers) {
+            writer.join();
+        }
+
+        assertThat(spool.getEnqueueCount(), equalTo((long) threads * perThread));
+        assertThat(spool.getCommitCount() < spool.getEnqueueCount(), equalTo(true));
+        assertThat(spool.getSyncLatency().getCount() > 0, equalTo(true));
+        spool.close();
+
+        spool = new MessageSpool(directory);
+        assertThat(spool.getPendingCount(), equalTo(threads * perThread));
+    }
+
+    private static Map<String, Object> message(final int i) {
+        final Map<String, Object> params = new HashMap<String, Object>();
+        params.put("from", "+1000");
+        params.put("to", "+2000");
+        params.put("text", "message " + i);
+        return params;
+    }
+}
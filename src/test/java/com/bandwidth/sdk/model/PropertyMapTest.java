@@ -0,0 +1,97 @@
+package com.bandwidth.sdk.model;
+
+import com.bandwidth.sdk.MockClient;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class PropertyMapTest {
+
+    @Test
+    public void shouldBehaveLikeAMap() {
+        final PropertyMap map = new PropertyMap();
+        final Map<String, Object> expected = new HashMap<String, Object>();
+        for (int i = 0; i < 20; i++) {
+            map.put("key" + i, (long) i);
+            expected.put("key" + i, (long) i);
+        }
+        map.put("key3", "three");
+        expected.put("key3", "three");
+        map.remove("key5");
+        expected.remove("key5");
+
+        assertThat(map.size(), equalTo(19));
+        assertThat(map.get("key5"), nullValue());
+        assertThat(map.get("key3"), equalTo((Object) "three"));
+        assertThat(map.equals(expected), equalTo(true));
+        assertThat(map.hashCode(), equalTo(expected.hashCode()));
+
+        final Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getKey().startsWith("key1")) {
+                it.remove();
+            }
+        }
+        assertThat(map.size(), equalTo(8));
+        assertThat(map.containsKey("key10"), equalTo(false));
+        assertThat(map.containsKey("key2"), equalTo(true));
+    }
+
+    @Test
+    public void shouldShareEnumValues() {
+        final PropertyMap first = new PropertyMap();
+        final PropertyMap second = new PropertyMap();
+        first.put("state", new String("completed"));
+        second.put("state", new String("completed"));
+
+        assertThat(first.get("state"), sameInstance(second.get("state")));
+    }
+
+    @Test
+    public void shouldDropTypedValueWhenPropertyChanges() {
+        final PropertyMap map = new PropertyMap();
+        final String first = "2014-08-12T10:17:54Z";
+        map.put("startTime", first);
+        map.putTyped("startTime", first, 1L);
+        assertThat(map.getTyped("startTime", first), equalTo((Object) 1L));
+
+        final String second = "2014-08-12T10:22:54Z";
+        map.put("startTime", second);
+        assertThat(map.getTyped("startTime", second), nullValue());
+    }
+
+    @Test
+    public void shouldIgnoreTypedValueParsedFromAReplacedProperty() {
+        final PropertyMap map = new PropertyMap();
+        final String first = "2014-08-12T10:17:54Z";
+        map.put("startTime", first);
+
+        // a getter read the first value, then another thread replaced it before the getter cached its parse
+        final String second = "2014-08-12T10:22:54Z";
+        map.put("startTime", second);
+        map.putTyped("startTime", first, 1L);
+
+        assertThat(map.getTyped("startTime", second), nullValue());
+        map.putTyped("startTime", second, 2L);
+        assertThat(map.getTyped("startTime", second), equalTo((Object) 2L));
+    }
+
+    @Test
+    public void shouldExposeCallPropertiesAndCacheDates() throws Exception {
+        final JSONObject jsonObject = (JSONObject) new JSONParser().parse("{\"id\":\"c-1\",\"state\":\"completed\",\"startTime\":\"2014-08-12T10:17:54Z\"}");
+        final Call call = new Call(new MockClient(), jsonObject);
+
+        assertThat(call.getProperties().get("state"), equalTo((Object) "completed"));
+        assertThat(call.getStartTime(), equalTo(call.getStartTime()));
+        assertThat(call.getStartTime() != call.getStartTime(), equalTo(true));
+    }
+}
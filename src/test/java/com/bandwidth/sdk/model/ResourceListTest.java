@@ -0,0 +1,134 @@
+package com.bandwidth.sdk.model;
+
+import com.bandwidth.sdk.AppPlatformException;
+import com.bandwidth.sdk.MockClient;
+import com.bandwidth.sdk.RestResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class ResourceListTest {
+
+    private static final int PAGES = 5;
+
+    private PagingClient client;
+
+    @Before
+    public void setUp() {
+        client = new PagingClient();
+    }
+
+    @Test
+    public void shouldWalkAllPagesWithoutPrefetch() throws Exception {
+        final ResourceList<Call> calls = Call.list(client, 0, 2);
+
+        assertThat(ids(calls), equalTo(expectedIds()));
+        assertThat(client.pages.size(), equalTo(PAGES));
+    }
+
+    @Test
+    public void shouldWalkAllPagesWithPrefetch() throws Exception {
+        final ResourceList<Call> calls = Call.list(client, 0, 2);
+        calls.setPrefetch(3);
+
+        assertThat(ids(calls), equalTo(expectedIds()));
+        assertThat(calls.getPrefetchDepth(), equalTo(3));
+
+        // every page is requested once, plus at most the speculative requests past the last page
+        final List<Integer> pages = new ArrayList<Integer>(client.pages);
+        Collections.sort(pages);
+        for (int i = 0; i < PAGES; i++) {
+            assertThat(pages.get(i), equalTo(i));
+        }
+        assertThat(pages.size() <= PAGES + 3, equalTo(true));
+    }
+
+    @Test
+    public void shouldWalkElementsViewWithoutTouchingTheList() throws Exception {
+        final ResourceList<Call> calls = Call.list(client, 0, 2);
+
+        final List<String> ids = new ArrayList<String>();
+        for (final Call call : calls.elements()) {
+            ids.add(call.getId());
+        }
+
+        assertThat(ids, equalTo(expectedIds()));
+        assertThat(calls.size(), equalTo(2));
+        assertThat(calls.get(0).getId(), equalTo("c-0-0"));
+        // the first page is reused from the list, the others are fetched once
+        assertThat(client.pages.size(), equalTo(PAGES));
+    }
+
+    @Test
+    public void shouldWalkPagesViewRepeatedlyWithPrefetch() throws Exception {
+        final ResourceList<Call> calls = Call.list(client, 0, 2);
+        calls.setPrefetch(2);
+
+        for (int walk = 0; walk < 2; walk++) {
+            int count = 0;
+            final List<String> ids = new ArrayList<String>();
+            for (final List<Call> page : calls.pages()) {
+                assertThat(page.size(), equalTo(2));
+                for (final Call call : page) {
+                    ids.add(call.getId());
+                }
+                count++;
+            }
+            assertThat(count, equalTo(PAGES));
+            assertThat(ids, equalTo(expectedIds()));
+        }
+    }
+
+    private static List<String> ids(final ResourceList<Call> calls) {
+        final List<String> ids = new ArrayList<String>();
+        for (final Call call : calls) {
+            ids.add(call.getId());
+        }
+        return ids;
+    }
+
+    private static List<String> expectedIds() {
+        final List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < PAGES; i++) {
+            ids.add("c-" + i + "-0");
+            ids.add("c-" + i + "-1");
+        }
+        return ids;
+    }
+
+    /**
+     * Serves PAGES pages of two calls each, with a next link on all but the last one.
+     */
+    private static class PagingClient extends MockClient {
+
+        final List<Integer> pages = Collections.synchronizedList(new ArrayList<Integer>());
+
+        @Override
+        public RestResponse get(final String uri, final Map<String, Object> params) throws IOException,
+                AppPlatformException {
+            final int page = Integer.parseInt(params.get("page").toString());
+            pages.add(page);
+
+            final RestResponse response = new RestResponse();
+            response.setContentType("application/json");
+            response.setStatus(200);
+            if (page < PAGES) {
+                response.setResponseText("[{\"id\":\"c-" + page + "-0\"},{\"id\":\"c-" + page + "-1\"}]");
+            } else {
+                response.setResponseText("[]");
+            }
+            if (page < PAGES - 1) {
+                response.setNextLink(uri + "?page=" + (page + 1));
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.bandwidth.sdk.model.events;
+
+import com.bandwidth.sdk.AppPlatformException;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+public class EventBaseTest {
+
+    @Test
+    public void shouldParseCorpusLikeJsonTree() throws Exception {
+        for (final String payload : EventParsingBenchmark.loadCorpus()) {
+            final Event event = EventBase.createEventFromString(payload);
+            final EventBase expected = new EventBase((JSONObject) new JSONParser().parse(payload));
+
+            assertThat(event.getEventType(), equalTo(expected.getEventType()));
+            assertThat(event.getEventType() == EventType.UNKNOWN, equalTo(false));
+            assertThat(((EventBase) event).toMap(), equalTo(expected.toMap()));
+        }
+    }
+
+    @Test
+    public void shouldVisitEveryEventTypeWithItsOwnMethod() throws Exception {
+        final List<String> visited = new ArrayList<String>();
+        final Visitor visitor = new VisitorAdapter() {
+            @Override
+            public void processEvent(final Event event) {
+                visited.add("generic");
+            }
+
+            @Override
+            public void processEvent(final TranscriptionEvent event) {
+                visited.add("transcription");
+            }
+
+            @Override
+            public void processEvent(final ConferenceMemberEvent event) {
+                visited.add("conference-member");
+            }
+        };
+
+        EventBase.createEventFromString("{\"eventType\":\"transcription\"}").execute(visitor);
+        EventBase.createEventFromString("{\"eventType\":\"conference-member\"}").execute(visitor);
+        EventBase.createEventFromString("{\"eventType\":\"conference-speak\"}").execute(visitor);
+        EventBase.createEventFromString("{\"eventType\":\"answer\"}").execute(visitor);
+
+        assertThat(visited, equalTo(Arrays.asList("transcription", "conference-member", "generic", "generic")));
+    }
+
+    @Test
+    public void shouldCreateConcreteEvent() throws Exception {
+        final Event event = EventBase.createEventFromString(
+                "{\"callId\":\"c-1\",\"eventType\":\"gather\",\"digits\":\"12\",\"attempts\":3}");
+
+        assertThat(event, instanceOf(GatherEvent.class));
+        assertThat(event.getProperty("callId"), equalTo("c-1"));
+        assertThat(event.getProperty("digits"), equalTo("12"));
+        assertThat(((EventBase) event).toMap().get("attempts"), equalTo((Object) 3L));
+    }
+
+    @Test
+    public void shouldCreateUnknownEventWithoutType() throws Exception {
+        final Event event = EventBase.createEventFromString("{\"callId\":\"c-1\"}");
+
+        assertThat(event.getClass().getName(), equalTo(EventBase.class.getName()));
+        assertThat(event.getEventType(), equalTo(EventType.UNKNOWN));
+        assertThat(event.getProperty("callId"), equalTo("c-1"));
+    }
+
+    @Test(expected = AppPlatformException.class)
+    public void shouldRejectMalformedJson() throws Exception {
+        EventBase.createEventFromString("{\"eventType\":\"answer\",");
+    }
+
+    @Test(expected = AppPlatformException.class)
+    public void shouldRejectNonObject() throws Exception {
+        EventBase.createEventFromString("[{\"eventType\":\"answer\"}]");
+    }
+
+    @Test
+    public void shouldResolveEventTypes() {
+        for (final EventType eventType : EventType.values()) {
+            assertThat(EventType.getEnum(eventType.toString()), equalTo(eventType));
+        }
+        assertThat(EventType.getEnum("Answer"), equalTo(EventType.ANSWER));
+        assertThat(EventType.getEnum("IncomingCall"), equalTo(EventType.INCOMINGCALL));
+        assertThat(EventType.getEnum("Hangup"), equalTo(EventType.UNKNOWN));
+        assertThat(EventType.getEnum("whatever"), equalTo(EventType.UNKNOWN));
+        assertThat(EventType.getEnum(null), equalTo(EventType.UNKNOWN));
+    }
+}
@@ -0,0 +1,76 @@
+package com.bandwidth.sdk.model.events;
+
+import org.apache.commons.io.IOUtils;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of parsing a corpus of callback payloads, one of each event type, in a single streaming pass with
+ * createEventFromString() compared with building a json-simple tree and copying it into the event as it used to:
+ *
+ * mvn test-compile exec:exec -Pbenchmark -Dbenchmark="EventParsingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventParsingBenchmark {
+
+    private String[] corpus;
+
+    @Setup
+    public void setUp() throws Exception {
+        corpus = loadCorpus();
+    }
+
+    @Benchmark
+    public void streaming(final Blackhole blackhole) throws Exception {
+        for (final String payload : corpus) {
+            blackhole.consume(EventBase.createEventFromString(payload));
+        }
+    }
+
+    @Benchmark
+    public void treeThenCopy(final Blackhole blackhole) throws Exception {
+        for (final String payload : corpus) {
+            blackhole.consume(new EventBase((JSONObject) new JSONParser().parse(payload)));
+        }
+    }
+
+    @Benchmark
+    public void eventTypeLookup(final Blackhole blackhole) {
+        for (final EventType eventType : EventType.values()) {
+            blackhole.consume(EventType.getEnum(eventType.toString()));
+        }
+    }
+
+    /**
+     * Loads the payloads of src/test/resources/callback-events.txt, one per line.
+     */
+    static String[] loadCorpus() throws Exception {
+        final InputStream in = EventParsingBenchmark.class.getResourceAsStream("/callback-events.txt");
+        try {
+            final List<String> lines = IOUtils.readLines(in, "UTF-8");
+            return lines.toArray(new String[lines.size()]);
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.bandwidth.sdk.xml;
+
+import com.bandwidth.sdk.xml.elements.Gather;
+import com.bandwidth.sdk.xml.elements.Hangup;
+import com.bandwidth.sdk.xml.elements.PlayAudio;
+import com.bandwidth.sdk.xml.elements.Record;
+import com.bandwidth.sdk.xml.elements.Redirect;
+import com.bandwidth.sdk.xml.elements.SendMessage;
+import com.bandwidth.sdk.xml.elements.SpeakSentence;
+import com.bandwidth.sdk.xml.elements.Transfer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of rendering a typical Gather + SpeakSentence response as a String, streamed to an OutputStream and
+ * from a ResponseTemplate, compared with creating the JAXB context for every verb as toXml() used to:
+ *
+ * mvn test-compile exec:exec -Pbenchmark -Dbenchmark="ResponseBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBenchmark {
+
+    private Response response;
+    private SpeakSentence speakSentence;
+    private Gather gather;
+    private ByteArrayOutputStream out;
+    private ResponseTemplate template;
+    private Map<String, Object> values;
+
+    @Setup
+    public void setUp() throws Exception {
+        speakSentence = new SpeakSentence("Please enter your account number followed by the pound key",
+                "paul", "male", "en_US");
+        gather = new Gather("/bxml/gather", 500, "#", 10, 5, "true",
+                new SpeakSentence("Press one for sales, two for support", "kate", "female", "en_US"));
+        response = new Response();
+        response.add(speakSentence);
+        response.add(gather);
+        out = new ByteArrayOutputStream(1024);
+
+        Response shape = new Response();
+        shape.add(new SpeakSentence("${greeting}", "paul", "male", "en_US"));
+        shape.add(new Gather("/bxml/gather", 500, "#", 10, 5, "true",
+                new SpeakSentence("${menu}", "kate", "female", "en_US")));
+        template = ResponseTemplate.compile(shape);
+        values = new HashMap<String, Object>();
+        values.put("greeting", "Please enter your account number followed by the pound key");
+        values.put("menu", "Press one for sales, two for support");
+    }
+
+    @Benchmark
+    public String toXml() throws Exception {
+        return response.toXml();
+    }
+
+    @Benchmark
+    public int writeXml() throws Exception {
+        out.reset();
+        response.writeXml(out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int template() throws Exception {
+        out.reset();
+        template.writeXml(out, values);
+        return out.size();
+    }
+
+    @Benchmark
+    public String contextPerVerb() throws Exception {
+        StringBuilder stringBuilder = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Response>");
+        for (Object verb : new Object[]{speakSentence, gather}) {
+            JAXBContext jc = JAXBContext.newInstance(Hangup.class, Transfer.class, SpeakSentence.class,
+                    PlayAudio.class, Redirect.class, SendMessage.class, Gather.class, Record.class);
+            Marshaller marshaller = jc.createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+            StringWriter writer = new StringWriter();
+            marshaller.marshal(verb, writer);
+            stringBuilder.append(writer.toString());
+        }
+        return stringBuilder.append("</Response>").toString();
+    }
+}
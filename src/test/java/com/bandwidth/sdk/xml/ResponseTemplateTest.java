@@ -0,0 +1,59 @@
+package com.bandwidth.sdk.xml;
+
+import com.bandwidth.sdk.xml.elements.SpeakSentence;
+import com.bandwidth.sdk.xml.elements.Transfer;
+import org.custommonkey.xmlunit.Diff;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class ResponseTemplateTest {
+
+    private ResponseTemplate template;
+    private Map<String, Object> values;
+
+    @Before
+    public void setUp() throws Exception {
+        Response response = new Response();
+        response.add(new SpeakSentence("Hello ${name}, please hold", "paul", "male", "en_US"));
+        response.add(new Transfer("${agent}", "+19195551212"));
+        template = ResponseTemplate.compile(response);
+
+        values = new HashMap<String, Object>();
+        values.put("name", "Tom & \"Jerry\" <co>");
+        values.put("agent", "+19195550000");
+    }
+
+    @Test
+    public void shouldListSlots() {
+        assertThat(template.getSlots().toString(), equalTo("[name, agent]"));
+    }
+
+    @Test
+    public void shouldRenderLikeAResponseWithEscapedValues() throws Exception {
+        Response expected = new Response();
+        expected.add(new SpeakSentence("Hello Tom & \"Jerry\" <co>, please hold", "paul", "male", "en_US"));
+        expected.add(new Transfer("+19195550000", "+19195551212"));
+        StringWriter writer = new StringWriter();
+        expected.writeXml(writer);
+
+        assertThat(new Diff(writer.toString(), template.toXml(values)).identical(), equalTo(true));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        template.writeXml(out, values);
+        assertThat(out.toString("UTF-8"), equalTo(template.toXml(values)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMissingValue() {
+        values.remove("agent");
+        template.toXml(values);
+    }
+}
@@ -14,7 +14,9 @@ import org.xml.sax.SAXException;
 
 import javax.xml.bind.JAXBException;
 import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.List;
 
 public class TestResponse {
@@ -471,6 +473,31 @@ public class TestResponse {
         record.setTranscribeCallbackUrl(" ");
     }
 
+    @Test
+    public void testWriteXmlToStream() throws IOException, XMLMarshallingException, XMLInvalidAttributeException, ParserConfigurationException, SAXException {
+        Response response = new Response();
+        SpeakSentence speakSentence = new SpeakSentence("This is a test of spoken sentence",
+                "paul",
+                "male",
+                "en_US");
+        Gather gather = new Gather("/baml/gather", 500, "#", 1, 5, "true", speakSentence);
+        response.add(gather);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.writeXml(out);
+        String xmlReference = IOUtils.toString(getClass().getResourceAsStream("/speaksentencewithingather.xml"), "UTF-8");
+        compareXML(xmlReference, out.toString("UTF-8"));
+
+        StringWriter writer = new StringWriter();
+        response.writeXml(writer);
+        compareXML(response.toXml(), writer.toString());
+    }
+
+    @Test(expected = XMLMarshallingException.class)
+    public void testWriteXml_InvalidCase_Empty() throws XMLMarshallingException {
+        new Response().writeXml(new StringWriter());
+    }
+
     private void compareXML (String expected, String current) throws ParserConfigurationException, IOException, SAXException {
         XMLUnit.setIgnoreWhitespace(true);
         XMLUnit.setIgnoreAttributeOrder(true);